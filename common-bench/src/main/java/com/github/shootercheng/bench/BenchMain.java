@@ -0,0 +1,51 @@
+package com.github.shootercheng.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * run benchmarks with the gc profiler and print rows/sec and bytes allocated per row.
+ * benchmarks with a "rows" param handle that many rows per operation, the others one row.
+ * usage: java -jar common-bench/target/benchmarks.jar [jmh options] [benchmark regex]
+ * @author James
+ */
+public class BenchMain {
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        System.out.println();
+        System.out.println(String.format("%-40s %-30s %15s %15s", "Benchmark", "Params", "rows/sec", "bytes/row"));
+        for (RunResult runResult : results) {
+            String rowsParam = runResult.getParams().getParam("rows");
+            long rowsPerOp = rowsParam == null ? 1 : Long.parseLong(rowsParam);
+            double rowsPerSecond = runResult.getPrimaryResult().getScore() * rowsPerOp;
+            double bytesPerRow = Double.NaN;
+            for (Map.Entry<String, Result> entry : runResult.getSecondaryResults().entrySet()) {
+                if (entry.getKey().endsWith(ALLOC_NORM)) {
+                    bytesPerRow = entry.getValue().getScore() / rowsPerOp;
+                }
+            }
+            StringBuilder params = new StringBuilder();
+            for (String key : runResult.getParams().getParamsKeys()) {
+                params.append(key).append("=").append(runResult.getParams().getParam(key)).append(" ");
+            }
+            String benchmark = runResult.getParams().getBenchmark();
+            benchmark = benchmark.substring(BenchMain.class.getPackage().getName().length() + 1);
+            System.out.println(String.format("%-40s %-30s %15.1f %15.1f", benchmark,
+                    params.toString().trim(), rowsPerSecond, bytesPerRow));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.shootercheng.bench;
+
+import com.github.shootercheng.parse.anno.Location;
+
+import java.util.Date;
+
+/**
+ * row model of the benchmark files
+ * @author James
+ */
+public class BenchRow {
+    @Location(column = "A")
+    private Integer id;
+
+    @Location(column = "B")
+    private String name;
+
+    @Location(column = "C")
+    private Double score;
+
+    @Location(column = "D")
+    private Date createTime;
+
+    @Location(column = "E")
+    private String remark;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+
+    public String getRemark() {
+        return remark;
+    }
+
+    public void setRemark(String remark) {
+        this.remark = remark;
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.shootercheng.bench;
+
+import com.github.shootercheng.common.util.ReflectUtil;
+import com.github.shootercheng.export.common.RowQuotationFormat;
+import com.github.shootercheng.parse.bind.RowBinder;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import com.github.shootercheng.parse.utils.DateUtil;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * one cell or one row per operation
+ * @author James
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ConvertBenchmark {
+    private static final String[] ROW = {"12345", "name12", "99.5", "2019-10-02 12:30:00", "remark"};
+
+    private static final String QUOTED_ROW = "\"12345\",\"name12\",\"99.5\",\"2019-10-02 12:30:00\",\"a,b,c\"";
+
+    private Method idSetter;
+
+    private Method dateSetter;
+
+    private RowBinder<BenchRow> rowBinder;
+
+    private RowQuotationFormat rowQuotationFormat;
+
+    @Setup
+    public void setup() {
+        Map<String, Method> beanSetterMap = ReflectUtil.getBeanSetterMap(BenchRow.class);
+        idSetter = beanSetterMap.get("id");
+        dateSetter = beanSetterMap.get("createtime");
+        rowBinder = RowBinder.compile(BenchRow.class, AnnotationUtil.findOneSheetSetter(BenchRow.class));
+        rowQuotationFormat = new RowQuotationFormat();
+    }
+
+    @Benchmark
+    public BenchRow invokeValueInteger() {
+        BenchRow row = new BenchRow();
+        FileParseCommonUtil.invokeValue(row, idSetter, ROW[0]);
+        return row;
+    }
+
+    @Benchmark
+    public BenchRow invokeValueDate() {
+        BenchRow row = new BenchRow();
+        FileParseCommonUtil.invokeValue(row, dateSetter, ROW[3]);
+        return row;
+    }
+
+    @Benchmark
+    public BenchRow rowBinder() throws Exception {
+        BenchRow row = rowBinder.newInstance();
+        for (int i = 0, size = rowBinder.size(); i < size; i++) {
+            rowBinder.bind(row, i, ROW[rowBinder.getColumn(i)]);
+        }
+        return row;
+    }
+
+    @Benchmark
+    public Date parseStrToDate() {
+        return DateUtil.parseStrToDate(ROW[3]);
+    }
+
+    @Benchmark
+    public String rowQuotationFormat() {
+        return rowQuotationFormat.formatRow(QUOTED_ROW);
+    }
+}
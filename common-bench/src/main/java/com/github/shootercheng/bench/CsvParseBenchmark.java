@@ -0,0 +1,68 @@
+package com.github.shootercheng.bench;
+
+import com.github.shootercheng.bench.fixture.FixtureGenerator;
+import com.github.shootercheng.bench.fixture.FixtureShape;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.CsvFileParse;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * parse a whole csv file per operation
+ * @author James
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CsvParseBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"reader", "mapped", "parallel"})
+    public String mode;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("bench", ".csv");
+        new FixtureGenerator(FixtureShape.BENCH_ROW).setRowCount(rows).write(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        ParseParam parseParam = new ParseParam().setStartLine(1)
+                .setEncode(StandardCharsets.UTF_8.name())
+                .setFieldSetterMap(AnnotationUtil.findOneSheetSetter(BenchRow.class))
+                .setMemoryMapped("mapped".equals(mode))
+                .setParallelism("parallel".equals(mode) ? Runtime.getRuntime().availableProcessors() : 1)
+                .setDataConsumer((list, sheet) -> blackhole.consume(list));
+        CsvFileParse.instance().parseFile(file.getPath(), BenchRow.class, parseParam);
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.shootercheng.bench;
+
+import com.github.shootercheng.bench.fixture.FixtureGenerator;
+import com.github.shootercheng.bench.fixture.FixtureShape;
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * parse a whole xlsx file per operation by POI usermodel, EasyExcel and the streaming engine.
+ * 1000000 rows by POI usermodel needs a big heap, e.g. -jvmArgs -Xmx8g
+ * @author James
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExcelParseBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"EXCEL", "EASYEXCEL", "EXCEL_STREAM"})
+    public String engine;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("bench", ".xlsx");
+        new FixtureGenerator(FixtureShape.BENCH_ROW).setRowCount(rows).write(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        ParseParam parseParam = new ParseParam().setStartLine(1)
+                .setParseType(ParseType.valueOf(engine))
+                .setFieldSetterMap(AnnotationUtil.findOneSheetSetter(BenchRow.class))
+                .setDataConsumer((list, sheet) -> blackhole.consume(list));
+        FileParseCreateor.createFileParse(ParseType.valueOf(engine)).parseFile(file.getPath(), BenchRow.class, parseParam);
+    }
+}
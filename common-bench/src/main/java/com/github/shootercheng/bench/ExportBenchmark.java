@@ -0,0 +1,96 @@
+package com.github.shootercheng.bench;
+
+import com.github.shootercheng.bench.fixture.FixtureGenerator;
+import com.github.shootercheng.bench.fixture.FixtureShape;
+import com.github.shootercheng.export.common.ExportCommon;
+import com.github.shootercheng.export.core.BaseExport;
+import com.github.shootercheng.export.core.CsvExport;
+import com.github.shootercheng.export.core.ExcelExport;
+import com.github.shootercheng.export.core.XlsxStreamExport;
+import com.github.shootercheng.export.param.ExportParam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * export a row list to a new file per operation
+ * @author James
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExportBenchmark {
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"csv", "xlsx", "xlsx-stream"})
+    public String format;
+
+    private List<BenchRow> rowList;
+
+    private Map<String, String> fieldColumnMap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        rowList = new ArrayList<>(rows);
+        new FixtureGenerator(FixtureShape.BENCH_ROW).setRowCount(rows).forEachRow(0, values -> {
+            BenchRow row = new BenchRow();
+            row.setId((Integer) values[0]);
+            row.setName((String) values[1]);
+            row.setScore((Double) values[2]);
+            row.setCreateTime(values[3] == null ? null : new Date((Long) values[3] * 1000));
+            row.setRemark((String) values[4]);
+            rowList.add(row);
+        });
+        fieldColumnMap = new HashMap<>();
+        fieldColumnMap.put("A", "id");
+        fieldColumnMap.put("B", "name");
+        fieldColumnMap.put("C", "score");
+        fieldColumnMap.put("D", "createTime");
+        fieldColumnMap.put("E", "remark");
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        File file = File.createTempFile("bench", "csv".equals(format) ? ".csv" : ".xlsx");
+        file.delete();
+        ExportParam exportParam = new ExportParam()
+                .setHeader(String.join(",", FixtureShape.BENCH_ROW.getHeaders(0)))
+                .setCharset(StandardCharsets.UTF_8)
+                .setGetterMethod(ExportCommon.buildParamGetter(BenchRow.class, fieldColumnMap));
+        BaseExport baseExport;
+        if ("csv".equals(format)) {
+            baseExport = new CsvExport(file.getPath(), exportParam);
+        } else if ("xlsx".equals(format)) {
+            baseExport = new ExcelExport(file.getPath(), null, false, exportParam);
+        } else {
+            baseExport = new XlsxStreamExport(file.getPath(), exportParam);
+        }
+        baseExport.exportList(rowList);
+        long length = file.length();
+        file.delete();
+        return length;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.shootercheng.bench.fixture;
+
+/**
+ * value type of a fixture column
+ * @author James
+ */
+public enum ColumnType {
+    /**
+     * short text, sometimes contains delimiter, quote or line break
+     */
+    TEXT,
+    /**
+     * date written as text, e.g. 2019/10/02
+     */
+    DATE_TEXT,
+    INTEGER,
+    DOUBLE,
+    /**
+     * date cell in excel, yyyy-MM-dd HH:mm:ss in csv
+     */
+    DATE
+}
@@ -0,0 +1,387 @@
+package com.github.shootercheng.bench.fixture;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * write csv, xls or xlsx fixtures of the test model shapes, the same seed always writes the same data.
+ * csv is written by a buffered writer and xlsx by SXSSFWorkbook, only a few rows are kept in memory.
+ * xls has no streaming writer, it is limited by the format to 65536 rows a sheet anyway
+ * @author James
+ */
+public class FixtureGenerator {
+    private static final long START_SECOND = 1546300800L;
+
+    private static final int SECONDS_OF_YEAR = 365 * 24 * 3600;
+
+    private static final int XLS_MAX_ROW = 65535;
+
+    private static final int XLSX_MAX_ROW = 1048575;
+
+    private static final int ROW_ACCESS_WINDOW = 1000;
+
+    /**
+     * excel date number of 1970-01-01
+     */
+    private static final int EXCEL_EPOCH_DAY = 25569;
+
+    private final FixtureShape shape;
+
+    private long seed = 1;
+
+    private long rowCount = 10000;
+
+    private long targetBytes;
+
+    private double blankRatio = 0.05;
+
+    private double quoteRatio = 0.1;
+
+    public FixtureGenerator(FixtureShape shape) {
+        this.shape = shape;
+    }
+
+    public FixtureGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @param rowCount data rows of each sheet, header not included
+     * @return this
+     */
+    public FixtureGenerator setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+        return this;
+    }
+
+    /**
+     * write rows until the size is reached instead of a row count, split evenly between sheets.
+     * for excel the size is the cell text size, the zipped file is smaller
+     * @param targetBytes target bytes, 0 is not used
+     * @return this
+     */
+    public FixtureGenerator setTargetBytes(long targetBytes) {
+        this.targetBytes = targetBytes;
+        return this;
+    }
+
+    public FixtureGenerator setBlankRatio(double blankRatio) {
+        this.blankRatio = blankRatio;
+        return this;
+    }
+
+    /**
+     * @param quoteRatio ratio of text containing delimiter, quote or line break
+     * @return this
+     */
+    public FixtureGenerator setQuoteRatio(double quoteRatio) {
+        this.quoteRatio = quoteRatio;
+        return this;
+    }
+
+    /**
+     * write by the file extension. csv has one sheet a file, the other sheets are written to name-sheetN.csv
+     * @param file csv, xls or xlsx file
+     * @throws IOException write error
+     */
+    public void write(File file) throws IOException {
+        String name = file.getName();
+        if (name.endsWith(".csv")) {
+            for (int sheet = 0; sheet < shape.getSheetCount(); sheet++) {
+                File sheetFile = sheet == 0 ? file : new File(file.getParentFile(),
+                        name.substring(0, name.length() - 4) + "-sheet" + sheet + ".csv");
+                writeCsv(sheetFile, sheet);
+            }
+        } else if (name.endsWith(".xlsx")) {
+            SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+            try {
+                writeExcel(file, workbook, XLSX_MAX_ROW);
+            } finally {
+                workbook.dispose();
+            }
+        } else if (name.endsWith(".xls")) {
+            writeExcel(file, new HSSFWorkbook(), XLS_MAX_ROW);
+        } else {
+            throw new IllegalArgumentException("unknown fixture type " + name);
+        }
+    }
+
+    /**
+     * generate the rows of a sheet without writing a file, by the row count only.
+     * DATE values are epoch seconds, the same array is reused for every row
+     * @param sheet sheet index of the shape
+     * @param rowConsumer row consumer
+     */
+    public void forEachRow(int sheet, Consumer<Object[]> rowConsumer) {
+        RowGenerator rowGenerator = new RowGenerator(sheet);
+        Object[] values = new Object[rowGenerator.columnTypes.length];
+        for (long i = 0; i < rowCount; i++) {
+            rowGenerator.nextRow(values);
+            rowConsumer.accept(values);
+        }
+    }
+
+    private boolean hasNextRow(long rowIndex, long bytes) {
+        if (targetBytes > 0) {
+            return bytes < targetBytes / shape.getSheetCount();
+        }
+        return rowIndex < rowCount;
+    }
+
+    private void writeCsv(File file, int sheet) throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream(new FileOutputStream(file));
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write(String.join(",", shape.getHeaders(sheet)));
+            writer.write("\r\n");
+            RowGenerator rowGenerator = new RowGenerator(sheet);
+            Object[] values = new Object[rowGenerator.columnTypes.length];
+            StringBuilder line = new StringBuilder(256);
+            for (long i = 0; hasNextRow(i, outputStream.count); i++) {
+                rowGenerator.nextRow(values);
+                line.setLength(0);
+                for (int j = 0; j < values.length; j++) {
+                    if (j > 0) {
+                        line.append(',');
+                    }
+                    appendCsvValue(line, rowGenerator.columnTypes[j], values[j]);
+                }
+                line.append("\r\n");
+                writer.append(line);
+            }
+        }
+    }
+
+    private static void appendCsvValue(StringBuilder line, ColumnType columnType, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (columnType == ColumnType.DATE) {
+            appendDateTime(line, (Long) value);
+            return;
+        }
+        String text = String.valueOf(value);
+        boolean needQuote = false;
+        for (int i = 0; i < text.length() && !needQuote; i++) {
+            char c = text.charAt(i);
+            needQuote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!needQuote) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private static void appendDateTime(StringBuilder line, long epochSecond) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        line.append(dateTime.getYear()).append('-');
+        appendTwoDigits(line, dateTime.getMonthValue()).append('-');
+        appendTwoDigits(line, dateTime.getDayOfMonth()).append(' ');
+        appendTwoDigits(line, dateTime.getHour()).append(':');
+        appendTwoDigits(line, dateTime.getMinute()).append(':');
+        appendTwoDigits(line, dateTime.getSecond());
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder line, int value) {
+        if (value < 10) {
+            line.append('0');
+        }
+        return line.append(value);
+    }
+
+    private void writeExcel(File file, Workbook workbook, int maxRow) throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
+            for (int sheetIndex = 0; sheetIndex < shape.getSheetCount(); sheetIndex++) {
+                String[] headers = shape.getHeaders(sheetIndex);
+                RowGenerator rowGenerator = new RowGenerator(sheetIndex);
+                Object[] values = new Object[headers.length];
+                Sheet sheet = null;
+                int part = 0;
+                int rowNum = 0;
+                long bytes = 0;
+                for (long i = 0; hasNextRow(i, bytes); i++) {
+                    // 超过最大行数写入下一个 sheet
+                    if (sheet == null || rowNum > maxRow) {
+                        sheet = workbook.createSheet("sheet" + sheetIndex + (part++ == 0 ? "" : "_" + part));
+                        writeHeader(sheet, headers);
+                        rowNum = 1;
+                    }
+                    rowGenerator.nextRow(values);
+                    Row row = sheet.createRow(rowNum++);
+                    for (int j = 0; j < values.length; j++) {
+                        bytes += setCellValue(row.createCell(j), rowGenerator.columnTypes[j], values[j], dateStyle) + 1;
+                    }
+                }
+                if (sheet == null) {
+                    writeHeader(workbook.createSheet("sheet" + sheetIndex), headers);
+                }
+            }
+            workbook.write(outputStream);
+        } finally {
+            workbook.close();
+        }
+    }
+
+    private static void writeHeader(Sheet sheet, String[] headers) {
+        Row head = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            head.createCell(i).setCellValue(headers[i]);
+        }
+    }
+
+    /**
+     * @return text length of the value
+     */
+    private static int setCellValue(Cell cell, ColumnType columnType, Object value, CellStyle dateStyle) {
+        if (value == null) {
+            return 0;
+        }
+        switch (columnType) {
+            case INTEGER:
+                cell.setCellValue((Integer) value);
+                break;
+            case DOUBLE:
+                cell.setCellValue((Double) value);
+                break;
+            case DATE:
+                // 按 UTC 计算, 与 csv 的日期文本一致
+                cell.setCellValue(EXCEL_EPOCH_DAY + (Long) value / 86400.0);
+                cell.setCellStyle(dateStyle);
+                return 19;
+            default:
+                cell.setCellValue((String) value);
+                return ((String) value).length();
+        }
+        return String.valueOf(value).length();
+    }
+
+    private class RowGenerator {
+        private final ColumnType[] columnTypes;
+
+        private final SplittableRandom random;
+
+        private int id;
+
+        private RowGenerator(int sheet) {
+            this.columnTypes = shape.getColumnTypes(sheet);
+            this.random = new SplittableRandom(seed * 31 + sheet);
+        }
+
+        private void nextRow(Object[] values) {
+            id++;
+            for (int i = 0; i < columnTypes.length; i++) {
+                // 编号列不为空
+                boolean blank = columnTypes[i] != ColumnType.INTEGER && random.nextDouble() < blankRatio;
+                values[i] = blank ? null : nextValue(columnTypes[i]);
+            }
+        }
+
+        private Object nextValue(ColumnType columnType) {
+            switch (columnType) {
+                case INTEGER:
+                    return id;
+                case DOUBLE:
+                    return random.nextInt(1000000) / 100.0;
+                case DATE:
+                    return START_SECOND + random.nextInt(SECONDS_OF_YEAR);
+                case DATE_TEXT:
+                    LocalDate date = LocalDate.ofEpochDay(START_SECOND / 86400 + random.nextInt(365));
+                    return date.getYear() + "/" + date.getMonthValue() + "/" + date.getDayOfMonth();
+                default:
+                    return nextText();
+            }
+        }
+
+        private String nextText() {
+            int number = random.nextInt(1000000);
+            if (random.nextDouble() >= quoteRatio) {
+                return "text" + number;
+            }
+            switch (number % 3) {
+                case 0:
+                    return "text, " + number;
+                case 1:
+                    return "say \"" + number + "\"";
+                default:
+                    return "line\n" + number;
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    /**
+     * usage: FixtureGenerator LARGE_DATA|DEMO_DATA|MERGE_DATA|BENCH_ROW file rows|size[KB|MB|GB] [seed]
+     * @param args args
+     * @throws IOException write error
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("usage: FixtureGenerator LARGE_DATA|DEMO_DATA|MERGE_DATA|BENCH_ROW file rows|size[KB|MB|GB] [seed]");
+            return;
+        }
+        FixtureGenerator generator = new FixtureGenerator(FixtureShape.valueOf(args[0]));
+        String size = args[2].toUpperCase();
+        long unit = size.endsWith("GB") ? 1L << 30 : size.endsWith("MB") ? 1L << 20 : size.endsWith("KB") ? 1L << 10 : 0;
+        if (unit > 0) {
+            generator.setTargetBytes(Long.parseLong(size.substring(0, size.length() - 2)) * unit);
+        } else {
+            generator.setRowCount(Long.parseLong(size));
+        }
+        if (args.length > 3) {
+            generator.setSeed(Long.parseLong(args[3]));
+        }
+        long start = System.currentTimeMillis();
+        generator.write(new File(args[1]));
+        System.out.println("write " + args[1] + " cost " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.shootercheng.bench.fixture;
+
+/**
+ * column layouts of the test models, one column array per sheet
+ * @author James
+ */
+public enum FixtureShape {
+    /**
+     * LargeData, 13 text columns
+     */
+    LARGE_DATA(new String[][]{{"str1", "str2", "str3", "str4", "str5", "str6", "str7", "str8", "str9", "str10",
+            "str11", "str12", "str13"}},
+            new ColumnType[][]{{ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT,
+                    ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT,
+                    ColumnType.TEXT, ColumnType.TEXT, ColumnType.TEXT}}),
+    /**
+     * DemoData, string, date text, double, date
+     */
+    DEMO_DATA(new String[][]{{"字符串标题", "日期标题", "数字标题", "日期"}},
+            new ColumnType[][]{{ColumnType.TEXT, ColumnType.DATE_TEXT, ColumnType.DOUBLE, ColumnType.DATE}}),
+    /**
+     * MergeDataVo, sheet 0 is DemoData, sheet 1 is id, user name, score, date
+     */
+    MERGE_DATA(new String[][]{{"字符串标题", "日期标题", "数字标题", "日期"}, {"编号", "姓名", "分数", "日期"}},
+            new ColumnType[][]{{ColumnType.TEXT, ColumnType.DATE_TEXT, ColumnType.DOUBLE, ColumnType.DATE},
+                    {ColumnType.INTEGER, ColumnType.TEXT, ColumnType.DOUBLE, ColumnType.DATE}}),
+    /**
+     * BenchRow of the benchmarks, id, name, score, create time, remark
+     */
+    BENCH_ROW(new String[][]{{"编号", "姓名", "分数", "创建时间", "备注"}},
+            new ColumnType[][]{{ColumnType.INTEGER, ColumnType.TEXT, ColumnType.DOUBLE, ColumnType.DATE,
+                    ColumnType.TEXT}});
+
+    private final String[][] headers;
+
+    private final ColumnType[][] columnTypes;
+
+    FixtureShape(String[][] headers, ColumnType[][] columnTypes) {
+        this.headers = headers;
+        this.columnTypes = columnTypes;
+    }
+
+    public int getSheetCount() {
+        return headers.length;
+    }
+
+    public String[] getHeaders(int sheet) {
+        return headers[sheet].clone();
+    }
+
+    public ColumnType[] getColumnTypes(int sheet) {
+        return columnTypes[sheet].clone();
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.catdou.bench;
+
+import com.github.shootercheng.bench.fixture.FixtureGenerator;
+import com.github.shootercheng.bench.fixture.FixtureShape;
+import com.github.shootercheng.parse.anno.Location;
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author James
+ */
+public class FixtureGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameSeed() throws IOException {
+        File first = folder.newFile("first.csv");
+        File second = folder.newFile("second.csv");
+        File other = folder.newFile("other.csv");
+        new FixtureGenerator(FixtureShape.LARGE_DATA).setSeed(7).setRowCount(2000).write(first);
+        new FixtureGenerator(FixtureShape.LARGE_DATA).setSeed(7).setRowCount(2000).write(second);
+        new FixtureGenerator(FixtureShape.LARGE_DATA).setSeed(8).setRowCount(2000).write(other);
+        Assert.assertTrue(Arrays.equals(Files.readAllBytes(first.toPath()), Files.readAllBytes(second.toPath())));
+        Assert.assertFalse(Arrays.equals(Files.readAllBytes(first.toPath()), Files.readAllBytes(other.toPath())));
+    }
+
+    @Test
+    public void testCsvParse() throws IOException {
+        File file = folder.newFile("demo.csv");
+        new FixtureGenerator(FixtureShape.DEMO_DATA).setRowCount(3000).setQuoteRatio(0.5).write(file);
+        ParseParam parseParam = new ParseParam().setStartLine(1)
+                .setEncode(StandardCharsets.UTF_8.name())
+                .setFieldSetterMap(AnnotationUtil.findOneSheetSetter(DemoRow.class));
+        List<DemoRow> rows = FileParseCreateor.createFileParse(ParseType.CSV).parseFile(file.getPath(), DemoRow.class, parseParam);
+        Assert.assertEquals(3000, rows.size());
+        Assert.assertEquals("", parseParam.getErrorRecord().getErrorMsg());
+        long quoted = rows.stream().filter(row -> row.string != null && row.string.matches("(?s).*[,\"\n].*")).count();
+        Assert.assertTrue(quoted > 0);
+    }
+
+    @Test
+    public void testTargetBytes() throws IOException {
+        File file = folder.newFile("large.csv");
+        new FixtureGenerator(FixtureShape.LARGE_DATA).setTargetBytes(2 << 20).write(file);
+        Assert.assertTrue(file.length() >= 2 << 20);
+        Assert.assertTrue(file.length() < (2 << 20) + (1 << 17));
+    }
+
+    @Test
+    public void testManySheet() throws IOException {
+        for (String name : new String[]{"merge.xlsx", "merge.xls"}) {
+            File file = folder.newFile(name);
+            new FixtureGenerator(FixtureShape.MERGE_DATA).setRowCount(500).write(file);
+            ParseParam parseParam = new ParseParam().setStartLine(1).setSheetNum(1)
+                    .setFieldSetterMap(AnnotationUtil.findOneSheetSetter(DemoRow.class));
+            List<DemoRow> rows = FileParseCreateor.createFileParse(ParseType.EXCEL_STREAM)
+                    .parseFile(file.getPath(), DemoRow.class, parseParam);
+            Assert.assertEquals(500, rows.size());
+            Assert.assertNotNull(rows.get(0).utDate);
+        }
+    }
+
+    @Test
+    public void testUtcDate() throws IOException {
+        File csvFile = folder.newFile("demo.csv");
+        File excelFile = folder.newFile("demo.xlsx");
+        new FixtureGenerator(FixtureShape.DEMO_DATA).setRowCount(10).setBlankRatio(0).setQuoteRatio(0).write(csvFile);
+        new FixtureGenerator(FixtureShape.DEMO_DATA).setRowCount(10).setBlankRatio(0).setQuoteRatio(0).write(excelFile);
+        List<String> lines = Files.readAllLines(csvFile.toPath(), StandardCharsets.UTF_8);
+        DataFormatter dataFormatter = new DataFormatter();
+        try (Workbook workbook = new XSSFWorkbook(excelFile.getPath())) {
+            for (int i = 1; i <= 10; i++) {
+                Assert.assertEquals(lines.get(i).split(",")[3],
+                        dataFormatter.formatCellValue(workbook.getSheetAt(0).getRow(i).getCell(3)));
+            }
+        }
+    }
+
+    public static class DemoRow {
+        @Location(column = "A")
+        private String string;
+
+        @Location(column = "B")
+        private String date;
+
+        @Location(column = "C")
+        private Double doubleData;
+
+        @Location(column = "D")
+        private Date utDate;
+
+        public void setString(String string) {
+            this.string = string;
+        }
+
+        public void setDate(String date) {
+            this.date = date;
+        }
+
+        public void setDoubleData(Double doubleData) {
+            this.doubleData = doubleData;
+        }
+
+        public void setUtDate(Date utDate) {
+            this.utDate = utDate;
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package com.github.shootercheng.export.common;
 
 import com.github.shootercheng.common.util.ReflectUtil;
+import com.github.shootercheng.export.core.BaseExport;
+import com.github.shootercheng.export.exception.ExportException;
 import com.github.shootercheng.export.exception.ParamBuildException;
+import com.github.shootercheng.export.param.ExportParam;
+import org.apache.poi.ss.usermodel.DateUtil;
 
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +27,13 @@ import java.util.stream.Collectors;
  * @author James
  */
 public class ExportCommon {
+    public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * excel 数字只有 15 位精度
+     */
+    private static final long MAX_EXACT_NUMBER = 999_999_999_999_999L;
+
     /**
      * calculate page start index
      * @param sum total number of data
@@ -37,6 +56,96 @@ public class ExportCommon {
         return list;
     }
 
+    /**
+     * join row values to the quoted string row, e.g. "a","1",""
+     * @param rowValues row values
+     * @return row data
+     */
+    public static String joinQuotedRow(Object[] rowValues) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < rowValues.length; i++) {
+            if (i > 0) {
+                stringBuilder.append(",");
+            }
+            stringBuilder.append("\"");
+            if (rowValues[i] != null) {
+                stringBuilder.append(toText(rowValues[i]));
+            }
+            stringBuilder.append("\"");
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * 自定义行格式处理拼接后的字符串, 所以设置了 row format 的 typed row 拼接后按 string row 写出
+     * @param baseExport export
+     * @param exportParam export param
+     * @param rowValues row values
+     * @return true if the row is written by {@link BaseExport#processRowData}
+     */
+    public static boolean processFormattedRow(BaseExport baseExport, ExportParam exportParam, Object[] rowValues) {
+        if (exportParam.getRowFormat() == null) {
+            return false;
+        }
+        baseExport.processRowData(joinQuotedRow(rowValues));
+        return true;
+    }
+
+    /**
+     * excel 日期从 1900 年开始, 之前的日期写为文本
+     * @param date date
+     * @return false if the date is before 1900
+     */
+    public static boolean isExcelDate(Date date) {
+        return DateUtil.isValidExcelDate(DateUtil.getExcelDate(date));
+    }
+
+    /**
+     * @param date date
+     * @return text in {@link #DATE_FORMAT}
+     */
+    public static String formatDate(Date date) {
+        return new SimpleDateFormat(DATE_FORMAT).format(date);
+    }
+
+    /**
+     * excel keeps 15 significant digits, larger longs and decimals must be written as text
+     * @param number number
+     * @return true if the number is kept by a numeric cell
+     */
+    public static boolean isExactNumber(Number number) {
+        if (number instanceof Long) {
+            return isExactNumber(number.longValue());
+        }
+        if (number instanceof BigInteger) {
+            return ((BigInteger) number).bitLength() < Long.SIZE && isExactNumber(number.longValue());
+        }
+        if (number instanceof BigDecimal) {
+            return ((BigDecimal) number).precision() <= 15;
+        }
+        return true;
+    }
+
+    /**
+     * text of a cell value, decimals are written without exponent
+     * @param value value, not null
+     * @return text
+     */
+    public static String toText(Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * @param value long value
+     * @return true if the value has at most 15 digits
+     */
+    public static boolean isExactNumber(long value) {
+        return value >= -MAX_EXACT_NUMBER && value <= MAX_EXACT_NUMBER;
+    }
+
     public static List<Method> buildParamGetter(Class<?> clazz, Map<String, String> fieldColumnMap) {
         Set<String> keySet = fieldColumnMap.keySet();
         List<String> keyList = new ArrayList<>(keySet);
@@ -54,4 +163,87 @@ public class ExportCommon {
         }
         return resultGetter;
     }
+
+    /**
+     * use the column labels as header if the header is not set
+     * @param exportParam export param
+     * @param resultSet result set
+     */
+    public static void fillResultSetHeader(ExportParam exportParam, ResultSet resultSet) {
+        if (exportParam.getHeader() != null) {
+            return;
+        }
+        exportParam.setHeader(String.join(",", readColumnLabels(resultSet)));
+    }
+
+    /**
+     * column labels of the result set
+     * @param resultSet result set
+     * @return labels
+     */
+    public static String[] readColumnLabels(ResultSet resultSet) {
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            String[] labels = new String[metaData.getColumnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+            }
+            return labels;
+        } catch (SQLException e) {
+            throw new ExportException("read result set meta data error", e);
+        }
+    }
+
+    /**
+     * read the column by the sql type, numbers, booleans and dates keep their type
+     * @param resultSet result set
+     * @param column column index, start from 1
+     * @param sqlType sql type in {@link Types}
+     * @return column value, null if sql null
+     * @throws SQLException read error
+     */
+    public static Object readColumn(ResultSet resultSet, int column, int sqlType) throws SQLException {
+        Object value;
+        switch (sqlType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return resultSet.getString(column);
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                value = resultSet.getInt(column);
+                break;
+            case Types.BIGINT:
+                value = resultSet.getLong(column);
+                break;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                value = resultSet.getDouble(column);
+                break;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return resultSet.getBigDecimal(column);
+            case Types.BIT:
+            case Types.BOOLEAN:
+                value = resultSet.getBoolean(column);
+                break;
+            case Types.DATE:
+                return resultSet.getDate(column);
+            case Types.TIME:
+                return resultSet.getTime(column);
+            case Types.TIMESTAMP:
+                return resultSet.getTimestamp(column);
+            default:
+                return resultSet.getObject(column);
+        }
+        // 基本类型读取时 null 返回 0, 需要判断
+        return resultSet.wasNull() ? null : value;
+    }
 }
@@ -1,6 +1,9 @@
 package com.github.shootercheng.export.core;
 
 import com.github.shootercheng.common.constant.CommonConstants;
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
 import com.github.shootercheng.common.util.DataUtil;
 import com.github.shootercheng.export.common.ExportCommon;
 import com.github.shootercheng.export.common.RowQuotationFormat;
@@ -18,11 +21,15 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -33,7 +40,7 @@ import static com.github.shootercheng.common.constant.CommonConstants.EXCEL_XLSX
 /**
  * @author James
  */
-public abstract class AbstractExcelExport implements BaseExport, QueryExport, DataListExport {
+public abstract class AbstractExcelExport implements BaseExport, QueryExport, DataListExport, ResultSetExport {
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractExcelExport.class);
 
     private String filePath;
@@ -58,6 +65,13 @@ public abstract class AbstractExcelExport implements BaseExport, QueryExport, Da
 
     private RowFormat rowFormat = new RowQuotationFormat();
 
+    private CellStyle dateCellStyle;
+
+    /**
+     * 写入的数据行数, 不含标题
+     */
+    private long rowCount;
+
     public String getFilePath() {
         return filePath;
     }
@@ -161,6 +175,7 @@ public abstract class AbstractExcelExport implements BaseExport, QueryExport, Da
                 throw new ExportException("excel type error");
             }
         } else {
+            Object event = JfrEvents.beginFileOpen();
             InputStream inputStream = new FileInputStream(filePath);
             if (filePath.endsWith(EXCEL_XLS)) {
                 workbook = new HSSFWorkbook(inputStream);
@@ -172,6 +187,7 @@ public abstract class AbstractExcelExport implements BaseExport, QueryExport, Da
             } else {
                 throw new ExportException("excel type error");
             }
+            JfrEvents.commitFileOpen(event, filePath);
         }
     }
 
@@ -187,6 +203,24 @@ public abstract class AbstractExcelExport implements BaseExport, QueryExport, Da
             rowData = exportParam.getRowFormat().formatRow(rowData);
         }
         String[] cellValues = rowData.split(",");
+        fillRowData(nextRow(), cellValues);
+    }
+
+    @Override
+    public void processRow(Object[] rowValues) {
+        if (ExportCommon.processFormattedRow(this, exportParam, rowValues)) {
+            return;
+        }
+        Row row = nextRow();
+        for (int j = 0; j < rowValues.length; j++) {
+            Cell cell = row.createCell(j);
+            if (rowValues[j] != null) {
+                setCellValue(cell, rowValues[j]);
+            }
+        }
+    }
+
+    private Row nextRow() {
         // 超过最大行数，就再创建下一页
         boolean maxXlsRow = EXCEL_XLS.equals(excelType) && sheetStartLine > CommonConstants.EXCEL_MAX_ROW_XLS;
         boolean maxXlsxRow = EXCEL_XLSX.equals(excelType) && sheetStartLine > CommonConstants.EXCEL_MAX_ROW_XLSX;
@@ -197,8 +231,44 @@ public abstract class AbstractExcelExport implements BaseExport, QueryExport, Da
             int curIndex = ++sheetIndex;
             initSheet(sheetName + "_" + curIndex);
         }
-        fillRowData(sheet, cellValues, sheetStartLine);
-        sheetStartLine++;
+        rowCount++;
+        return sheet.createRow(sheetStartLine++);
+    }
+
+    private void setCellValue(Cell cell, Object value) {
+        if (value instanceof String) {
+            cell.setCellValue((String) value);
+        } else if (value instanceof Number && ExportCommon.isExactNumber((Number) value)) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Date || value instanceof Calendar) {
+            setDateValue(cell, value);
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else {
+            cell.setCellValue(ExportCommon.toText(value));
+        }
+    }
+
+    private void setDateValue(Cell cell, Object value) {
+        Date date = value instanceof Calendar ? ((Calendar) value).getTime() : (Date) value;
+        if (!ExportCommon.isExcelDate(date)) {
+            cell.setCellValue(ExportCommon.formatDate(date));
+            return;
+        }
+        if (value instanceof Calendar) {
+            cell.setCellValue((Calendar) value);
+        } else {
+            cell.setCellValue(date);
+        }
+        cell.setCellStyle(getDateCellStyle());
+    }
+
+    private CellStyle getDateCellStyle() {
+        if (dateCellStyle == null) {
+            dateCellStyle = workbook.createCellStyle();
+            dateCellStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat(ExportCommon.DATE_FORMAT));
+        }
+        return dateCellStyle;
     }
 
     public void initSheet(String sheetName) {
@@ -230,12 +300,11 @@ public abstract class AbstractExcelExport implements BaseExport, QueryExport, Da
         }
     }
 
-    private void fillRowData(Sheet sheet, String[] cellValues, int curLine){
-        Row valueRow = sheet.createRow(curLine);
+    private void fillRowData(Row valueRow, String[] cellValues){
         for(int j = 0; j < cellValues.length; j++) {
             Cell cell = valueRow.createCell(j);
             if (exportParam.getCellFormat() != null) {
-                String columnChar = DataUtil.COLUMN_NUM.get(j);
+                String columnChar = DataUtil.columnName(j);
                 String cellValue = exportParam.getCellFormat().format(columnChar, cellValues[j]);
                 cell.setCellValue(cellValue);
             } else {
@@ -246,14 +315,23 @@ public abstract class AbstractExcelExport implements BaseExport, QueryExport, Da
 
     public void saveExcel() {
         OutputStream fileOutputStream = null;
+        String outputPath = isTemplate ? targetPath : filePath;
+        ParseMetrics parseMetrics = exportParam.getParseMetrics();
         try {
             // 写入文件
-            if (!isTemplate) {
-                fileOutputStream = new FileOutputStream(filePath);
-            } else {
-                fileOutputStream = new FileOutputStream(targetPath);
-            }
+            long start = ParseMetrics.start(parseMetrics);
+            Object event = JfrEvents.beginWorkbookSave();
+            fileOutputStream = new FileOutputStream(outputPath);
             workbook.write(fileOutputStream);
+            fileOutputStream.close();
+            if (event != null || parseMetrics != null) {
+                long bytes = new File(outputPath).length();
+                JfrEvents.commitWorkbookSave(event, outputPath, rowCount, bytes);
+                ParseMetrics.stop(parseMetrics, Stage.WRITE, start);
+                if (parseMetrics != null) {
+                    parseMetrics.addBytes(bytes);
+                }
+            }
         } catch (Exception e) {
             LOGGER.error("core excel error");
             throw new ExportException("core excel error", e);
@@ -300,6 +378,15 @@ public abstract class AbstractExcelExport implements BaseExport, QueryExport, Da
         saveExcel();
     }
 
+    @Override
+    public void exportResultSet(ResultSet resultSet) {
+        ExportCommon.fillResultSetHeader(exportParam, resultSet);
+        String sheetName = getDefaultSheetName();
+        initSheet(sheetName);
+        exportResultSet(resultSet, exportParam);
+        saveExcel();
+    }
+
     @Override
     public void close() {
         if (workbook != null) {
@@ -25,6 +25,12 @@ public interface BaseExport {
      */
     void processRowData(String rowData);
 
+    /**
+     * process typed row data, values are written as they are, no join and split
+     * @param rowValues row values, the array may be reused after return
+     */
+    void processRow(Object[] rowValues);
+
     /**
      * core data list
      * @param dataList data list
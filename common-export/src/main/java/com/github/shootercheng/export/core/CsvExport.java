@@ -18,17 +18,22 @@
 package com.github.shootercheng.export.core;
 
 import com.github.shootercheng.common.constant.CommonConstants;
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.export.common.ExportCommon;
 import com.github.shootercheng.export.common.RowQuotationFormat;
 import com.github.shootercheng.export.define.RowFormat;
 import com.github.shootercheng.export.exception.ExportException;
 import com.github.shootercheng.export.param.ExportParam;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
+import java.sql.ResultSet;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -38,7 +43,7 @@ import java.util.function.Function;
  * or memory data
  * @author chengdu
  */
-public class CsvExport implements BaseExport, QueryExport, DataListExport {
+public class CsvExport implements BaseExport, QueryExport, DataListExport, ResultSetExport {
 
     private BufferedWriter bufferedWriter;
 
@@ -48,6 +53,13 @@ public class CsvExport implements BaseExport, QueryExport, DataListExport {
 
     private RowFormat rowFormat;
 
+    /**
+     * 追加写入的文件, 关闭时统计写入的字节数
+     */
+    private String filePath;
+
+    private long startSize;
+
     public CsvExport(BufferedWriter bufferedWriter, ExportParam exportParam) {
         this.bufferedWriter = bufferedWriter;
         this.exportParam = exportParam;
@@ -60,8 +72,12 @@ public class CsvExport implements BaseExport, QueryExport, DataListExport {
         Charset charset = exportParam.getCharset() == null ?
                 Charset.defaultCharset() : exportParam.getCharset();
         try {
+            Object event = JfrEvents.beginFileOpen();
+            this.filePath = filePath;
+            this.startSize = new File(filePath).length();
             this.bufferedWriter = new BufferedWriter(new OutputStreamWriter(
                     new FileOutputStream(filePath, true), charset));
+            JfrEvents.commitFileOpen(event, filePath);
             this.exportParam = exportParam;
             this.recordSeparator = exportParam.getRecordSeparator() == null ?
                     CommonConstants.CRLF : exportParam.getRecordSeparator();
@@ -96,6 +112,50 @@ public class CsvExport implements BaseExport, QueryExport, DataListExport {
         }
     }
 
+    @Override
+    public void processRow(Object[] rowValues) {
+        if (ExportCommon.processFormattedRow(this, exportParam, rowValues)) {
+            return;
+        }
+        try {
+            for (int i = 0; i < rowValues.length; i++) {
+                if (i > 0) {
+                    bufferedWriter.write(',');
+                }
+                if (rowValues[i] != null) {
+                    writeCsvValue(ExportCommon.toText(rowValues[i]));
+                }
+            }
+            bufferedWriter.write(recordSeparator);
+        } catch (IOException e) {
+            throw new ExportException("write row data error", e);
+        }
+    }
+
+    /**
+     * values contain delimiter, quote or line break are quoted, quotes are doubled
+     */
+    private void writeCsvValue(String value) throws IOException {
+        boolean needQuote = false;
+        for (int i = 0; i < value.length() && !needQuote; i++) {
+            char c = value.charAt(i);
+            needQuote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!needQuote) {
+            bufferedWriter.write(value);
+            return;
+        }
+        bufferedWriter.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                bufferedWriter.write('"');
+            }
+            bufferedWriter.write(c);
+        }
+        bufferedWriter.write('"');
+    }
+
     @Override
     public void close() {
         if (bufferedWriter != null) {
@@ -104,6 +164,11 @@ public class CsvExport implements BaseExport, QueryExport, DataListExport {
             } catch (IOException e) {
             }
         }
+        ParseMetrics parseMetrics = exportParam == null ? null : exportParam.getParseMetrics();
+        if (filePath != null && parseMetrics != null) {
+            parseMetrics.addBytes(new File(filePath).length() - startSize);
+            filePath = null;
+        }
     }
 
     @Override
@@ -112,4 +177,16 @@ public class CsvExport implements BaseExport, QueryExport, DataListExport {
         exportList(dataList, exportParam);
         close();
     }
+
+    @Override
+    public void exportResultSet(ResultSet resultSet) {
+        if (exportParam.getHeader() == null) {
+            // 列名和值一样处理引号
+            processRow(ExportCommon.readColumnLabels(resultSet));
+        } else {
+            processRowData(exportParam.getHeader());
+        }
+        exportResultSet(resultSet, exportParam);
+        close();
+    }
 }
@@ -1,6 +1,8 @@
 package com.github.shootercheng.export.core;
 
 import com.github.shootercheng.common.constant.CommonConstants;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
 import com.github.shootercheng.common.util.DataUtil;
 import com.github.shootercheng.export.common.ExportCommon;
 import com.github.shootercheng.export.exception.ExportException;
@@ -16,33 +18,44 @@ import java.util.List;
 public interface DataListExport extends BaseExport {
 
     default <T> void exportList(List<T> dataList, ExportParam exportParam) {
+        ParseMetrics parseMetrics = exportParam.getParseMetrics();
+        if (parseMetrics != null) {
+            parseMetrics.begin();
+        }
+        try {
+            writeList(dataList, exportParam, parseMetrics);
+        } finally {
+            if (parseMetrics != null) {
+                parseMetrics.end();
+            }
+        }
+    }
+
+    default <T> void writeList(List<T> dataList, ExportParam exportParam, ParseMetrics parseMetrics) {
         List<Method> getterMethods = exportParam.getGetterMethod();
+        Object[] rowValues = new Object[getterMethods.size()];
         for (Object object : dataList) {
-            StringBuilder stringBuilder = new StringBuilder();
+            long start = ParseMetrics.start(parseMetrics);
             for (int i = 0; i < getterMethods.size(); i++) {
                 try {
                     Method method = getterMethods.get(i);
                     Object value = method.invoke(object, CommonConstants.NO_ARGUMENTS);
-                    if (value != null) {
-                        String columnChar = DataUtil.COLUMN_NUM.get(i);
-                        if (exportParam.getCellFormat() != null) {
-                            value = exportParam.getCellFormat().format(columnChar, String.valueOf(value));
-                        }
-                        stringBuilder.append("\"").append(value).append("\"").append(",");
-                    } else {
-                        stringBuilder.append("\"").append("\"").append(",");
+                    if (value != null && exportParam.getCellFormat() != null) {
+                        String columnChar = DataUtil.columnName(i);
+                        value = exportParam.getCellFormat().format(columnChar, ExportCommon.toText(value));
                     }
+                    rowValues[i] = value;
                 } catch (IllegalAccessException e) {
                     throw new ExportException("illegal access exception", e);
                 } catch (InvocationTargetException e) {
                     throw new ExportException("invocation target exception", e);
                 }
             }
-            String rowData = stringBuilder.toString();
-            if (rowData.length() > 1) {
-                rowData = rowData.substring(0, rowData.length() - 1);
-            }
-            processRowData(rowData);
+            // getter 以及格式化计为转换时间
+            ParseMetrics.stop(parseMetrics, Stage.CONVERT, start);
+            start = ParseMetrics.start(parseMetrics);
+            processRow(rowValues);
+            ParseMetrics.countRow(parseMetrics, Stage.WRITE, start);
         }
     }
 }
@@ -10,7 +10,8 @@ import java.io.IOException;
 /**
  * @author James
  */
-public class ExcelExport extends AbstractExcelExport implements BaseExport, QueryExport, DataListExport {
+public class ExcelExport extends AbstractExcelExport implements BaseExport, QueryExport, DataListExport,
+        ResultSetExport {
     private static final Logger LOGGER = LoggerFactory.getLogger(ExcelExport.class);
 
 
@@ -1,6 +1,7 @@
 package com.github.shootercheng.export.core;
 
 import com.github.shootercheng.common.util.StringUtils;
+import com.github.shootercheng.export.common.ExportCommon;
 import com.github.shootercheng.export.exception.ExportException;
 import com.github.shootercheng.export.param.ExportParam;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -8,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -124,4 +126,18 @@ public class ExcelMultiSheetExport extends AbstractExcelExport {
             LOGGER.info("save excel to file success");
         }
     }
+
+    public void exportResultSetByParamIndex(ResultSet resultSet, Integer paramIndex) {
+        exportResultSetByParamIndex(resultSet, paramIndex, false);
+    }
+
+    public void exportResultSetByParamIndex(ResultSet resultSet, Integer paramIndex, boolean isSave) {
+        ExportCommon.fillResultSetHeader(exportParamMap.get(paramIndex), resultSet);
+        resetSheetParamAndInit(paramIndex);
+        exportResultSet(resultSet, exportParam);
+        if (isSave) {
+            saveExcel();
+            LOGGER.info("save excel to file success");
+        }
+    }
 }
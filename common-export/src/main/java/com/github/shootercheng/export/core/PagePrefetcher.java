@@ -0,0 +1,66 @@
+package com.github.shootercheng.export.core;
+
+import com.github.shootercheng.common.constant.CommonConstants;
+import com.github.shootercheng.export.exception.ExportException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * query pages on an executor while the current page is written,
+ * pages are passed to the writer in index order
+ * @author James
+ */
+final class PagePrefetcher {
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private PagePrefetcher() {
+    }
+
+    /**
+     * @param pageQueryFun page query function, called by prefetch threads
+     * @param searchParam search param, each page query gets a copy
+     * @param indexList page start index list
+     * @param prefetchPages max pages queried ahead of the written page
+     * @param pageWriter write page data, called by the current thread
+     */
+    static void queryPages(Function<Map<String, Object>, List<String>> pageQueryFun, Map<String, Object> searchParam,
+                           List<Integer> indexList, int prefetchPages, Consumer<List<String>> pageWriter) {
+        ExecutorService executor = Executors.newFixedThreadPool(prefetchPages, runnable -> {
+            Thread thread = new Thread(runnable, "export-page-prefetch-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<List<String>>> pageQueue = new ArrayDeque<>(prefetchPages);
+        try {
+            int submitted = 0;
+            for (int i = 0; i < indexList.size(); i++) {
+                while (submitted < indexList.size() && submitted <= i + prefetchPages) {
+                    // 每页使用单独的查询参数
+                    Map<String, Object> pageParam = new HashMap<>(searchParam);
+                    pageParam.put(CommonConstants.PADE_QUERY_INDEX, indexList.get(submitted));
+                    pageQueue.add(executor.submit(() -> pageQueryFun.apply(pageParam)));
+                    submitted++;
+                }
+                pageWriter.accept(pageQueue.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExportException("query page interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ExportException("query page error", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.github.shootercheng.export.core;
 
 import com.github.shootercheng.common.constant.CommonConstants;
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
 import com.github.shootercheng.export.common.ExportCommon;
 import com.github.shootercheng.export.param.ExportParam;
 
@@ -14,19 +17,63 @@ import java.util.function.Function;
 public interface QueryExport extends BaseExport {
 
     default void exportQuery(Function<Map<String, Object>, List<String>> pageQueryFun, ExportParam exportParam) {
+        ParseMetrics parseMetrics = exportParam.getParseMetrics();
+        if (parseMetrics == null && !JfrEvents.isAvailable()) {
+            exportPages(pageQueryFun, exportParam);
+            return;
+        }
+        if (parseMetrics != null) {
+            parseMetrics.begin();
+        }
+        try {
+            // 预取时在查询线程中调用
+            exportPages(searchParam -> {
+                long start = ParseMetrics.start(parseMetrics);
+                Object event = JfrEvents.beginPageQuery();
+                List<String> queryList = pageQueryFun.apply(searchParam);
+                JfrEvents.commitPageQuery(event, (Integer) searchParam.get(CommonConstants.PADE_QUERY_INDEX),
+                        queryList == null ? 0 : queryList.size());
+                ParseMetrics.stop(parseMetrics, Stage.QUERY, start);
+                return queryList;
+            }, exportParam);
+        } finally {
+            if (parseMetrics != null) {
+                parseMetrics.end();
+            }
+        }
+    }
+
+    default void exportPages(Function<Map<String, Object>, List<String>> pageQueryFun, ExportParam exportParam) {
         int sum = exportParam.getSum();
         int pageSize = exportParam.getPageSize();
         List<Integer> indexList = ExportCommon.calIndexList(sum, pageSize);
         Map<String, Object> searchParam = exportParam.getSearchParam();
         searchParam.put(CommonConstants.PAGE_QUERY_SIZE, pageSize);
+        if (exportParam.getPrefetchPages() > 0) {
+            // 查询与写入并行, 按页顺序写入
+            PagePrefetcher.queryPages(pageQueryFun, searchParam, indexList, exportParam.getPrefetchPages(),
+                    queryList -> writePage(queryList, exportParam));
+            return;
+        }
         for (Integer index : indexList) {
             searchParam.put(CommonConstants.PADE_QUERY_INDEX, index);
             List<String> queryList = pageQueryFun.apply(searchParam);
-            if (queryList != null && queryList.size() > 0) {
-                for (String rowData : queryList) {
-                    processRowData(rowData);
-                }
-            }
+            writePage(queryList, exportParam);
+        }
+    }
+
+    default void writePage(List<String> queryList, ExportParam exportParam) {
+        if (queryList == null || queryList.isEmpty()) {
+            return;
+        }
+        ParseMetrics parseMetrics = exportParam.getParseMetrics();
+        long start = ParseMetrics.start(parseMetrics);
+        for (String rowData : queryList) {
+            processRowData(rowData);
+        }
+        if (parseMetrics != null) {
+            parseMetrics.addTime(Stage.WRITE, System.nanoTime() - start);
+            parseMetrics.addRows(queryList.size());
         }
     }
 }
@@ -0,0 +1,110 @@
+package com.github.shootercheng.export.core;
+
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
+import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.export.common.ExportCommon;
+import com.github.shootercheng.export.exception.ExportException;
+import com.github.shootercheng.export.param.ExportParam;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * export rows of a jdbc result set, the rows are read by one cursor, no page query
+ * @author James
+ */
+public interface ResultSetExport extends BaseExport {
+
+    /**
+     * core result set rows, if the header is not set the column labels are used
+     * @param resultSet result set, not closed
+     */
+    void exportResultSet(ResultSet resultSet);
+
+    /**
+     * write all the rows left in the result set, the result set is not closed
+     * @param resultSet result set
+     * @param exportParam export param
+     * @return row count
+     */
+    default long exportResultSet(ResultSet resultSet, ExportParam exportParam) {
+        ParseMetrics parseMetrics = exportParam.getParseMetrics();
+        if (parseMetrics != null) {
+            parseMetrics.begin();
+        }
+        long rowCount = 0;
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int[] sqlTypes = new int[metaData.getColumnCount()];
+            for (int i = 0; i < sqlTypes.length; i++) {
+                sqlTypes[i] = metaData.getColumnType(i + 1);
+            }
+            Object[] rowValues = new Object[sqlTypes.length];
+            long start = ParseMetrics.start(parseMetrics);
+            // next 可能从数据库拉取下一批数据, 计为读取时间
+            while (resultSet.next()) {
+                ParseMetrics.stop(parseMetrics, Stage.READ, start);
+                start = ParseMetrics.start(parseMetrics);
+                for (int i = 0; i < sqlTypes.length; i++) {
+                    Object value = ExportCommon.readColumn(resultSet, i + 1, sqlTypes[i]);
+                    if (value != null && exportParam.getCellFormat() != null) {
+                        String columnChar = DataUtil.columnName(i);
+                        value = exportParam.getCellFormat().format(columnChar, ExportCommon.toText(value));
+                    }
+                    rowValues[i] = value;
+                }
+                ParseMetrics.stop(parseMetrics, Stage.CONVERT, start);
+                start = ParseMetrics.start(parseMetrics);
+                processRow(rowValues);
+                ParseMetrics.countRow(parseMetrics, Stage.WRITE, start);
+                rowCount++;
+                start = ParseMetrics.start(parseMetrics);
+            }
+        } catch (SQLException e) {
+            throw new ExportException("read result set error at row " + rowCount, e);
+        } finally {
+            if (parseMetrics != null) {
+                parseMetrics.end();
+            }
+        }
+        return rowCount;
+    }
+
+    /**
+     * run the query with a forward only cursor and export the result, the connection is not closed.
+     * if auto commit is on it is turned off while reading, some drivers (e.g. postgresql) only use
+     * a cursor in a transaction. mysql needs useCursorFetch=true or fetch size Integer.MIN_VALUE
+     * @param connection connection
+     * @param sql query sql
+     * @param fetchSize rows fetched from the database each time, 0 is the driver default
+     * @param params sql params
+     */
+    default void exportSql(Connection connection, String sql, int fetchSize, Object... params) {
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            if (autoCommit && fetchSize > 0) {
+                connection.setAutoCommit(false);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    exportResultSet(resultSet);
+                }
+            } finally {
+                if (autoCommit && fetchSize > 0) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            throw new ExportException("export sql error", e);
+        }
+    }
+}
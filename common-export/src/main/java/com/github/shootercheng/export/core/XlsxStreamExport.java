@@ -0,0 +1,282 @@
+package com.github.shootercheng.export.core;
+
+import com.github.shootercheng.common.constant.CommonConstants;
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
+import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.export.common.ExportCommon;
+import com.github.shootercheng.export.common.RowQuotationFormat;
+import com.github.shootercheng.export.define.RowFormat;
+import com.github.shootercheng.export.exception.ExportException;
+import com.github.shootercheng.export.param.ExportParam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * export xlsx without poi workbook, rows are written to the sheet xml in the zip directly.
+ * memory does not grow with rows, only new xlsx file is supported, no template
+ * @author James
+ */
+public class XlsxStreamExport implements BaseExport, QueryExport, DataListExport, ResultSetExport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(XlsxStreamExport.class);
+
+    private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+    private final String filePath;
+
+    private final XlsxStreamWriter writer;
+
+    private ExportParam exportParam;
+
+    private RowFormat rowFormat = new RowQuotationFormat();
+
+    private int maxRow = CommonConstants.EXCEL_MAX_ROW_XLSX;
+
+    private int sheetStartLine;
+
+    /**
+     * 当前页名, 超过最大行数时的下一页为 页名_序号
+     */
+    private String sheetName;
+
+    private int sheetIndex;
+
+    private boolean sheetStarted;
+
+    /**
+     * 写入的数据行数, 不含标题
+     */
+    private long rowCount;
+
+    private boolean closed;
+
+    public XlsxStreamExport(String filePath, ExportParam exportParam) {
+        if (filePath == null || !filePath.endsWith(CommonConstants.EXCEL_XLSX)) {
+            throw new ExportException("excel type error");
+        }
+        this.filePath = filePath;
+        this.exportParam = exportParam;
+        try {
+            Object event = JfrEvents.beginFileOpen();
+            this.writer = new XlsxStreamWriter(new BufferedOutputStream(new FileOutputStream(filePath), 64 * 1024));
+            JfrEvents.commitFileOpen(event, filePath, 0);
+        } catch (IOException e) {
+            throw new ExportException("init xlsx writer error", e);
+        }
+    }
+
+    /**
+     * set before the first sheet
+     * @param headerBold header bold
+     * @return this
+     */
+    public XlsxStreamExport setHeaderBold(boolean headerBold) {
+        writer.setHeaderBold(headerBold);
+        return this;
+    }
+
+    /**
+     * set before the first sheet
+     * @param headerFillColor rgb color, e.g. "D9D9D9"
+     * @return this
+     */
+    public XlsxStreamExport setHeaderFillColor(String headerFillColor) {
+        writer.setHeaderFillColor(headerFillColor);
+        return this;
+    }
+
+    /**
+     * max row index of a sheet, a new sheet is created when exceeded
+     * @param maxRow max row index, not larger than the xlsx max row
+     * @return this
+     */
+    public XlsxStreamExport setMaxRow(int maxRow) {
+        if (maxRow <= 0 || maxRow > CommonConstants.EXCEL_MAX_ROW_XLSX) {
+            throw new ExportException("max row error " + maxRow);
+        }
+        this.maxRow = maxRow;
+        return this;
+    }
+
+    public XlsxStreamExport setRowFormat(RowFormat rowFormat) {
+        this.rowFormat = rowFormat;
+        return this;
+    }
+
+    public ExportParam getExportParam() {
+        return exportParam;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * end the current sheet and start a sheet with the param, used to export many sheets into one file
+     * @param exportParam sheet param
+     */
+    public void nextSheet(ExportParam exportParam) {
+        this.exportParam = exportParam;
+        initSheet(getDefaultSheetName());
+    }
+
+    /**
+     * @param sheetName sheet name, at most 31 chars without []:*?/\, not the same as a written sheet
+     */
+    public void initSheet(String sheetName) {
+        writeSheet(sheetName);
+        this.sheetName = sheetName;
+        this.sheetIndex = 0;
+    }
+
+    private void writeSheet(String sheetName) {
+        this.sheetStartLine = exportParam.getStartLine();
+        try {
+            writer.startSheet(sheetName);
+            if (exportParam.getHeader() != null) {
+                writer.startRow(sheetStartLine++);
+                for (String header : exportParam.getHeader().split(",")) {
+                    writer.writeHeader(header);
+                }
+            }
+        } catch (IOException e) {
+            throw new ExportException("write sheet error", e);
+        }
+        sheetStarted = true;
+        LOGGER.info("now sheet is {}", sheetName);
+    }
+
+    /**
+     * 已通过 initSheet 或 nextSheet 开始的页不再重复创建
+     */
+    private void startSheet() {
+        if (!sheetStarted) {
+            initSheet(getDefaultSheetName());
+        }
+    }
+
+    private void nextRow() throws IOException {
+        startSheet();
+        // 超过最大行数，就再创建下一页
+        if (sheetStartLine > maxRow) {
+            String suffix = "_" + ++sheetIndex;
+            // 页名最多 31 个字符
+            int baseLength = Math.min(sheetName.length(), MAX_SHEET_NAME_LENGTH - suffix.length());
+            writeSheet(sheetName.substring(0, baseLength) + suffix);
+        }
+        rowCount++;
+        writer.startRow(sheetStartLine++);
+    }
+
+    @Override
+    public void processRowData(String rowData) {
+        // 去除引号
+        rowData = rowFormat.formatRow(rowData);
+        if (exportParam.getRowFormat() != null) {
+            rowData = exportParam.getRowFormat().formatRow(rowData);
+        }
+        String[] cellValues = rowData.split(",");
+        try {
+            nextRow();
+            for (int j = 0; j < cellValues.length; j++) {
+                if (exportParam.getCellFormat() != null) {
+                    String columnChar = DataUtil.columnName(j);
+                    writer.writeString(exportParam.getCellFormat().format(columnChar, cellValues[j]));
+                } else {
+                    writer.writeString(cellValues[j]);
+                }
+            }
+        } catch (IOException e) {
+            throw new ExportException("write row data error", e);
+        }
+    }
+
+    @Override
+    public void processRow(Object[] rowValues) {
+        if (ExportCommon.processFormattedRow(this, exportParam, rowValues)) {
+            return;
+        }
+        try {
+            nextRow();
+            for (Object rowValue : rowValues) {
+                writer.writeValue(rowValue);
+            }
+        } catch (IOException e) {
+            throw new ExportException("write row data error", e);
+        }
+    }
+
+    /**
+     * @return sheet name of the export param, sheet1, sheet2 ... if not set
+     */
+    private String getDefaultSheetName() {
+        String sheetName = exportParam.getSheetName();
+        if (sheetName == null || sheetName.trim().length() == 0) {
+            sheetName = "sheet" + (writer.getSheetCount() + 1);
+        }
+        return sheetName;
+    }
+
+    @Override
+    public void exportQueryPage(Function<Map<String, Object>, List<String>> dataGetFun) {
+        startSheet();
+        exportQuery(dataGetFun, exportParam);
+        close();
+    }
+
+    @Override
+    public <T> void exportList(List<T> dataList) {
+        startSheet();
+        exportList(dataList, exportParam);
+        close();
+    }
+
+    @Override
+    public void exportResultSet(ResultSet resultSet) {
+        if (!sheetStarted) {
+            ExportCommon.fillResultSetHeader(exportParam, resultSet);
+        }
+        startSheet();
+        exportResultSet(resultSet, exportParam);
+        close();
+    }
+
+    /**
+     * write the workbook parts and close the file, the file is not complete before closed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        ParseMetrics parseMetrics = exportParam.getParseMetrics();
+        long start = System.nanoTime();
+        Object event = JfrEvents.beginWorkbookSave();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.error("core excel error");
+            throw new ExportException("core excel error", e);
+        }
+        if (event != null || parseMetrics != null) {
+            long bytes = new File(filePath).length();
+            JfrEvents.commitWorkbookSave(event, filePath, rowCount, bytes);
+            if (parseMetrics != null) {
+                parseMetrics.addTime(Stage.WRITE, System.nanoTime() - start);
+                parseMetrics.addBytes(bytes);
+            }
+        }
+        LOGGER.info("write {} rows to {}, {} sheets", rowCount, filePath, writer.getSheetCount());
+    }
+}
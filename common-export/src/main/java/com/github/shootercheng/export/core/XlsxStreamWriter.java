@@ -0,0 +1,422 @@
+package com.github.shootercheng.export.core;
+
+import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.export.common.ExportCommon;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * write xlsx by streaming the sheet xml into the zip, no cell objects and no temp files.
+ * strings are inline strings, sheets are written one after another,
+ * the workbook, relationship and style parts are written when closed
+ * @author James
+ */
+public class XlsxStreamWriter implements Closeable {
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private static final String XML_HEAD = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private static final int HEADER_STYLE = 1;
+
+    private static final int DATE_STYLE = 2;
+
+    private final ZipOutputStream zipOutputStream;
+
+    private final Writer writer;
+
+    private final List<String> sheetNames = new ArrayList<>();
+
+    private boolean sheetOpen;
+
+    private boolean rowOpen;
+
+    private String rowNum;
+
+    private int column;
+
+    private boolean headerBold;
+
+    private String headerFillColor;
+
+    private boolean closed;
+
+    /**
+     * @param outputStream output stream, closed with the writer
+     */
+    public XlsxStreamWriter(OutputStream outputStream) {
+        this(outputStream, Deflater.BEST_SPEED);
+    }
+
+    /**
+     * @param outputStream output stream, closed with the writer
+     * @param compressLevel zip compress level, 1 is fast, 9 is small
+     */
+    public XlsxStreamWriter(OutputStream outputStream, int compressLevel) {
+        this.zipOutputStream = new ZipOutputStream(outputStream);
+        this.zipOutputStream.setLevel(compressLevel);
+        // 每个 entry 结束时 flush, 不关闭 zip
+        OutputStream entryStream = new FilterOutputStream(zipOutputStream) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        this.writer = new BufferedWriter(new OutputStreamWriter(entryStream, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * set before the first sheet, header cells use a bold font
+     * @param headerBold header bold
+     * @return this
+     */
+    public XlsxStreamWriter setHeaderBold(boolean headerBold) {
+        this.headerBold = headerBold;
+        return this;
+    }
+
+    /**
+     * set before the first sheet, header cells are filled with the color
+     * @param headerFillColor rgb color, e.g. "D9D9D9", null is no fill
+     * @return this
+     */
+    public XlsxStreamWriter setHeaderFillColor(String headerFillColor) {
+        this.headerFillColor = headerFillColor;
+        return this;
+    }
+
+    public int getSheetCount() {
+        return sheetNames.size();
+    }
+
+    /**
+     * end current sheet and start a new one
+     * @param sheetName sheet name, at most 31 chars without []:*?/\, not the same as a written sheet
+     * @throws IOException write error
+     */
+    public void startSheet(String sheetName) throws IOException {
+        WorkbookUtil.validateSheetName(sheetName);
+        for (String name : sheetNames) {
+            // excel 页名不区分大小写
+            if (name.equalsIgnoreCase(sheetName)) {
+                throw new IllegalArgumentException("The workbook already contains a sheet named '" + sheetName + "'");
+            }
+        }
+        endSheet();
+        sheetNames.add(sheetName);
+        zipOutputStream.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        writer.write(XML_HEAD);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+        sheetOpen = true;
+    }
+
+    /**
+     * @param rowIndex row index start from 0, must be larger than the last row
+     * @throws IOException write error
+     */
+    public void startRow(int rowIndex) throws IOException {
+        if (!sheetOpen) {
+            throw new IllegalStateException("no sheet started");
+        }
+        endRow();
+        rowNum = Integer.toString(rowIndex + 1);
+        column = 0;
+        writer.write("<row r=\"");
+        writer.write(rowNum);
+        writer.write("\">");
+        rowOpen = true;
+    }
+
+    public void endRow() throws IOException {
+        if (rowOpen) {
+            writer.write("</row>");
+            rowOpen = false;
+        }
+    }
+
+    /**
+     * leave the current cell empty
+     */
+    public void skipCell() {
+        column++;
+    }
+
+    public void writeHeader(String value) throws IOException {
+        writeString(value, HEADER_STYLE);
+    }
+
+    public void writeString(String value) throws IOException {
+        writeString(value, 0);
+    }
+
+    private void writeString(String value, int style) throws IOException {
+        if (value == null) {
+            column++;
+            return;
+        }
+        startCell(style);
+        writer.write(" t=\"inlineStr\"><is><t");
+        if (!value.isEmpty() && (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ')) {
+            writer.write(" xml:space=\"preserve\"");
+        }
+        writer.write('>');
+        writeEscaped(value);
+        writer.write("</t></is></c>");
+    }
+
+    public void writeNumber(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            writeString(Double.toString(value));
+            return;
+        }
+        writeNumber(Double.toString(value), 0);
+    }
+
+    public void writeNumber(long value) throws IOException {
+        if (!ExportCommon.isExactNumber(value)) {
+            // excel 数字只有 15 位精度, 超出的写为文本
+            writeString(Long.toString(value));
+            return;
+        }
+        writeNumber(Long.toString(value), 0);
+    }
+
+    private void writeNumber(String value, int style) throws IOException {
+        startCell(style);
+        writer.write("><v>");
+        writer.write(value);
+        writer.write("</v></c>");
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        startCell(0);
+        writer.write(value ? " t=\"b\"><v>1</v></c>" : " t=\"b\"><v>0</v></c>");
+    }
+
+    /**
+     * @param value date, written as text before 1900
+     * @throws IOException write error
+     */
+    public void writeDate(Date value) throws IOException {
+        double excelDate = DateUtil.getExcelDate(value);
+        if (!DateUtil.isValidExcelDate(excelDate)) {
+            writeString(ExportCommon.formatDate(value));
+            return;
+        }
+        writeNumber(Double.toString(excelDate), DATE_STYLE);
+    }
+
+    /**
+     * write the value by its type, same as the poi export
+     * @param value value, null leaves the cell empty
+     * @throws IOException write error
+     */
+    public void writeValue(Object value) throws IOException {
+        if (value == null) {
+            column++;
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal && ExportCommon.isExactNumber((BigDecimal) value)) {
+            writeNumber(((BigDecimal) value).toPlainString(), 0);
+        } else if (value instanceof BigInteger && ExportCommon.isExactNumber((BigInteger) value)) {
+            writeNumber(value.toString(), 0);
+        } else if (value instanceof Date) {
+            writeDate((Date) value);
+        } else if (value instanceof Calendar) {
+            writeDate(((Calendar) value).getTime());
+        } else if (value instanceof Boolean) {
+            writeBoolean((Boolean) value);
+        } else {
+            writeString(ExportCommon.toText(value));
+        }
+    }
+
+    private void startCell(int style) throws IOException {
+        if (!rowOpen) {
+            throw new IllegalStateException("no row started");
+        }
+        writer.write("<c r=\"");
+        writer.write(DataUtil.columnName(column++));
+        writer.write(rowNum);
+        writer.write('"');
+        if (style != 0) {
+            writer.write(" s=\"");
+            writer.write(Integer.toString(style));
+            writer.write('"');
+        }
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replace;
+            if (c == '<') {
+                replace = "&lt;";
+            } else if (c == '>') {
+                replace = "&gt;";
+            } else if (c == '&') {
+                replace = "&amp;";
+            } else if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+                // xml 1.0 不允许的控制字符
+                replace = "";
+            } else {
+                continue;
+            }
+            writer.write(value, start, i - start);
+            writer.write(replace);
+            start = i + 1;
+        }
+        writer.write(value, start, length - start);
+    }
+
+    private void endSheet() throws IOException {
+        if (!sheetOpen) {
+            return;
+        }
+        endRow();
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zipOutputStream.closeEntry();
+        sheetOpen = false;
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        writer.write(XML_HEAD);
+        writer.write(content);
+        writer.flush();
+        zipOutputStream.closeEntry();
+    }
+
+    private String contentTypes() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            sb.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return sb.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS).append("\"><sheets>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            sb.append("<sheet name=\"").append(escapeAttribute(sheetNames.get(i - 1)))
+                    .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return sb.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRels() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<Relationships xmlns=\"").append(PACKAGE_REL_NS).append("\">");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            sb.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        sb.append("<Relationship Id=\"rId").append(sheetNames.size() + 1).append("\" Type=\"").append(REL_NS)
+                .append("/styles\" Target=\"styles.xml\"/>");
+        return sb.append("</Relationships>").toString();
+    }
+
+    /**
+     * style 0 默认, 1 标题, 2 日期
+     */
+    private String styles() {
+        boolean fill = headerFillColor != null;
+        StringBuilder sb = new StringBuilder();
+        sb.append("<styleSheet xmlns=\"").append(MAIN_NS).append("\">")
+                .append("<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"yyyy-mm-dd hh:mm:ss\"/></numFmts>")
+                .append("<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>")
+                .append("<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>")
+                .append("<fills count=\"").append(fill ? 3 : 2).append("\">")
+                .append("<fill><patternFill patternType=\"none\"/></fill>")
+                .append("<fill><patternFill patternType=\"gray125\"/></fill>");
+        if (fill) {
+            sb.append("<fill><patternFill patternType=\"solid\"><fgColor rgb=\"FF")
+                    .append(escapeAttribute(headerFillColor)).append("\"/></patternFill></fill>");
+        }
+        sb.append("</fills>")
+                .append("<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>")
+                .append("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>")
+                .append("<cellXfs count=\"3\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>")
+                .append("<xf numFmtId=\"0\" fontId=\"").append(headerBold ? 1 : 0)
+                .append("\" fillId=\"").append(fill ? 2 : 0)
+                .append("\" borderId=\"0\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\"/>")
+                .append("<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>")
+                .append("</cellXfs>")
+                .append("<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>")
+                .append("</styleSheet>");
+        return sb.toString();
+    }
+
+    private static String escapeAttribute(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * end the last sheet, write the workbook parts and close the stream
+     * @throws IOException write error
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            endSheet();
+            if (sheetNames.isEmpty()) {
+                startSheet("sheet");
+                endSheet();
+            }
+            writeEntry("[Content_Types].xml", contentTypes());
+            writeEntry("_rels/.rels", "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\">"
+                    + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                    + "</Relationships>");
+            writeEntry("xl/workbook.xml", workbook());
+            writeEntry("xl/_rels/workbook.xml.rels", workbookRels());
+            writeEntry("xl/styles.xml", styles());
+        } finally {
+            zipOutputStream.close();
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package com.github.shootercheng.export.param;
 
+import com.github.shootercheng.common.metrics.ParseMetrics;
 import com.github.shootercheng.export.define.CellFormat;
 import com.github.shootercheng.export.define.RowFormat;
 
@@ -54,6 +55,10 @@ public class ExportParam {
 
     private Charset charset;
 
+    private int prefetchPages;
+
+    private ParseMetrics parseMetrics;
+
     public String getHeader() {
         return header;
     }
@@ -161,4 +166,34 @@ public class ExportParam {
         this.charset = charset;
         return this;
     }
+
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    /**
+     * query next pages while the current page is written, pages are still written in order.
+     * the page query function must be thread safe, each page gets a copy of the search param
+     * @param prefetchPages max pages queried ahead, 0 is no prefetch
+     * @return this
+     */
+    public ExportParam setPrefetchPages(int prefetchPages) {
+        this.prefetchPages = prefetchPages;
+        return this;
+    }
+
+    public ParseMetrics getParseMetrics() {
+        return parseMetrics;
+    }
+
+    /**
+     * count rows, bytes and query, write times of the export, the metrics can be shared by many exports
+     * and registered as a jmx mbean
+     * @param parseMetrics metrics, null to not count
+     * @return this
+     */
+    public ExportParam setParseMetrics(ParseMetrics parseMetrics) {
+        this.parseMetrics = parseMetrics;
+        return this;
+    }
 }
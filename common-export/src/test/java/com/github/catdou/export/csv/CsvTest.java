@@ -4,14 +4,21 @@ import com.github.catdou.export.ExportTest;
 import com.github.catdou.export.models.User;
 import com.github.catdou.export.service.DataService;
 import com.github.shootercheng.common.constant.CommonConstants;
+import com.github.shootercheng.common.metrics.MetricsSnapshot;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
 import com.github.shootercheng.export.core.BaseExport;
 import com.github.shootercheng.export.core.CsvExport;
 import com.github.shootercheng.export.param.ExportParam;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.*;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author James
@@ -51,6 +58,66 @@ public class CsvTest extends ExportTest {
         csvExport.exportList(userList);
     }
 
+    @Test
+    public void testProcessRow() throws IOException {
+        String filePath = createFilePath("typed.csv");
+        CsvExport csvExport = new CsvExport(filePath, new ExportParam().setCharset(StandardCharsets.UTF_8));
+        csvExport.processRow(new Object[]{"a,b", 12, null, "say \"hi\"", "line\nbreak", 1.5});
+        csvExport.close();
+        String content = new String(Files.readAllBytes(new File(filePath).toPath()), StandardCharsets.UTF_8);
+        Assert.assertEquals("\"a,b\",12,,\"say \"\"hi\"\"\",\"line\nbreak\",1.5\r\n", content);
+    }
+
+    @Test
+    public void testProcessRowFormat() throws IOException {
+        String filePath = createFilePath("typed-format.csv");
+        ExportParam exportParam = new ExportParam().setCharset(StandardCharsets.UTF_8)
+                .setRowFormat(String::toUpperCase);
+        CsvExport csvExport = new CsvExport(filePath, exportParam);
+        // 设置 row format 时拼接后再格式化
+        csvExport.processRow(new Object[]{"a", 12, null, new BigDecimal("1E+3")});
+        csvExport.close();
+        String content = new String(Files.readAllBytes(new File(filePath).toPath()), StandardCharsets.UTF_8);
+        Assert.assertEquals("A,12,,1000\r\n", content);
+    }
+
+    @Test
+    public void testPrefetchExport() throws IOException {
+        String filePath = createFilePath("prefetch.csv");
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExportParam exportParam = new ExportParam()
+                .setHeader("seq")
+                .setSum(1000)
+                .setPageSize(100)
+                .setPrefetchPages(3)
+                .setCharset(StandardCharsets.UTF_8)
+                .setSearchParam(new HashMap<>(16));
+        CsvExport csvExport = new CsvExport(filePath, exportParam);
+        csvExport.exportQueryPage(paramMap -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            int pageIndex = (int) paramMap.get(CommonConstants.PADE_QUERY_INDEX);
+            try {
+                // 前面的页查询更慢
+                Thread.sleep((1000 - pageIndex) / 50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<String> page = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                page.add(String.valueOf(pageIndex + i));
+            }
+            running.decrementAndGet();
+            return page;
+        });
+        List<String> lines = Files.readAllLines(new File(filePath).toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(1001, lines.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(String.valueOf(i), lines.get(i + 1));
+        }
+        Assert.assertTrue(maxRunning.get() <= 3);
+    }
+
     @Test
     public void testDataFunExport() {
         String filePath = createFilePath("data-function.csv");
@@ -66,4 +133,37 @@ public class CsvTest extends ExportTest {
         BaseExport baseExport = new CsvExport(filePath, exportParam);
         baseExport.exportQueryPage(dataService::selectPage);
     }
+
+    @Test
+    public void testExportMetrics() throws IOException {
+        String filePath = createFilePath("metrics.csv");
+        ParseMetrics parseMetrics = new ParseMetrics();
+        ExportParam exportParam = new ExportParam()
+                .setHeader("seq")
+                .setSum(1000)
+                .setPageSize(100)
+                .setCharset(StandardCharsets.UTF_8)
+                .setSearchParam(new HashMap<>(16))
+                .setParseMetrics(parseMetrics);
+        CsvExport csvExport = new CsvExport(filePath, exportParam);
+        csvExport.exportQueryPage(paramMap -> {
+            int pageIndex = (int) paramMap.get(CommonConstants.PADE_QUERY_INDEX);
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<String> page = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                page.add(String.valueOf(pageIndex + i));
+            }
+            return page;
+        });
+        MetricsSnapshot snapshot = parseMetrics.snapshot();
+        Assert.assertEquals(1000, snapshot.getRows());
+        Assert.assertEquals(new File(filePath).length(), snapshot.getBytes());
+        Assert.assertTrue(snapshot.getStageNanos(Stage.QUERY) >= 10 * 2000000L);
+        Assert.assertTrue(snapshot.getStageNanos(Stage.WRITE) > 0);
+        Assert.assertTrue(snapshot.getRowsPerSecond() > 0);
+    }
 }
@@ -3,13 +3,30 @@ package com.github.catdou.export.excel;
 import com.github.catdou.export.ExportTest;
 import com.github.catdou.export.models.User;
 import com.github.shootercheng.common.constant.CommonConstants;
+import com.github.shootercheng.export.common.ExportCommon;
 import com.github.shootercheng.export.core.BaseExport;
 import com.github.shootercheng.export.core.ExcelExport;
 import com.github.shootercheng.export.core.ExcelMultiSheetExport;
+import com.github.shootercheng.export.core.XlsxStreamExport;
 import com.github.shootercheng.export.param.ExportParam;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
 import org.junit.Test;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +61,72 @@ public class ExcelExportTest extends ExportTest {
         baseExport.exportList(userList);
     }
 
+    @Test
+    public void testProcessRow() throws IOException {
+        String exportDir = "file" + File.separator + UUID.randomUUID().toString();
+        new File(exportDir).mkdirs();
+        String filePath = exportDir + File.separator + "typed.xlsx";
+        ExcelExport excelExport = new ExcelExport(filePath, null, false,
+                new ExportParam().setHeader("text,int,date,bool,long"));
+        excelExport.initSheet("sheet");
+        Date date = new Date(1570000000000L);
+        excelExport.processRow(new Object[]{"a,b", 12, date, true, Long.MAX_VALUE});
+        excelExport.saveExcel();
+        try (Workbook workbook = new XSSFWorkbook(filePath)) {
+            Row row = workbook.getSheetAt(0).getRow(1);
+            Assert.assertEquals("a,b", row.getCell(0).getStringCellValue());
+            Assert.assertEquals(12, row.getCell(1).getNumericCellValue(), 0);
+            Assert.assertEquals(date, row.getCell(2).getDateCellValue());
+            Assert.assertTrue(DateUtil.isCellDateFormatted(row.getCell(2)));
+            Assert.assertTrue(row.getCell(3).getBooleanCellValue());
+            Assert.assertEquals(String.valueOf(Long.MAX_VALUE), row.getCell(4).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void testExactNumber() throws IOException {
+        String exportDir = "file" + File.separator + UUID.randomUUID().toString();
+        new File(exportDir).mkdirs();
+        String filePath = exportDir + File.separator + "number.xlsx";
+        ExcelExport excelExport = new ExcelExport(filePath, null, false,
+                new ExportParam().setHeader("max,16,min,big,decimal,exponent"));
+        excelExport.initSheet("sheet");
+        excelExport.processRow(createNumberRow());
+        excelExport.saveExcel();
+        checkExactNumber(filePath);
+    }
+
+    @Test
+    public void testXlsxStreamExactNumber() throws IOException {
+        String exportDir = "file" + File.separator + UUID.randomUUID().toString();
+        new File(exportDir).mkdirs();
+        String filePath = exportDir + File.separator + "stream-number.xlsx";
+        XlsxStreamExport streamExport = new XlsxStreamExport(filePath,
+                new ExportParam().setHeader("max,16,min,big,decimal,exponent"));
+        streamExport.processRow(createNumberRow());
+        streamExport.close();
+        checkExactNumber(filePath);
+    }
+
+    private Object[] createNumberRow() {
+        return new Object[]{-999999999999999L, 1234567890123456L, Long.MIN_VALUE,
+                new BigInteger("1234567890123456"), new BigDecimal("1234567890.12345"),
+                new BigDecimal("1.234567890123456789E+25")};
+    }
+
+    private void checkExactNumber(String filePath) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(filePath)) {
+            Row row = workbook.getSheetAt(0).getRow(1);
+            Assert.assertEquals(-999999999999999D, row.getCell(0).getNumericCellValue(), 0);
+            Assert.assertEquals("1234567890123456", row.getCell(1).getStringCellValue());
+            Assert.assertEquals(String.valueOf(Long.MIN_VALUE), row.getCell(2).getStringCellValue());
+            Assert.assertEquals("1234567890123456", row.getCell(3).getStringCellValue());
+            Assert.assertEquals(1234567890.12345, row.getCell(4).getNumericCellValue(), 0);
+            // 文本不使用科学计数法
+            Assert.assertEquals("12345678901234567890000000", row.getCell(5).getStringCellValue());
+        }
+    }
+
     @Test
     public void testManySheet() {
         String exportDir = "file" + File.separator + UUID.randomUUID().toString();
@@ -61,4 +144,175 @@ public class ExcelExportTest extends ExportTest {
         excelMultiSheetExport.exportListByParamIndex(userList, 0);
         excelMultiSheetExport.exportListByParamIndex(userList, 1, true);
     }
+
+    @Test
+    public void testJfrEvents() throws IOException {
+        String exportDir = "file" + File.separator + UUID.randomUUID().toString();
+        new File(exportDir).mkdirs();
+        String filePath = exportDir + File.separator + "jfr.xlsx";
+        File recordFile = new File(exportDir, "export.jfr");
+        ExportParam exportParam = new ExportParam()
+                .setHeader("seq")
+                .setSum(1000)
+                .setPageSize(100)
+                .setSearchParam(new HashMap<>(16));
+        try (Recording recording = new Recording()) {
+            recording.enable("com.github.shootercheng.PageQuery");
+            recording.enable("com.github.shootercheng.WorkbookSave");
+            recording.start();
+            new ExcelExport(filePath, null, false, exportParam).exportQueryPage(paramMap -> {
+                int pageIndex = (int) paramMap.get(CommonConstants.PADE_QUERY_INDEX);
+                List<String> page = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    page.add(String.valueOf(pageIndex + i));
+                }
+                return page;
+            });
+            recording.stop();
+            recording.dump(recordFile.toPath());
+        }
+        int pages = 0;
+        int rows = 0;
+        RecordedEvent saveEvent = null;
+        for (RecordedEvent event : RecordingFile.readAllEvents(recordFile.toPath())) {
+            String name = event.getEventType().getName();
+            if (name.equals("com.github.shootercheng.PageQuery")) {
+                pages++;
+                rows += event.getInt("rows");
+            } else if (name.equals("com.github.shootercheng.WorkbookSave")) {
+                saveEvent = event;
+            }
+        }
+        Assert.assertEquals(10, pages);
+        Assert.assertEquals(1000, rows);
+        Assert.assertNotNull(saveEvent);
+        Assert.assertEquals(filePath, saveEvent.getString("path"));
+        Assert.assertEquals(1000, saveEvent.getLong("rows"));
+        Assert.assertEquals(new File(filePath).length(), saveEvent.getLong("bytes"));
+    }
+
+    @Test
+    public void testXlsxStream() throws IOException {
+        String exportDir = "file" + File.separator + UUID.randomUUID().toString();
+        new File(exportDir).mkdirs();
+        String filePath = exportDir + File.separator + "stream.xlsx";
+        XlsxStreamExport streamExport = new XlsxStreamExport(filePath,
+                new ExportParam().setHeader("text,int,date,bool,long,decimal"))
+                .setHeaderBold(true)
+                .setHeaderFillColor("D9D9D9");
+        streamExport.initSheet("typed");
+        Date date = new Date(1570000000000L);
+        streamExport.processRow(new Object[]{" a<b>&\"c\" ", 12, date, true, Long.MAX_VALUE, new BigDecimal("1.50")});
+        streamExport.processRow(new Object[]{null, 1.5D, null, false, 3L, null});
+        streamExport.nextSheet(buildUserExportParam().setSheetName("user"));
+        streamExport.setMaxRow(10);
+        streamExport.exportList(createDataList(25));
+        try (Workbook workbook = new XSSFWorkbook(filePath)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Assert.assertEquals("typed", sheet.getSheetName());
+            XSSFCellStyle headerStyle = (XSSFCellStyle) sheet.getRow(0).getCell(0).getCellStyle();
+            Assert.assertTrue(headerStyle.getFont().getBold());
+            Assert.assertEquals("FFD9D9D9", headerStyle.getFillForegroundXSSFColor().getARGBHex());
+            Row row = sheet.getRow(1);
+            Assert.assertEquals(" a<b>&\"c\" ", row.getCell(0).getStringCellValue());
+            Assert.assertEquals(12, row.getCell(1).getNumericCellValue(), 0);
+            Assert.assertEquals(date, row.getCell(2).getDateCellValue());
+            Assert.assertTrue(DateUtil.isCellDateFormatted(row.getCell(2)));
+            Assert.assertTrue(row.getCell(3).getBooleanCellValue());
+            Assert.assertEquals(String.valueOf(Long.MAX_VALUE), row.getCell(4).getStringCellValue());
+            Assert.assertEquals(1.5, row.getCell(5).getNumericCellValue(), 0);
+            row = sheet.getRow(2);
+            Assert.assertNull(row.getCell(0));
+            Assert.assertEquals(1.5, row.getCell(1).getNumericCellValue(), 0);
+            Assert.assertFalse(row.getCell(3).getBooleanCellValue());
+            // 每页最多 11 行, 包含标题
+            Assert.assertEquals(4, workbook.getNumberOfSheets());
+            Assert.assertEquals("user", workbook.getSheetAt(1).getSheetName());
+            Assert.assertEquals("user_1", workbook.getSheetAt(2).getSheetName());
+            Assert.assertEquals("user_2", workbook.getSheetAt(3).getSheetName());
+            Assert.assertEquals("username", workbook.getSheetAt(2).getRow(0).getCell(0).getStringCellValue());
+            Assert.assertEquals("james10", workbook.getSheetAt(2).getRow(1).getCell(0).getStringCellValue());
+            Assert.assertEquals(24, workbook.getSheetAt(3).getRow(5).getCell(2).getNumericCellValue(), 0);
+            Assert.assertEquals(5, workbook.getSheetAt(3).getLastRowNum());
+        }
+    }
+
+    @Test
+    public void testXlsxStreamSheetName() throws IOException {
+        String exportDir = "file" + File.separator + UUID.randomUUID().toString();
+        new File(exportDir).mkdirs();
+        String filePath = exportDir + File.separator + "stream-sheet.xlsx";
+        String longName = "0123456789012345678901234567890";
+        // excel 日期从 1900 年开始
+        Date oldDate = new Date(-2300000000000L);
+        XlsxStreamExport streamExport = new XlsxStreamExport(filePath, new ExportParam().setHeader("date"));
+        streamExport.setMaxRow(1);
+        streamExport.processRow(new Object[]{oldDate});
+        streamExport.nextSheet(new ExportParam().setHeader("date"));
+        streamExport.processRow(new Object[]{oldDate});
+        try {
+            streamExport.nextSheet(new ExportParam().setSheetName("SHEET1"));
+            Assert.fail("duplicate sheet name");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("SHEET1"));
+        }
+        try {
+            streamExport.nextSheet(new ExportParam().setSheetName("a/b"));
+            Assert.fail("invalid sheet name");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("a/b"));
+        }
+        streamExport.nextSheet(new ExportParam().setSheetName(longName).setHeader("num"));
+        streamExport.processRow(new Object[]{1});
+        streamExport.processRow(new Object[]{2});
+        streamExport.close();
+        try (Workbook workbook = new XSSFWorkbook(filePath)) {
+            Assert.assertEquals(4, workbook.getNumberOfSheets());
+            Assert.assertEquals("sheet1", workbook.getSheetAt(0).getSheetName());
+            Assert.assertEquals("sheet2", workbook.getSheetAt(1).getSheetName());
+            Assert.assertEquals(longName, workbook.getSheetAt(2).getSheetName());
+            // 超出的页名截断后加序号
+            Assert.assertEquals(longName.substring(0, 29) + "_1", workbook.getSheetAt(3).getSheetName());
+            Assert.assertEquals(ExportCommon.formatDate(oldDate),
+                    workbook.getSheetAt(0).getRow(1).getCell(0).getStringCellValue());
+        }
+        String poiPath = exportDir + File.separator + "poi-date.xlsx";
+        ExcelExport excelExport = new ExcelExport(poiPath, null, false, new ExportParam().setHeader("date"));
+        excelExport.initSheet("sheet");
+        excelExport.processRow(new Object[]{oldDate});
+        excelExport.saveExcel();
+        try (Workbook workbook = new XSSFWorkbook(poiPath)) {
+            Assert.assertEquals(ExportCommon.formatDate(oldDate),
+                    workbook.getSheetAt(0).getRow(1).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    public void testXlsxStreamQuery() throws IOException {
+        String exportDir = "file" + File.separator + UUID.randomUUID().toString();
+        new File(exportDir).mkdirs();
+        String filePath = exportDir + File.separator + "stream-query.xlsx";
+        ExportParam exportParam = new ExportParam()
+                .setHeader("seq,name")
+                .setSum(1000)
+                .setPageSize(100)
+                .setSearchParam(new HashMap<>(16));
+        XlsxStreamExport streamExport = new XlsxStreamExport(filePath, exportParam);
+        streamExport.exportQueryPage(paramMap -> {
+            int pageIndex = (int) paramMap.get(CommonConstants.PADE_QUERY_INDEX);
+            List<String> page = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                page.add((pageIndex + i) + ",\"name" + (pageIndex + i) + "\"");
+            }
+            return page;
+        });
+        Assert.assertEquals(1000, streamExport.getRowCount());
+        try (Workbook workbook = new XSSFWorkbook(filePath)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Assert.assertEquals("sheet1", sheet.getSheetName());
+            Assert.assertEquals(1000, sheet.getLastRowNum());
+            Assert.assertEquals("999", sheet.getRow(1000).getCell(0).getStringCellValue());
+            Assert.assertEquals("name999", sheet.getRow(1000).getCell(1).getStringCellValue());
+        }
+    }
 }
@@ -0,0 +1,147 @@
+package com.github.catdou.export.jdbc;
+
+import com.github.catdou.export.ExportTest;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.export.core.CsvExport;
+import com.github.shootercheng.export.core.ExcelExport;
+import com.github.shootercheng.export.core.XlsxStreamExport;
+import com.github.shootercheng.export.param.ExportParam;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @author James
+ */
+public class ResultSetExportTest extends ExportTest {
+    private static final int ROW_COUNT = 5000;
+
+    private static final long TIME = 1570000000000L;
+
+    private static final String QUERY_SQL = "select id, user_name, amount, big_num, create_time, active "
+            + "from t_user where id >= ? order by id";
+
+    private Connection connection;
+
+    private String exportDir;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID().toString());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table t_user(id int primary key, user_name varchar(64), "
+                    + "amount decimal(10, 2), big_num bigint, create_time timestamp, active boolean)");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "insert into t_user values(?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                statement.setInt(1, i);
+                // 每 10 行一个空值
+                statement.setString(2, i % 10 == 0 ? null : "james," + i);
+                statement.setBigDecimal(3, new BigDecimal(i).movePointLeft(2));
+                statement.setLong(4, Long.MAX_VALUE - i);
+                statement.setTimestamp(5, new Timestamp(TIME + i * 1000L));
+                statement.setBoolean(6, i % 2 == 0);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        exportDir = "file" + File.separator + UUID.randomUUID().toString();
+        new File(exportDir).mkdirs();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testCsv() throws IOException, SQLException {
+        String filePath = exportDir + File.separator + "user.csv";
+        ParseMetrics parseMetrics = new ParseMetrics();
+        ExportParam exportParam = new ExportParam().setCharset(StandardCharsets.UTF_8).setParseMetrics(parseMetrics);
+        new CsvExport(filePath, exportParam).exportSql(connection, QUERY_SQL, 100, 10);
+        List<String> lines = Files.readAllLines(new File(filePath).toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(ROW_COUNT - 10 + 1, lines.size());
+        Assert.assertEquals("ID,USER_NAME,AMOUNT,BIG_NUM,CREATE_TIME,ACTIVE", lines.get(0));
+        Assert.assertEquals("10,,0.10," + (Long.MAX_VALUE - 10) + "," + new Timestamp(TIME + 10000L) + ",true",
+                lines.get(1));
+        Assert.assertTrue(lines.get(2).startsWith("11,\"james,11\",0.11,"));
+        Assert.assertEquals(ROW_COUNT - 10, parseMetrics.getRows());
+        Assert.assertTrue(parseMetrics.getBytes() > 0);
+        Assert.assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    public void testCsvQuotedHeader() throws IOException {
+        String filePath = exportDir + File.separator + "label.csv";
+        ExportParam exportParam = new ExportParam().setCharset(StandardCharsets.UTF_8);
+        new CsvExport(filePath, exportParam).exportSql(connection,
+                "select id as \"a,b\", user_name as \"x\"\"y\" from t_user where id < 2 order by id", 0);
+        List<String> lines = Files.readAllLines(new File(filePath).toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(3, lines.size());
+        Assert.assertEquals("\"a,b\",\"x\"\"y\"", lines.get(0));
+        Assert.assertEquals("1,\"james,1\"", lines.get(2));
+    }
+
+    @Test
+    public void testExcel() throws IOException, SQLException {
+        String filePath = exportDir + File.separator + "user.xlsx";
+        ExportParam exportParam = new ExportParam().setHeader("id,name,amount,num,time,active");
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select * from t_user order by id")) {
+            new ExcelExport(filePath, null, false, exportParam).exportResultSet(resultSet);
+        }
+        checkExcel(filePath);
+    }
+
+    @Test
+    public void testXlsxStream() throws IOException {
+        String filePath = exportDir + File.separator + "user-stream.xlsx";
+        ExportParam exportParam = new ExportParam().setSheetName("user");
+        new XlsxStreamExport(filePath, exportParam).exportSql(connection, QUERY_SQL, 100, 0);
+        checkExcel(filePath);
+    }
+
+    private void checkExcel(String filePath) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(filePath)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Assert.assertEquals(ROW_COUNT, sheet.getLastRowNum());
+            Row row = sheet.getRow(1);
+            Assert.assertEquals(0, row.getCell(0).getNumericCellValue(), 0);
+            Cell nullCell = row.getCell(1);
+            Assert.assertTrue(nullCell == null || nullCell.getCellType() == CellType.BLANK);
+            Assert.assertEquals(String.valueOf(Long.MAX_VALUE), row.getCell(3).getStringCellValue());
+            Assert.assertEquals(TIME, row.getCell(4).getDateCellValue().getTime());
+            Assert.assertTrue(DateUtil.isCellDateFormatted(row.getCell(4)));
+            Assert.assertTrue(row.getCell(5).getBooleanCellValue());
+            row = sheet.getRow(ROW_COUNT);
+            Assert.assertEquals("james," + (ROW_COUNT - 1), row.getCell(1).getStringCellValue());
+            Assert.assertEquals((ROW_COUNT - 1) / 100.0, row.getCell(2).getNumericCellValue(), 0);
+            Assert.assertFalse(row.getCell(5).getBooleanCellValue());
+        }
+    }
+}
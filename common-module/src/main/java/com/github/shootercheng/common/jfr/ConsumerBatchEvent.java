@@ -0,0 +1,22 @@
+package com.github.shootercheng.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author James
+ */
+@Name("com.github.shootercheng.ConsumerBatch")
+@Label("Consumer Batch")
+@Category({"Common Data", "Parse"})
+@Description("A batch is handled by the data consumer")
+class ConsumerBatchEvent extends Event {
+    @Label("Sheet")
+    int sheet;
+
+    @Label("Rows")
+    int rows;
+}
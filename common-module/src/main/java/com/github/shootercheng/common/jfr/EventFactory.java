@@ -0,0 +1,92 @@
+package com.github.shootercheng.common.jfr;
+
+import jdk.jfr.Event;
+
+/**
+ * only loaded when jdk.jfr is available, see {@link JfrEvents}
+ * @author James
+ */
+final class EventFactory {
+
+    private EventFactory() {
+    }
+
+    static Object begin(Event event) {
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static Object beginFileOpen() {
+        return begin(new FileOpenEvent());
+    }
+
+    static Object beginHeadResolve() {
+        return begin(new HeadResolveEvent());
+    }
+
+    static Object beginConsumerBatch() {
+        return begin(new ConsumerBatchEvent());
+    }
+
+    static Object beginPageQuery() {
+        return begin(new PageQueryEvent());
+    }
+
+    static Object beginWorkbookSave() {
+        return begin(new WorkbookSaveEvent());
+    }
+
+    static void commitFileOpen(Object started, String path, long bytes) {
+        FileOpenEvent event = (FileOpenEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    static void commitHeadResolve(Object started, int headColumns, int boundColumns) {
+        HeadResolveEvent event = (HeadResolveEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.headColumns = headColumns;
+            event.boundColumns = boundColumns;
+            event.commit();
+        }
+    }
+
+    static void commitConsumerBatch(Object started, int sheet, int rows) {
+        ConsumerBatchEvent event = (ConsumerBatchEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.sheet = sheet;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    static void commitPageQuery(Object started, int pageIndex, int rows) {
+        PageQueryEvent event = (PageQueryEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.pageIndex = pageIndex;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    static void commitWorkbookSave(Object started, String path, long rows, long bytes) {
+        WorkbookSaveEvent event = (WorkbookSaveEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.rows = rows;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.shootercheng.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author James
+ */
+@Name("com.github.shootercheng.FileOpen")
+@Label("File Open")
+@Category("Common Data")
+@Description("A file is opened for parse or export")
+class FileOpenEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("File Size")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,22 @@
+package com.github.shootercheng.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author James
+ */
+@Name("com.github.shootercheng.HeadResolve")
+@Label("Head Resolve")
+@Category({"Common Data", "Parse"})
+@Description("The head row is matched to the bean fields")
+class HeadResolveEvent extends Event {
+    @Label("Head Columns")
+    int headColumns;
+
+    @Label("Bound Columns")
+    int boundColumns;
+}
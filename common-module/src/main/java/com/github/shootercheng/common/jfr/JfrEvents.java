@@ -0,0 +1,116 @@
+package com.github.shootercheng.common.jfr;
+
+import java.io.File;
+
+/**
+ * flight recorder events of parse and export, named com.github.shootercheng.*.
+ * begin returns null when jdk.jfr is not available or the event is disabled,
+ * commit does nothing for null, so a disabled event costs a field read and a null check.
+ * jdk.jfr exists since jdk 11 and 8u262, the event classes are never loaded without it
+ * @author James
+ */
+public final class JfrEvents {
+    private static final boolean AVAILABLE = isJfrAvailable();
+
+    private JfrEvents() {
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    public static Object beginFileOpen() {
+        return AVAILABLE ? EventFactory.beginFileOpen() : null;
+    }
+
+    /**
+     * @param event value of {@link #beginFileOpen()}
+     * @param path file path
+     * @param bytes file size
+     */
+    public static void commitFileOpen(Object event, String path, long bytes) {
+        if (event != null) {
+            EventFactory.commitFileOpen(event, path, bytes);
+        }
+    }
+
+    /**
+     * @param event value of {@link #beginFileOpen()}
+     * @param path file path, the size is only read when the event is recorded
+     */
+    public static void commitFileOpen(Object event, String path) {
+        if (event != null) {
+            EventFactory.commitFileOpen(event, path, new File(path).length());
+        }
+    }
+
+    public static Object beginHeadResolve() {
+        return AVAILABLE ? EventFactory.beginHeadResolve() : null;
+    }
+
+    /**
+     * @param event value of {@link #beginHeadResolve()}
+     * @param headColumns columns of the head row
+     * @param boundColumns columns matched to a field
+     */
+    public static void commitHeadResolve(Object event, int headColumns, int boundColumns) {
+        if (event != null) {
+            EventFactory.commitHeadResolve(event, headColumns, boundColumns);
+        }
+    }
+
+    public static Object beginConsumerBatch() {
+        return AVAILABLE ? EventFactory.beginConsumerBatch() : null;
+    }
+
+    /**
+     * @param event value of {@link #beginConsumerBatch()}
+     * @param sheet sheet index, 0 for csv
+     * @param rows rows of the batch
+     */
+    public static void commitConsumerBatch(Object event, int sheet, int rows) {
+        if (event != null) {
+            EventFactory.commitConsumerBatch(event, sheet, rows);
+        }
+    }
+
+    public static Object beginPageQuery() {
+        return AVAILABLE ? EventFactory.beginPageQuery() : null;
+    }
+
+    /**
+     * @param event value of {@link #beginPageQuery()}
+     * @param pageIndex start index of the page
+     * @param rows rows returned
+     */
+    public static void commitPageQuery(Object event, int pageIndex, int rows) {
+        if (event != null) {
+            EventFactory.commitPageQuery(event, pageIndex, rows);
+        }
+    }
+
+    public static Object beginWorkbookSave() {
+        return AVAILABLE ? EventFactory.beginWorkbookSave() : null;
+    }
+
+    /**
+     * @param event value of {@link #beginWorkbookSave()}
+     * @param path target file path
+     * @param rows rows written to the workbook
+     * @param bytes file size
+     */
+    public static void commitWorkbookSave(Object event, String path, long rows, long bytes) {
+        if (event != null) {
+            EventFactory.commitWorkbookSave(event, path, rows, bytes);
+        }
+    }
+}
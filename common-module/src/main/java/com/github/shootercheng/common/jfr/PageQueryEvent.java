@@ -0,0 +1,22 @@
+package com.github.shootercheng.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author James
+ */
+@Name("com.github.shootercheng.PageQuery")
+@Label("Page Query")
+@Category({"Common Data", "Export"})
+@Description("A page is queried by export")
+class PageQueryEvent extends Event {
+    @Label("Page Index")
+    int pageIndex;
+
+    @Label("Rows")
+    int rows;
+}
@@ -0,0 +1,27 @@
+package com.github.shootercheng.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author James
+ */
+@Name("com.github.shootercheng.WorkbookSave")
+@Label("Workbook Save")
+@Category({"Common Data", "Export"})
+@Description("An excel workbook is written to file")
+class WorkbookSaveEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("File Size")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,96 @@
+package com.github.shootercheng.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * immutable copy of {@link ParseMetrics}
+ * @author James
+ */
+public class MetricsSnapshot {
+    private final long rows;
+
+    private final long bytes;
+
+    private final long errors;
+
+    private final long elapsedNanos;
+
+    private final long[] stageNanos;
+
+    private final long batchCount;
+
+    private final long[] batchHistogram;
+
+    MetricsSnapshot(long rows, long bytes, long errors, long elapsedNanos, long[] stageNanos,
+                    long batchCount, long[] batchHistogram) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.stageNanos = stageNanos;
+        this.batchCount = batchCount;
+        this.batchHistogram = batchHistogram;
+    }
+
+    static double perSecond(long count, long nanos) {
+        return nanos <= 0 ? 0 : count * 1e9 / nanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return perSecond(rows, elapsedNanos);
+    }
+
+    public double getBytesPerSecond() {
+        return perSecond(bytes, elapsedNanos);
+    }
+
+    public long getStageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * @return batch count of each latency bucket, see {@link ParseMetrics#getBatchLatencyBucketMillis()}
+     */
+    public long[] getBatchHistogram() {
+        return batchHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("rows ").append(rows)
+                .append(", bytes ").append(bytes)
+                .append(", errors ").append(errors)
+                .append(", elapsed ").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append("ms")
+                .append(", rows/s ").append(String.format("%.1f", getRowsPerSecond()));
+        for (Stage stage : Stage.values()) {
+            long nanos = stageNanos[stage.ordinal()];
+            if (nanos > 0) {
+                sb.append(", ").append(stage.name().toLowerCase()).append(' ')
+                        .append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("ms");
+            }
+        }
+        sb.append(", batches ").append(batchCount);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,297 @@
+package com.github.shootercheng.common.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * counters of parses or exports, can be shared by concurrent and successive runs.
+ * stage times are summed over all threads, so the sum may be larger than the elapsed time
+ * @author James
+ */
+public class ParseMetrics implements ParseMetricsMXBean {
+    private static final String DOMAIN = "com.github.shootercheng";
+
+    private static final Stage[] STAGES = Stage.values();
+
+    /**
+     * 1ms, 2ms, 4ms ... 32768ms
+     */
+    private static final long[] BUCKET_MILLIS = new long[16];
+
+    static {
+        for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+            BUCKET_MILLIS[i] = 1L << i;
+        }
+    }
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder bytes = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder[] stageNanos = new LongAdder[STAGES.length];
+
+    private final LongAdder batchCount = new LongAdder();
+
+    private final AtomicLongArray batchHistogram = new AtomicLongArray(BUCKET_MILLIS.length + 1);
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private volatile long runStart;
+
+    private final LongAdder activeNanos = new LongAdder();
+
+    private ObjectName objectName;
+
+    public ParseMetrics() {
+        for (int i = 0; i < stageNanos.length; i++) {
+            stageNanos[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param metrics metrics, may be null
+     * @return start time, 0 if metrics is null
+     */
+    public static long start(ParseMetrics metrics) {
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * add the time since start to the stage
+     * @param metrics metrics, may be null
+     * @param stage stage
+     * @param start value of {@link #start(ParseMetrics)}
+     */
+    public static void stop(ParseMetrics metrics, Stage stage, long start) {
+        if (metrics != null) {
+            metrics.addTime(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * a row is converted since start, or written by export
+     * @param metrics metrics, may be null
+     * @param stage stage
+     * @param start value of {@link #start(ParseMetrics)}
+     */
+    public static void countRow(ParseMetrics metrics, Stage stage, long start) {
+        if (metrics != null) {
+            metrics.addTime(stage, System.nanoTime() - start);
+            metrics.rows.increment();
+        }
+    }
+
+    /**
+     * a parse or export starts, time is counted while at least one is running
+     */
+    public void begin() {
+        if (running.getAndIncrement() == 0) {
+            runStart = System.nanoTime();
+        }
+    }
+
+    public void end() {
+        if (running.decrementAndGet() == 0) {
+            activeNanos.add(System.nanoTime() - runStart);
+        }
+    }
+
+    public void addRows(long n) {
+        rows.add(n);
+    }
+
+    public void addBytes(long n) {
+        bytes.add(n);
+    }
+
+    public void addErrors(long n) {
+        errors.add(n);
+    }
+
+    public void addTime(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()].add(nanos);
+    }
+
+    /**
+     * a batch is consumed, added to the consume stage and the latency histogram
+     * @param nanos consumer time
+     */
+    public void addBatch(long nanos) {
+        addTime(Stage.CONSUME, nanos);
+        batchCount.increment();
+        batchHistogram.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMillis(nanos)));
+    }
+
+    private static int bucket(long millis) {
+        if (millis <= 1) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(millis - 1), BUCKET_MILLIS.length);
+    }
+
+    public long getStageNanos(Stage stage) {
+        return stageNanos[stage.ordinal()].sum();
+    }
+
+    public MetricsSnapshot snapshot() {
+        long[] stages = new long[STAGES.length];
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = stageNanos[i].sum();
+        }
+        return new MetricsSnapshot(rows.sum(), bytes.sum(), errors.sum(), getElapsedNanos(), stages,
+                batchCount.sum(), getBatchLatencyHistogram());
+    }
+
+    public long getElapsedNanos() {
+        long elapsed = activeNanos.sum();
+        if (running.get() > 0) {
+            elapsed += System.nanoTime() - runStart;
+        }
+        return elapsed;
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        return MetricsSnapshot.perSecond(rows.sum(), getElapsedNanos());
+    }
+
+    @Override
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getElapsedNanos());
+    }
+
+    @Override
+    public long getReadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getStageNanos(Stage.READ));
+    }
+
+    @Override
+    public long getConvertMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getStageNanos(Stage.CONVERT));
+    }
+
+    @Override
+    public long getBindMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getStageNanos(Stage.BIND));
+    }
+
+    @Override
+    public long getConsumeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getStageNanos(Stage.CONSUME));
+    }
+
+    @Override
+    public long getQueryMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getStageNanos(Stage.QUERY));
+    }
+
+    @Override
+    public long getWriteMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getStageNanos(Stage.WRITE));
+    }
+
+    @Override
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    @Override
+    public long[] getBatchLatencyBucketMillis() {
+        return BUCKET_MILLIS.clone();
+    }
+
+    @Override
+    public long[] getBatchLatencyHistogram() {
+        long[] histogram = new long[batchHistogram.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = batchHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    /**
+     * reset the counters, the running time of current runs is restarted
+     */
+    @Override
+    public void reset() {
+        rows.reset();
+        bytes.reset();
+        errors.reset();
+        for (LongAdder stage : stageNanos) {
+            stage.reset();
+        }
+        batchCount.reset();
+        for (int i = 0; i < batchHistogram.length(); i++) {
+            batchHistogram.set(i, 0);
+        }
+        activeNanos.reset();
+        runStart = System.nanoTime();
+    }
+
+    /**
+     * register to the platform mbean server
+     * @param name name of the import or export
+     * @return object name, e.g. com.github.shootercheng:type=ParseMetrics,name=order-import
+     */
+    public synchronized ObjectName register(String name) {
+        if (objectName != null) {
+            throw new IllegalStateException("metrics already registered as " + objectName);
+        }
+        try {
+            ObjectName newName = new ObjectName(DOMAIN + ":type=ParseMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+            objectName = newName;
+            return newName;
+        } catch (JMException e) {
+            throw new IllegalStateException("register metrics mbean error", e);
+        }
+    }
+
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("unregister metrics mbean error", e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
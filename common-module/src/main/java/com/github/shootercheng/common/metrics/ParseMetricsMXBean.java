@@ -0,0 +1,41 @@
+package com.github.shootercheng.common.metrics;
+
+/**
+ * jmx view of {@link ParseMetrics}, times are in milliseconds
+ * @author James
+ */
+public interface ParseMetricsMXBean {
+
+    long getRows();
+
+    long getBytes();
+
+    long getErrors();
+
+    double getRowsPerSecond();
+
+    long getElapsedMillis();
+
+    long getReadMillis();
+
+    long getConvertMillis();
+
+    long getBindMillis();
+
+    long getConsumeMillis();
+
+    long getQueryMillis();
+
+    long getWriteMillis();
+
+    long getBatchCount();
+
+    /**
+     * @return upper bounds of the batch latency buckets, the last bucket has no bound
+     */
+    long[] getBatchLatencyBucketMillis();
+
+    long[] getBatchLatencyHistogram();
+
+    void reset();
+}
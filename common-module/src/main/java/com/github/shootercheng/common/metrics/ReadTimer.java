@@ -0,0 +1,37 @@
+package com.github.shootercheng.common.metrics;
+
+/**
+ * read time of push readers, e.g. sax. the time between two row callbacks is reading,
+ * not thread safe, one timer for one parse
+ * @author James
+ */
+public class ReadTimer {
+    private final ParseMetrics metrics;
+
+    private long last;
+
+    public ReadTimer(ParseMetrics metrics) {
+        this.metrics = metrics;
+        this.last = ParseMetrics.start(metrics);
+    }
+
+    /**
+     * a row is read, called when the callback starts
+     */
+    public void read() {
+        if (metrics != null) {
+            long now = System.nanoTime();
+            metrics.addTime(Stage.READ, now - last);
+            last = now;
+        }
+    }
+
+    /**
+     * the row is handled, called when the callback ends
+     */
+    public void handled() {
+        if (metrics != null) {
+            last = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.shootercheng.common.metrics;
+
+/**
+ * stages of a parse or export
+ * @author James
+ */
+public enum Stage {
+    /**
+     * read and tokenize the file
+     */
+    READ,
+
+    /**
+     * convert a row to bean, cell formats and setters included
+     */
+    CONVERT,
+
+    /**
+     * match the head and build the row binder
+     */
+    BIND,
+
+    /**
+     * data consumer handles the batches
+     */
+    CONSUME,
+
+    /**
+     * export page query
+     */
+    QUERY,
+
+    /**
+     * export write rows to file
+     */
+    WRITE
+}
@@ -12,29 +12,80 @@ public class DataUtil {
             'T','U','V','W','X','Y','Z'};
 
     /**
-     * 从 0 开始, AAA-702 不考虑
+     * xlsx 最大列数, A 到 XFD
+     */
+    public static final int MAX_COLUMN_NUM = 16384;
+
+    private static final int LEGACY_COLUMN_NUM = 702;
+
+    private static final String[] COLUMN_NAMES = new String[MAX_COLUMN_NUM];
+
+    /**
+     * 从 0 开始, 最大 XFD
      * @param num the char num
      * @return excel column str
      */
     public static String calExcelNumChar(int num) {
-        if (num < 0 || num >= 702) {
+        if (num < 0 || num >= MAX_COLUMN_NUM) {
+            throw new IllegalArgumentException("column num input error");
+        }
+        char[] chars = new char[3];
+        int pos = chars.length;
+        for (int n = num + 1; n > 0; n = (n - 1) / 26) {
+            chars[--pos] = UPPER_CHAR[(n - 1) % 26];
+        }
+        return new String(chars, pos, chars.length - pos);
+    }
+
+    /**
+     * @param num column index, start from 0
+     * @return excel column str, cached
+     */
+    public static String columnName(int num) {
+        if (num < 0 || num >= MAX_COLUMN_NUM) {
             throw new IllegalArgumentException("column num input error");
         }
-        if (num < 26) {
-            return String.valueOf(UPPER_CHAR[num]);
+        String columnName = COLUMN_NAMES[num];
+        if (columnName == null) {
+            // String 不可变, 并发重复计算无影响
+            columnName = calExcelNumChar(num);
+            COLUMN_NAMES[num] = columnName;
         }
-        int firstIndex = num / 26 - 1;
-        int secondIndex = num % 26;
-        return String.valueOf(UPPER_CHAR[firstIndex]) + UPPER_CHAR[secondIndex];
+        return columnName;
     }
 
+    /**
+     * @param column excel column str, e.g. "A", "XFD"
+     * @return column index start from 0, -1 if the column is not valid
+     */
+    public static int columnIndex(String column) {
+        if (column == null || column.isEmpty() || column.length() > 3) {
+            return -1;
+        }
+        int num = 0;
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            num = num * 26 + c - 'A' + 1;
+        }
+        return num <= MAX_COLUMN_NUM ? num - 1 : -1;
+    }
+
+    /**
+     * A 到 ZZ, 使用 columnIndex 和 columnName 支持全部列
+     */
     public static Map<String, Integer> EXCEL_COLUMN = new HashMap<>();
 
+    /**
+     * A 到 ZZ, 使用 columnIndex 和 columnName 支持全部列
+     */
     public static Map<Integer, String> COLUMN_NUM = new HashMap<>();
 
     static {
-        for (int i = 0; i < 702; i++) {
-            String columnStr = calExcelNumChar(i);
+        for (int i = 0; i < LEGACY_COLUMN_NUM; i++) {
+            String columnStr = columnName(i);
             EXCEL_COLUMN.put(columnStr, i);
             COLUMN_NUM.put(i, columnStr);
         }
@@ -0,0 +1,14 @@
+package com.github.shootercheng.parse.bind;
+
+/**
+ * set a boolean cell value to the bean without boxing
+ * @author James
+ */
+@FunctionalInterface
+public interface BooleanCellSetter {
+    /**
+     * @param bean bean
+     * @param value converted value
+     */
+    void set(Object bean, boolean value);
+}
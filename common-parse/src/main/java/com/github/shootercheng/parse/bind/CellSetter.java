@@ -0,0 +1,14 @@
+package com.github.shootercheng.parse.bind;
+
+/**
+ * set a converted cell value to the bean
+ * @author James
+ */
+@FunctionalInterface
+public interface CellSetter {
+    /**
+     * @param bean bean
+     * @param value converted value
+     */
+    void set(Object bean, Object value);
+}
@@ -0,0 +1,14 @@
+package com.github.shootercheng.parse.bind;
+
+/**
+ * set a double cell value to the bean without boxing
+ * @author James
+ */
+@FunctionalInterface
+public interface DoubleCellSetter {
+    /**
+     * @param bean bean
+     * @param value converted value
+     */
+    void set(Object bean, double value);
+}
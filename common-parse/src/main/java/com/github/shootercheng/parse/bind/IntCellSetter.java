@@ -0,0 +1,14 @@
+package com.github.shootercheng.parse.bind;
+
+/**
+ * set a int cell value to the bean without boxing
+ * @author James
+ */
+@FunctionalInterface
+public interface IntCellSetter {
+    /**
+     * @param bean bean
+     * @param value converted value
+     */
+    void set(Object bean, int value);
+}
@@ -0,0 +1,169 @@
+package com.github.shootercheng.parse.bind;
+
+import com.github.shootercheng.parse.exception.FileParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * generate setter and constructor lambdas by LambdaMetafactory,
+ * fall back to method handle if the bean is not public or not visible to this class loader
+ * @author James
+ */
+class LambdaFactory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LambdaFactory.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_SETTER_MAP;
+    static {
+        Map<Class<?>, Class<?>> map = new HashMap<>(8);
+        map.put(int.class, IntCellSetter.class);
+        map.put(long.class, LongCellSetter.class);
+        map.put(double.class, DoubleCellSetter.class);
+        map.put(boolean.class, BooleanCellSetter.class);
+        PRIMITIVE_SETTER_MAP = Collections.unmodifiableMap(map);
+    }
+
+    private LambdaFactory() {
+    }
+
+    static CellSetter createSetter(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (canGenerate(declaringClass) && Modifier.isPublic(method.getModifiers())) {
+            try {
+                MethodHandle setter = LOOKUP.unreflect(method);
+                Class<?> valueType = boxed(method.getParameterTypes()[0]);
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "set",
+                        MethodType.methodType(CellSetter.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        setter,
+                        MethodType.methodType(void.class, declaringClass, valueType));
+                return (CellSetter) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                LOGGER.warn("generate setter lambda error {}, use method handle", method.getName());
+            }
+        }
+        MethodHandle setter;
+        try {
+            method.setAccessible(true);
+            setter = LOOKUP.unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (Exception e) {
+            throw new FileParseException("create setter error " + method.getName(), e);
+        }
+        return (bean, value) -> {
+            try {
+                setter.invokeExact(bean, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new FileParseException("invoke value error", e);
+            }
+        };
+    }
+
+    /**
+     * @param method setter of int, long, double or boolean
+     * @return IntCellSetter, LongCellSetter, DoubleCellSetter or BooleanCellSetter,
+     * null if the parameter is not primitive or the lambda can not be generated
+     */
+    static Object createPrimitiveSetter(Method method) {
+        Class<?> valueType = method.getParameterTypes()[0];
+        Class<?> setterType = PRIMITIVE_SETTER_MAP.get(valueType);
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (setterType == null || !canGenerate(declaringClass) || !Modifier.isPublic(method.getModifiers())) {
+            return null;
+        }
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "set",
+                    MethodType.methodType(setterType),
+                    MethodType.methodType(void.class, Object.class, valueType),
+                    LOOKUP.unreflect(method),
+                    MethodType.methodType(void.class, declaringClass, valueType));
+            return callSite.getTarget().invoke();
+        } catch (Throwable e) {
+            LOGGER.warn("generate primitive setter lambda error {}, use boxed setter", method.getName());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Supplier<T> createConstructor(Class<T> clazz) {
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+            // 抽象类由反射创建, 抛出 InstantiationException
+            return null;
+        }
+        Constructor<T> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (canGenerate(clazz) && Modifier.isPublic(constructor.getModifiers())) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(clazz));
+                return (Supplier<T>) callSite.getTarget().invokeExact();
+            } catch (Throwable e) {
+                LOGGER.warn("generate constructor lambda error {}, use method handle", clazz.getName());
+            }
+        }
+        MethodHandle handle;
+        try {
+            constructor.setAccessible(true);
+            handle = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (Exception e) {
+            return null;
+        }
+        return () -> {
+            try {
+                return (T) handle.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new FileParseException("create instance error " + clazz.getName(), e);
+            }
+        };
+    }
+
+    /**
+     * the generated class is defined in the class loader of this class,
+     * it must be able to see the bean class
+     */
+    private static boolean canGenerate(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        try {
+            return Class.forName(clazz.getName(), false, LambdaFactory.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.shootercheng.parse.bind;
+
+import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.common.util.ReflectUtil;
+import com.github.shootercheng.parse.constant.MapperType;
+import com.github.shootercheng.parse.exception.FileParseException;
+import com.github.shootercheng.parse.param.ParseParam;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the field mapping of a bean class compiled from a parse param, immutable and thread safe.
+ * heads are matched by a case folded alias index, unmapped columns are ignored,
+ * the binder of a head row is cached, the same head row of the next upload is not resolved again.
+ * compile once and set it to the parse param of every parse of the same template,
+ * the parse param is not changed by parsing, a new one is still needed for every parse
+ * because it holds the error record and data consumer of that parse
+ * @author James
+ */
+public final class ParsePlan<T> {
+    private static final int MAX_HEAD_CACHE_SIZE = 256;
+
+    private final Class<T> clazz;
+
+    private final MapperType mapperType;
+
+    private final RowBinder<T> columnBinder;
+
+    private final String[] fields;
+
+    private final Method[] fieldSetters;
+
+    /**
+     * case folded head to field indexes, in config order
+     */
+    private final Map<String, int[]> headIndex;
+
+    private final Map<Map<Integer, String>, RowBinder<T>> headBinderCache;
+
+    private ParsePlan(Class<T> clazz, ParseParam parseParam) {
+        this.clazz = clazz;
+        this.mapperType = parseParam.getMapperType();
+        Map<String, List<String>> fieldHeadMap = parseParam.getFieldHeadMap();
+        Map<String, Method> fieldSetterMap = parseParam.getFieldSetterMap();
+        if (mapperType == MapperType.HEAD && fieldHeadMap != null && !fieldHeadMap.isEmpty()) {
+            this.columnBinder = null;
+            this.fields = new String[fieldHeadMap.size()];
+            this.fieldSetters = new Method[fieldHeadMap.size()];
+            Map<String, Method> beanSetterMap = ReflectUtil.getBeanSetterMap(clazz);
+            Map<String, int[]> index = new HashMap<>(fieldHeadMap.size() * 4);
+            int i = 0;
+            // 保持配置顺序
+            for (Map.Entry<String, List<String>> entry : fieldHeadMap.entrySet()) {
+                fields[i] = entry.getKey();
+                fieldSetters[i] = beanSetterMap.get(entry.getKey().toLowerCase());
+                for (String head : entry.getValue()) {
+                    int[] fieldIndexes = index.get(normalize(head));
+                    if (fieldIndexes == null) {
+                        index.put(normalize(head), new int[]{i});
+                    } else if (fieldIndexes[fieldIndexes.length - 1] != i) {
+                        fieldIndexes = Arrays.copyOf(fieldIndexes, fieldIndexes.length + 1);
+                        fieldIndexes[fieldIndexes.length - 1] = i;
+                        index.put(normalize(head), fieldIndexes);
+                    }
+                }
+                i++;
+            }
+            this.headIndex = index;
+            this.headBinderCache = new ConcurrentHashMap<>(16);
+        } else if (mapperType == MapperType.COLUMN && fieldSetterMap != null && !fieldSetterMap.isEmpty()) {
+            this.columnBinder = RowBinder.compile(clazz, fieldSetterMap);
+            this.fields = null;
+            this.fieldSetters = null;
+            this.headIndex = null;
+            this.headBinderCache = null;
+        } else {
+            throw new IllegalArgumentException("please check field setter mapper or field head mapper");
+        }
+    }
+
+    /**
+     * @param clazz bean class
+     * @param parseParam parse param with field head map or field setter map
+     * @param <T> T
+     * @return plan
+     */
+    public static <T> ParsePlan<T> compile(Class<T> clazz, ParseParam parseParam) {
+        return new ParsePlan<>(clazz, parseParam);
+    }
+
+    /**
+     * @param clazz bean class
+     * @param parseParam parse param
+     * @param <T> T
+     * @return the plan set to the parse param, or a new compiled plan
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParsePlan<T> of(Class<T> clazz, ParseParam parseParam) {
+        ParsePlan<?> parsePlan = parseParam.getParsePlan();
+        if (parsePlan == null) {
+            return compile(clazz, parseParam);
+        }
+        if (parsePlan.clazz != clazz) {
+            throw new IllegalArgumentException("parse plan of " + parsePlan.clazz.getName() +
+                    " can not parse " + clazz.getName());
+        }
+        return (ParsePlan<T>) parsePlan;
+    }
+
+    public Class<T> getBeanClass() {
+        return clazz;
+    }
+
+    public MapperType getMapperType() {
+        return mapperType;
+    }
+
+    /**
+     * @return binder of the column mapping
+     */
+    public RowBinder<T> getBinder() {
+        if (columnBinder == null) {
+            throw new FileParseException("head line is not parsed, can not bind row by head");
+        }
+        return columnBinder;
+    }
+
+    /**
+     * @param headMap column index to head
+     * @return binder of the head mapping
+     */
+    public RowBinder<T> getBinder(Map<Integer, String> headMap) {
+        if (headBinderCache == null) {
+            throw new IllegalStateException("parse plan is not head mapping");
+        }
+        RowBinder<T> rowBinder = headBinderCache.get(headMap);
+        if (rowBinder == null) {
+            rowBinder = RowBinder.compile(clazz, mapHeadSetter(headMap));
+            if (headBinderCache.size() < MAX_HEAD_CACHE_SIZE) {
+                headBinderCache.put(Collections.unmodifiableMap(new HashMap<>(headMap)), rowBinder);
+            }
+        }
+        return rowBinder;
+    }
+
+    /**
+     * match the setter of every head, a field is matched by one head only, unmapped heads are ignored
+     * @param headMap column index to head
+     * @return excel column, e.g. "A", to setter
+     */
+    public Map<String, Method> mapHeadSetter(Map<Integer, String> headMap) {
+        if (fields == null) {
+            throw new IllegalStateException("parse plan is not head mapping");
+        }
+        boolean[] matched = new boolean[fields.length];
+        Map<String, Method> columnSetterMap = new HashMap<>(16);
+        // 按列顺序匹配, 同名 head 依次对应配置中的字段
+        for (Map.Entry<Integer, String> entry : new TreeMap<>(headMap).entrySet()) {
+            String head = entry.getValue();
+            int[] fieldIndexes = head == null ? null : headIndex.get(normalize(head));
+            if (fieldIndexes == null || entry.getKey() >= DataUtil.MAX_COLUMN_NUM) {
+                continue;
+            }
+            for (int fieldIndex : fieldIndexes) {
+                if (matched[fieldIndex]) {
+                    continue;
+                }
+                matched[fieldIndex] = true;
+                Method setterMethod = fieldSetters[fieldIndex];
+                if (setterMethod == null) {
+                    throw new IllegalArgumentException("Bean " + clazz + " not contain field " +
+                            fields[fieldIndex].toLowerCase() + " ,please check config column map");
+                }
+                columnSetterMap.put(DataUtil.columnName(entry.getKey()), setterMethod);
+                break;
+            }
+        }
+        return Collections.unmodifiableMap(columnSetterMap);
+    }
+
+    private static String normalize(String head) {
+        // 与 equalsIgnoreCase 一致
+        return head.trim().toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
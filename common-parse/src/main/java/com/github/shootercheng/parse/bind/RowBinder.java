@@ -0,0 +1,247 @@
+package com.github.shootercheng.parse.bind;
+
+import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.parse.constant.CommonConstant;
+import com.github.shootercheng.parse.exception.FileParseException;
+import com.github.shootercheng.parse.type.BaseTypeHandler;
+import com.github.shootercheng.parse.type.BooleanConverter;
+import com.github.shootercheng.parse.type.DateTypeHandler;
+import com.github.shootercheng.parse.type.DoubleConverter;
+import com.github.shootercheng.parse.type.IntConverter;
+import com.github.shootercheng.parse.type.LongConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * bind cell values of a row to a bean.
+ * the column, type handler and setter of every mapped field are resolved once,
+ * binders are owned by the parse plan and are thread safe.
+ * public primitive setters are called with converted primitive values, no boxing
+ * @author James
+ */
+public final class RowBinder<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RowBinder.class);
+
+    private static final String SET_METHOD_PREFIX = "set";
+
+    private final Class<T> clazz;
+
+    private final Supplier<T> constructor;
+
+    private final int[] columns;
+
+    private final String[] columnNames;
+
+    private final BaseTypeHandler[] handlers;
+
+    private final CellSetter[] setters;
+
+    private final Object[] primitiveSetters;
+
+    private RowBinder(Class<T> clazz, List<Binding> bindings) {
+        this.clazz = clazz;
+        this.constructor = LambdaFactory.createConstructor(clazz);
+        int size = bindings.size();
+        this.columns = new int[size];
+        this.columnNames = new String[size];
+        this.handlers = new BaseTypeHandler[size];
+        this.setters = new CellSetter[size];
+        this.primitiveSetters = new Object[size];
+        for (int i = 0; i < size; i++) {
+            Binding binding = bindings.get(i);
+            columns[i] = binding.column;
+            columnNames[i] = binding.columnName;
+            handlers[i] = binding.handler;
+            setters[i] = binding.setter;
+            primitiveSetters[i] = binding.primitiveSetter;
+        }
+    }
+
+    /**
+     * resolve the bindings of the column setter map, the binder is not cached, keep it in the parse plan
+     * @param clazz bean class
+     * @param fieldSetterMap excel column, e.g. "A", to setter
+     * @param <T> T
+     * @return binder
+     */
+    public static <T> RowBinder<T> compile(Class<T> clazz, Map<String, Method> fieldSetterMap) {
+        List<Binding> bindings = new ArrayList<>(fieldSetterMap.size());
+        for (Map.Entry<String, Method> entry : fieldSetterMap.entrySet()) {
+            Method method = entry.getValue();
+            if (method == null) {
+                throw new IllegalArgumentException("input set method is null");
+            }
+            if (method.getParameterTypes().length != 1) {
+                LOGGER.error("input method parameter type error");
+                continue;
+            }
+            if (!method.getName().startsWith(SET_METHOD_PREFIX)) {
+                LOGGER.error("input method not setter method {}", method.getName());
+                continue;
+            }
+            String typeName = method.getParameterTypes()[0].getTypeName();
+            BaseTypeHandler handler = CommonConstant.HANDLER_MAP.get(typeName);
+            if (handler == null) {
+                LOGGER.error("unknown type handler {}", typeName);
+                continue;
+            }
+            if (handler instanceof DateTypeHandler) {
+                // 日期列各自学习格式
+                handler = new DateTypeHandler();
+            }
+            int column = DataUtil.columnIndex(entry.getKey());
+            if (column < 0) {
+                throw new IllegalArgumentException("excel column error " + entry.getKey());
+            }
+            bindings.add(new Binding(column, entry.getKey(), handler, LambdaFactory.createSetter(method),
+                    LambdaFactory.createPrimitiveSetter(method)));
+        }
+        // 按列顺序读取
+        bindings.sort((o1, o2) -> Integer.compare(o1.column, o2.column));
+        return new RowBinder<>(clazz, bindings);
+    }
+
+    public T newInstance() throws InstantiationException, IllegalAccessException {
+        if (constructor == null) {
+            try {
+                return clazz.getDeclaredConstructor().newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw e;
+            } catch (ReflectiveOperationException e) {
+                throw new FileParseException("create instance error " + clazz.getName(), e);
+            }
+        }
+        return constructor.get();
+    }
+
+    /**
+     * @return bound field count
+     */
+    public int size() {
+        return columns.length;
+    }
+
+    /**
+     * @return indexes of bound columns, for readers to skip the other columns
+     */
+    public BitSet getColumnSet() {
+        BitSet columnSet = new BitSet();
+        for (int column : columns) {
+            columnSet.set(column);
+        }
+        return columnSet;
+    }
+
+    /**
+     * @param index bound field index
+     * @return column index, start from 0
+     */
+    public int getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * @param index bound field index
+     * @return excel column, e.g. "A"
+     */
+    public String getColumnName(int index) {
+        return columnNames[index];
+    }
+
+    /**
+     * convert the value and set to the bean, empty value is ignored
+     * @param t bean
+     * @param index bound field index
+     * @param value cell value
+     */
+    public void bind(T t, int index, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        Object primitiveSetter = primitiveSetters[index];
+        if (primitiveSetter != null) {
+            bindPrimitive(t, index, primitiveSetter, value, 0, value.length());
+            return;
+        }
+        Object typeValue = handlers[index].convertStrToType(value);
+        try {
+            setters[index].set(t, typeValue);
+        } catch (FileParseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FileParseException("invoke value error", e);
+        }
+    }
+
+    /**
+     * convert the chars in [start, end) and set to the bean, empty value is ignored.
+     * primitive fields are converted from the chars of the reader, no string is created
+     * @param t bean
+     * @param index bound field index
+     * @param chars chars of the reader, e.g. the field buffer of a csv record
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     */
+    public void bind(T t, int index, CharSequence chars, int start, int end) {
+        if (start >= end) {
+            return;
+        }
+        Object primitiveSetter = primitiveSetters[index];
+        if (primitiveSetter != null) {
+            bindPrimitive(t, index, primitiveSetter, chars, start, end);
+            return;
+        }
+        bind(t, index, chars.subSequence(start, end).toString());
+    }
+
+    private void bindPrimitive(T t, int index, Object primitiveSetter, CharSequence value, int start, int end) {
+        BaseTypeHandler handler = handlers[index];
+        try {
+            if (primitiveSetter instanceof IntCellSetter) {
+                int intValue = ((IntConverter) handler).convertToInt(value, start, end);
+                ((IntCellSetter) primitiveSetter).set(t, intValue);
+            } else if (primitiveSetter instanceof LongCellSetter) {
+                long longValue = ((LongConverter) handler).convertToLong(value, start, end);
+                ((LongCellSetter) primitiveSetter).set(t, longValue);
+            } else if (primitiveSetter instanceof DoubleCellSetter) {
+                double doubleValue = ((DoubleConverter) handler).convertToDouble(value, start, end);
+                ((DoubleCellSetter) primitiveSetter).set(t, doubleValue);
+            } else {
+                boolean booleanValue = ((BooleanConverter) handler).convertToBoolean(value, start, end);
+                ((BooleanCellSetter) primitiveSetter).set(t, booleanValue);
+            }
+        } catch (NumberFormatException | FileParseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FileParseException("invoke value error", e);
+        }
+    }
+
+    private static class Binding {
+        private final int column;
+
+        private final String columnName;
+
+        private final BaseTypeHandler handler;
+
+        private final CellSetter setter;
+
+        private final Object primitiveSetter;
+
+        private Binding(int column, String columnName, BaseTypeHandler handler, CellSetter setter,
+                        Object primitiveSetter) {
+            this.column = column;
+            this.columnName = columnName;
+            this.handler = handler;
+            this.setter = setter;
+            this.primitiveSetter = primitiveSetter;
+        }
+    }
+}
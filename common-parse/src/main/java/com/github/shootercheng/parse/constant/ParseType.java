@@ -5,5 +5,5 @@ package com.github.shootercheng.parse.constant;
  *
  */
 public enum ParseType {
-    CSV,EXCEL,EASYEXCEL
+    CSV,EXCEL,EASYEXCEL,EXCEL_STREAM
 }
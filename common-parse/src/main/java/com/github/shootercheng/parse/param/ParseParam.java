@@ -1,10 +1,15 @@
 package com.github.shootercheng.parse.param;
 
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.parse.bind.ParsePlan;
 import com.github.shootercheng.parse.constant.MapperType;
 import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.parse.consumer.BatchPool;
 import com.github.shootercheng.parse.parse.consumer.DataConsumer;
 import com.github.shootercheng.parse.parse.define.CellFormat;
 import com.github.shootercheng.parse.parse.define.RowDefineParse;
+import com.github.shootercheng.parse.parse.define.RowFilter;
 import com.github.shootercheng.parse.parse.error.DefaultErrorRecord;
 import com.github.shootercheng.parse.parse.error.ErrorRecord;
 
@@ -43,6 +48,26 @@ public class ParseParam {
 
     private MapperType mapperType;
 
+    private Character delimiter;
+
+    private boolean memoryMapped;
+
+    private int parallelism = 1;
+
+    private int pipelineThreads;
+
+    private int pipelineQueueSize = 4;
+
+    private ParsePlan<?> parsePlan;
+
+    private RowFilter rowFilter;
+
+    private int[] filterColumns;
+
+    private BatchPool<?> batchPool;
+
+    private ParseMetrics parseMetrics;
+
     public ParseParam() {
         errorRecord = new DefaultErrorRecord(new StringBuilder());
     }
@@ -160,4 +185,151 @@ public class ParseParam {
     public MapperType getMapperType() {
         return mapperType;
     }
+
+    public Character getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * csv field delimiter, if not set both ',' and '\t' are delimiters
+     * @param delimiter delimiter
+     * @return this
+     */
+    public ParseParam setDelimiter(Character delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * read csv file by memory mapped bytes, only the bound cells are decoded.
+     * ignored if the encode is not byte compatible with the delimiters, e.g. UTF-16
+     * @param memoryMapped memory mapped
+     * @return this
+     */
+    public ParseParam setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * parse csv file by chunks on a fork join pool, rows and consumer batches keep the file order.
+     * the file is memory mapped, only works when the encode is byte compatible with the delimiters
+     * @param parallelism thread count, 1 is single thread
+     * @return this
+     */
+    public ParseParam setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public int getPipelineThreads() {
+        return pipelineThreads;
+    }
+
+    /**
+     * run reading, converting and consuming on different threads, batches keep the file order.
+     * cellFormat and businessDefineParse are called by the converter threads
+     * @param pipelineThreads converter thread count, 0 is not pipelined
+     * @return this
+     */
+    public ParseParam setPipelineThreads(int pipelineThreads) {
+        this.pipelineThreads = pipelineThreads;
+        return this;
+    }
+
+    public int getPipelineQueueSize() {
+        return pipelineQueueSize;
+    }
+
+    /**
+     * max batches waiting to be converted or consumed, the reader is blocked when the queue is full
+     * @param pipelineQueueSize queue size
+     * @return this
+     */
+    public ParseParam setPipelineQueueSize(int pipelineQueueSize) {
+        this.pipelineQueueSize = pipelineQueueSize;
+        return this;
+    }
+
+    public ParsePlan<?> getParsePlan() {
+        return parsePlan;
+    }
+
+    /**
+     * use a compiled plan instead of the field head map or field setter map,
+     * the plan can be shared by concurrent parses of the same template.
+     * if not set a new plan is compiled for every parse
+     * @param parsePlan parse plan
+     * @return this
+     */
+    public ParseParam setParsePlan(ParsePlan<?> parsePlan) {
+        this.parsePlan = parsePlan;
+        return this;
+    }
+
+    public RowFilter getRowFilter() {
+        return rowFilter;
+    }
+
+    public int[] getFilterColumns() {
+        return filterColumns;
+    }
+
+    /**
+     * filter rows by the raw values of some columns before the bean is created,
+     * skipped rows are not converted and not recorded as error
+     * @param rowFilter row filter, null to read all rows
+     * @param columns excel columns passed to the filter, e.g. "A", "C"
+     * @return this
+     */
+    public ParseParam setRowFilter(RowFilter rowFilter, String... columns) {
+        int[] filterColumns = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            filterColumns[i] = DataUtil.columnIndex(columns[i]);
+            if (filterColumns[i] < 0) {
+                throw new IllegalArgumentException("filter column " + columns[i] + " is not a excel column");
+            }
+        }
+        this.rowFilter = rowFilter;
+        this.filterColumns = filterColumns;
+        return this;
+    }
+
+    public BatchPool<?> getBatchPool() {
+        return batchPool;
+    }
+
+    /**
+     * take the batches passed to the data consumer from the pool, the consumer releases them after use.
+     * if not set every batch is a new list
+     * @param batchPool batch pool
+     * @return this
+     */
+    public ParseParam setBatchPool(BatchPool<?> batchPool) {
+        this.batchPool = batchPool;
+        return this;
+    }
+
+    public ParseMetrics getParseMetrics() {
+        return parseMetrics;
+    }
+
+    /**
+     * count rows, bytes, errors and stage times of the parse, the metrics can be shared by many parses
+     * and registered as a jmx mbean
+     * @param parseMetrics parse metrics, null to not count
+     * @return this
+     */
+    public ParseParam setParseMetrics(ParseMetrics parseMetrics) {
+        this.parseMetrics = parseMetrics;
+        return this;
+    }
 }
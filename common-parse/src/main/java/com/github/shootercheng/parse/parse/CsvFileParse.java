@@ -1,23 +1,41 @@
 package com.github.shootercheng.parse.parse;
 
-import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.bind.RowBinder;
 import com.github.shootercheng.parse.constant.CommonConstant;
 import com.github.shootercheng.parse.constant.MapperType;
 import com.github.shootercheng.parse.exception.FileParseException;
 import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.consumer.BatchBuffer;
+import com.github.shootercheng.parse.parse.csv.CsvChunkSplitter;
+import com.github.shootercheng.parse.parse.csv.CsvRecordReader;
+import com.github.shootercheng.parse.parse.csv.CsvTokenizer;
+import com.github.shootercheng.parse.parse.csv.MappedCsvReader;
+import com.github.shootercheng.parse.parse.define.CellFormat;
+import com.github.shootercheng.parse.parse.iterator.AbstractParseIterator;
+import com.github.shootercheng.parse.parse.iterator.CloseableIterator;
+import com.github.shootercheng.parse.parse.pipeline.ParsePipeline;
 import com.github.shootercheng.parse.utils.FileParseCommonUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.lang.reflect.Method;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * @author chengdu
@@ -26,7 +44,13 @@ import java.util.Map;
 public class CsvFileParse implements FileParse {
     private static final Logger LOGGER = LoggerFactory.getLogger(CsvFileParse.class);
 
-    private static final String SPLIT_REGEX = "[,\t]";
+    private static final char DEFAULT_DELIMITER = ',';
+
+    private static final char TAB_DELIMITER = '\t';
+
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+
+    private static final long MAX_CHUNK_SIZE = 64 * 1024 * 1024;
 
     private CsvFileParse() {
     }
@@ -43,51 +67,88 @@ public class CsvFileParse implements FileParse {
     public <T> List<T> parseFile(String filePath, Class<T> clazz, ParseParam parseParam) {
         // 校验入参
         checkParam(parseParam);
-        BufferedReader reader = null;
+        FileParseCommonUtil.beginMetrics(parseParam);
+        try {
+            return parseFileRecords(filePath, clazz, parseParam);
+        } finally {
+            FileParseCommonUtil.endMetrics(parseParam, filePath);
+        }
+    }
+
+    private <T> List<T> parseFileRecords(String filePath, Class<T> clazz, ParseParam parseParam) {
+        if (parseParam.getParallelism() > 1) {
+            Charset charset = Charset.forName(getCharsetName(parseParam));
+            char first = getDelimiter(parseParam, DEFAULT_DELIMITER);
+            char second = getDelimiter(parseParam, TAB_DELIMITER);
+            if (MappedCsvReader.isSupported(charset, first, second)) {
+                return parseFileParallel(filePath, clazz, parseParam, charset, first, second);
+            }
+            LOGGER.warn("charset {} not support parallel parse, use single thread instead", charset);
+        }
+        CsvRecordReader recordReader = null;
+        ParsePipeline<T> pipeline = null;
         List<T> resultList = new ArrayList<>();
+        BatchBuffer<T> batchBuffer = parseParam.getDataConsumer() != null ? new BatchBuffer<>(parseParam, 0) : null;
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
         try {
-            String charsetName = parseParam.getEncode() != null ?
-                    parseParam.getEncode() : CommonConstant.GBK;
-            reader = new BufferedReader(new InputStreamReader(
-                    new FileInputStream(filePath), charsetName));
+            recordReader = createRecordReader(filePath, parseParam);
             int readLine = 0;
-            String lineStr;
-            while ( (lineStr = reader.readLine()) != null) {
+            ParsePlan<T> parsePlan = ParsePlan.of(clazz, parseParam);
+            RowBinder<T> rowBinder = null;
+            if (parsePlan.getMapperType() == MapperType.COLUMN) {
+                rowBinder = parsePlan.getBinder();
+                project(recordReader, rowBinder, parseParam);
+            }
+            while (nextRecord(recordReader, parseMetrics)) {
                 int headLine = parseParam.getHeadLine();
                 // 匹配 head
-                if (parseParam.getMapperType() == MapperType.HEAD && readLine == headLine) {
-                    Map<Integer, String> headMap = getHeadMap(lineStr);
-                    FileParseCommonUtil.buildParseParam(clazz, parseParam, headMap);
-                } else if (readLine >= parseParam.getStartLine()) {
-                    String[] lineArr = splitCsvLine(lineStr);
-                    T t = convertArrToVo(clazz, lineArr, parseParam);
-                    if (t != null) {
-                        resultList.add(t);
+                if (parsePlan.getMapperType() == MapperType.HEAD && readLine == headLine) {
+                    rowBinder = FileParseCommonUtil.resolveHead(parsePlan,
+                            getHeadMap(recordReader.getFields()), parseParam);
+                    project(recordReader, rowBinder, parseParam);
+                } else if (readLine >= parseParam.getStartLine() && !recordReader.isBlankRecord()
+                        && acceptRow(recordReader, parseParam)) {
+                    if (parseParam.getPipelineThreads() > 0) {
+                        // 读取, 转换, 消费在不同的线程
+                        if (pipeline == null) {
+                            RowBinder<T> pipelineBinder = rowBinder != null ? rowBinder : parsePlan.getBinder();
+                            pipeline = new ParsePipeline<>(parseParam, 0,
+                                    fields -> convertArrToVo(pipelineBinder, fields, parseParam));
+                        }
+                        pipeline.submit(recordReader.getFields());
                     } else {
-                        parseParam.getErrorRecord()
-                        .writeErrorMsg("line " + readLine + ":" + lineStr +
-                        "covert to null");
-                    }
-                    if (parseParam.getDataConsumer() != null) {
-                        if (resultList.size() >= parseParam.getBatchNum()) {
-                            parseParam.getDataConsumer().accept(resultList, 0);
+                        if (rowBinder == null) {
+                            rowBinder = parsePlan.getBinder();
+                        }
+                        T t = convertArrToVo(rowBinder, recordReader, parseParam);
+                        if (batchBuffer != null) {
+                            batchBuffer.add(t);
+                        } else {
+                            resultList.add(t);
                         }
                     }
                 }
                 readLine++;
             }
-            if (parseParam.getDataConsumer() != null) {
-                if (resultList.size() > 0) {
-                    parseParam.getDataConsumer().accept(resultList,0);
-                }
+            if (pipeline != null) {
+                resultList.addAll(pipeline.finish());
+            }
+            if (batchBuffer != null) {
+                batchBuffer.flush();
             }
         } catch (Exception e) {
             LOGGER.error("parse csv file error {}", e.getMessage());
             throw new FileParseException("parse csv file error", e);
         } finally {
-            if (reader != null) {
+            if (batchBuffer != null) {
+                batchBuffer.abort();
+            }
+            if (pipeline != null) {
+                pipeline.close();
+            }
+            if (recordReader != null) {
                 try {
-                    reader.close();
+                    recordReader.close();
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
@@ -96,8 +157,205 @@ public class CsvFileParse implements FileParse {
         return resultList;
     }
 
-    private Map<Integer, String> getHeadMap(String lineStr) {
-        String[] lineArr = splitCsvLine(lineStr);
+    private <T> List<T> parseFileParallel(String filePath, Class<T> clazz, ParseParam parseParam,
+                                          Charset charset, char first, char second) {
+        int parallelism = parseParam.getParallelism();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<T> resultList = new ArrayList<>();
+        BatchBuffer<T> batchBuffer = parseParam.getDataConsumer() != null ? new BatchBuffer<>(parseParam, 0) : null;
+        try {
+            // head 以及开始行之前的记录在切分之前读取, head 只匹配一次
+            int readLine = 0;
+            int skipLine = parseParam.getStartLine();
+            ParsePlan<T> parsePlan = ParsePlan.of(clazz, parseParam);
+            if (parsePlan.getMapperType() == MapperType.HEAD) {
+                skipLine = Math.max(skipLine, parseParam.getHeadLine() + 1);
+            }
+            long startPosition;
+            RowBinder<T> headBinder = null;
+            Object openEvent = JfrEvents.beginFileOpen();
+            try (MappedCsvReader recordReader = new MappedCsvReader(filePath, charset, first, second)) {
+                JfrEvents.commitFileOpen(openEvent, filePath);
+                while (readLine < skipLine && recordReader.nextRecord()) {
+                    if (parsePlan.getMapperType() == MapperType.HEAD && readLine == parseParam.getHeadLine()) {
+                        headBinder = FileParseCommonUtil.resolveHead(parsePlan,
+                                getHeadMap(recordReader.getFields()), parseParam);
+                    }
+                    readLine++;
+                }
+                startPosition = recordReader.getPosition();
+            }
+            RowBinder<T> rowBinder = headBinder != null ? headBinder : parsePlan.getBinder();
+            long chunkSize = (new File(filePath).length() - startPosition) / (parallelism * 4L);
+            chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, chunkSize));
+            long[] positions = CsvChunkSplitter.split(filePath, startPosition, chunkSize, pool);
+            int chunkCount = positions.length - 1;
+            // 限制同时解析的块数, 按文件顺序取回结果
+            Deque<ForkJoinTask<CsvChunk<T>>> taskQueue = new ArrayDeque<>();
+            int submitted = 0;
+            for (int i = 0; i < chunkCount; i++) {
+                while (submitted < chunkCount && submitted < i + parallelism * 2) {
+                    long start = positions[submitted];
+                    long end = positions[submitted + 1];
+                    boolean lastChunk = submitted == chunkCount - 1;
+                    taskQueue.add(pool.submit(() ->
+                            parseChunk(filePath, rowBinder, parseParam, charset, first, second, start, end, lastChunk)));
+                    submitted++;
+                }
+                CsvChunk<T> chunk = taskQueue.poll().join();
+                if (batchBuffer == null) {
+                    resultList.addAll(chunk.resultList);
+                    continue;
+                }
+                for (T t : chunk.resultList) {
+                    batchBuffer.add(t);
+                }
+            }
+            if (batchBuffer != null) {
+                batchBuffer.flush();
+            }
+        } catch (Exception e) {
+            LOGGER.error("parse csv file error {}", e.getMessage());
+            throw new FileParseException("parse csv file error", e);
+        } finally {
+            if (batchBuffer != null) {
+                batchBuffer.abort();
+            }
+            pool.shutdownNow();
+        }
+        return resultList;
+    }
+
+    private <T> CsvChunk<T> parseChunk(String filePath, RowBinder<T> rowBinder, ParseParam parseParam, Charset charset,
+                                       char first, char second, long start, long end,
+                                       boolean lastChunk) throws IOException {
+        CsvChunk<T> chunk = new CsvChunk<>();
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        try (MappedCsvReader recordReader = new MappedCsvReader(filePath, charset, first, second, start, end)) {
+            while (nextRecord(recordReader, parseMetrics)) {
+                if (!recordReader.isBlankRecord() && acceptRow(recordReader, parseParam)) {
+                    chunk.resultList.add(convertArrToVo(rowBinder, recordReader, parseParam));
+                }
+            }
+            // 块的结尾不是记录的结尾, 说明引号不成对
+            if (recordReader.isQuoteUnclosed() && !lastChunk) {
+                throw new FileParseException("quote not closed before position " + end +
+                        ", parallel parse needs rfc 4180 quoted csv");
+            }
+        }
+        return chunk;
+    }
+
+    @Override
+    public <T> CloseableIterator<T> parseIterator(String filePath, Class<T> clazz, ParseParam parseParam) {
+        checkParam(parseParam);
+        try {
+            return new CsvParseIterator<>(createRecordReader(filePath, parseParam), clazz, parseParam);
+        } catch (IOException e) {
+            LOGGER.error("open csv file error {}", e.getMessage());
+            throw new FileParseException("open csv file error", e);
+        }
+    }
+
+    private class CsvParseIterator<T> extends AbstractParseIterator<T> {
+        private final CsvRecordReader recordReader;
+
+        private final ParseParam parseParam;
+
+        private final ParsePlan<T> parsePlan;
+
+        private int readLine;
+
+        private RowBinder<T> rowBinder;
+
+        private CsvParseIterator(CsvRecordReader recordReader, Class<T> clazz, ParseParam parseParam) {
+            this.recordReader = recordReader;
+            this.parseParam = parseParam;
+            this.parsePlan = ParsePlan.of(clazz, parseParam);
+            if (parsePlan.getMapperType() == MapperType.COLUMN) {
+                rowBinder = parsePlan.getBinder();
+                project(recordReader, rowBinder, parseParam);
+            }
+        }
+
+        @Override
+        protected T fetchNext() throws IOException {
+            ParseMetrics parseMetrics = parseParam.getParseMetrics();
+            while (nextRecord(recordReader, parseMetrics)) {
+                int currentLine = readLine++;
+                if (parsePlan.getMapperType() == MapperType.HEAD && currentLine == parseParam.getHeadLine()) {
+                    rowBinder = FileParseCommonUtil.resolveHead(parsePlan,
+                            getHeadMap(recordReader.getFields()), parseParam);
+                    project(recordReader, rowBinder, parseParam);
+                } else if (currentLine >= parseParam.getStartLine() && !recordReader.isBlankRecord()
+                        && acceptRow(recordReader, parseParam)) {
+                    if (rowBinder == null) {
+                        rowBinder = parsePlan.getBinder();
+                    }
+                    return convertArrToVo(rowBinder, recordReader, parseParam);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected void doClose() throws IOException {
+            recordReader.close();
+        }
+    }
+
+    private String getCharsetName(ParseParam parseParam) {
+        return parseParam.getEncode() != null ? parseParam.getEncode() : CommonConstant.GBK;
+    }
+
+    private char getDelimiter(ParseParam parseParam, char defaultDelimiter) {
+        Character delimiter = parseParam.getDelimiter();
+        return delimiter == null ? defaultDelimiter : delimiter;
+    }
+
+    private static boolean nextRecord(CsvRecordReader recordReader, ParseMetrics parseMetrics) throws IOException {
+        long start = ParseMetrics.start(parseMetrics);
+        boolean hasNext = recordReader.nextRecord();
+        ParseMetrics.stop(parseMetrics, Stage.READ, start);
+        return hasNext;
+    }
+
+    /**
+     * 只读取绑定的列, 自定义解析需要整行数据时读取全部列
+     */
+    private static void project(CsvRecordReader recordReader, RowBinder<?> rowBinder, ParseParam parseParam) {
+        if (recordReader instanceof CsvTokenizer) {
+            ((CsvTokenizer) recordReader).setProjection(FileParseCommonUtil.getProjection(rowBinder, parseParam));
+        }
+    }
+
+    private static boolean acceptRow(CsvRecordReader recordReader, ParseParam parseParam) {
+        return FileParseCommonUtil.acceptRow(recordReader::getField, recordReader.getFieldCount(), parseParam);
+    }
+
+    private CsvRecordReader createRecordReader(String filePath, ParseParam parseParam) throws IOException {
+        Object event = JfrEvents.beginFileOpen();
+        CsvRecordReader recordReader = openRecordReader(filePath, parseParam);
+        JfrEvents.commitFileOpen(event, filePath);
+        return recordReader;
+    }
+
+    private CsvRecordReader openRecordReader(String filePath, ParseParam parseParam) throws IOException {
+        String charsetName = getCharsetName(parseParam);
+        char first = getDelimiter(parseParam, DEFAULT_DELIMITER);
+        char second = getDelimiter(parseParam, TAB_DELIMITER);
+        if (parseParam.isMemoryMapped()) {
+            Charset charset = Charset.forName(charsetName);
+            if (MappedCsvReader.isSupported(charset, first, second)) {
+                return new MappedCsvReader(filePath, charset, first, second);
+            }
+            LOGGER.warn("charset {} not support memory mapped read, use reader instead", charsetName);
+        }
+        Reader reader = new InputStreamReader(new FileInputStream(filePath), charsetName);
+        return new CsvTokenizer(reader, first, second);
+    }
+
+    private Map<Integer, String> getHeadMap(String[] lineArr) {
         Map<Integer, String> headMap = new HashMap<>();
         for (int i = 0; i < lineArr.length; i++) {
             headMap.put(i, lineArr[i]);
@@ -105,60 +363,68 @@ public class CsvFileParse implements FileParse {
         return headMap;
     }
 
-    private <T> T convertArrToVo(Class<T> clazz, String[] inputArr, ParseParam parseParam) {
+    private <T> T convertArrToVo(RowBinder<T> rowBinder, CsvRecordReader recordReader, ParseParam parseParam) {
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        long start = ParseMetrics.start(parseMetrics);
         T t = null;
         try {
-            t = clazz.newInstance();
-            Map<String, Method> fieldSetterMap = parseParam.getFieldSetterMap();
-            for (Map.Entry<String, Method> entry : fieldSetterMap.entrySet()) {
-                Integer column = DataUtil.EXCEL_COLUMN.get(entry.getKey());
-                String cellValue = inputArr[column];
-                if (parseParam.getCellFormat() != null) {
-                    cellValue = parseParam.getCellFormat().format(entry.getKey(), cellValue);
+            t = rowBinder.newInstance();
+            CellFormat cellFormat = parseParam.getCellFormat();
+            CharSequence fieldChars = cellFormat == null ? recordReader.getFieldChars() : null;
+            for (int i = 0, size = rowBinder.size(); i < size; i++) {
+                int column = rowBinder.getColumn(i);
+                if (fieldChars != null) {
+                    // 数值列直接从读取缓冲区转换, 不创建字符串
+                    if (column < recordReader.getFieldCount()) {
+                        rowBinder.bind(t, i, fieldChars, recordReader.getFieldStart(column),
+                                recordReader.getFieldEnd(column));
+                    }
+                    continue;
+                }
+                // 行尾空列可能不存在, 只解码需要的列
+                String cellValue = recordReader.getField(column);
+                if (cellFormat != null) {
+                    cellValue = cellFormat.format(rowBinder.getColumnName(i), cellValue);
                 }
-                FileParseCommonUtil.invokeValue(t, entry.getValue(), cellValue);
+                rowBinder.bind(t, i, cellValue);
             }
             if (parseParam.getBusinessDefineParse() != null) {
-                parseParam.getBusinessDefineParse().defineParse(t, inputArr, parseParam);
+                parseParam.getBusinessDefineParse().defineParse(t, recordReader.getFields(), parseParam);
             }
-        } catch (InstantiationException e) {
-            e.printStackTrace();
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new FileParseException("create bean instance error", e);
         }
+        ParseMetrics.countRow(parseMetrics, Stage.CONVERT, start);
         return t;
     }
 
-    private String[] splitCsvLine(String inputLine) {
-        if (!inputLine.contains(",") && !inputLine.contains("\t")) {
-            throw new IllegalArgumentException("input csv line unknown delimiter");
-        }
-        String[] inputArr = inputLine.split(SPLIT_REGEX);
-        List<String> resultList = new ArrayList<>(inputArr.length);
-        for (int i = 0; i < inputArr.length; i++) {
-            String istr = inputArr[i];
-            // "123,456,789" 在一个单元格 需要合并
-            if (istr.length() > 0 && istr.charAt(0) == '"' && istr.charAt(istr.length() - 1) != '"') {
-                // 逗号连接替换成分号
-                StringBuilder mergeStr = new StringBuilder(istr.substring(1) + ";");
-                for (int j = i + 1; j < inputArr.length; j++) {
-                    String jstr = inputArr[j];
-                    i++;
-                    if (jstr.length() > 0 && jstr.charAt(0) != '"' && jstr.charAt(jstr.length() - 1) == '"') {
-                        mergeStr.append(jstr, 0, jstr.length() - 1);
-                        break;
-                    } else {
-                        mergeStr.append(jstr).append(";");
-                    }
+    private <T> T convertArrToVo(RowBinder<T> rowBinder, String[] fields, ParseParam parseParam) {
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        long start = ParseMetrics.start(parseMetrics);
+        T t = null;
+        try {
+            t = rowBinder.newInstance();
+            CellFormat cellFormat = parseParam.getCellFormat();
+            for (int i = 0, size = rowBinder.size(); i < size; i++) {
+                int column = rowBinder.getColumn(i);
+                String cellValue = column < fields.length ? fields[column] : null;
+                if (cellFormat != null) {
+                    cellValue = cellFormat.format(rowBinder.getColumnName(i), cellValue);
                 }
-                resultList.add(mergeStr.toString());
-            } else {
-                resultList.add(istr);
+                rowBinder.bind(t, i, cellValue);
+            }
+            if (parseParam.getBusinessDefineParse() != null) {
+                parseParam.getBusinessDefineParse().defineParse(t, fields, parseParam);
             }
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new FileParseException("create bean instance error", e);
         }
-        String[] rightArr = new String[resultList.size()];
-        resultList.toArray(rightArr);
-        return rightArr;
+        ParseMetrics.countRow(parseMetrics, Stage.CONVERT, start);
+        return t;
+    }
+
+    private static class CsvChunk<T> {
+        private final List<T> resultList = new ArrayList<>();
     }
 
     @Override
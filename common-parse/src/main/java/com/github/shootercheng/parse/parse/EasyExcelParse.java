@@ -2,11 +2,16 @@ package com.github.shootercheng.parse.parse;
 
 import com.alibaba.excel.EasyExcel;
 import com.alibaba.excel.ExcelReader;
+import com.alibaba.excel.exception.ExcelAnalysisException;
 import com.alibaba.excel.read.metadata.ReadSheet;
 import com.github.shootercheng.parse.exception.FileParseException;
 import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.event.ModelIteratorListener;
 import com.github.shootercheng.parse.parse.event.ModelManySheetParserListener;
 import com.github.shootercheng.parse.parse.event.ModelParserListener;
+import com.github.shootercheng.parse.parse.iterator.CloseableIterator;
+import com.github.shootercheng.parse.parse.iterator.QueueParseIterator;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,17 +42,51 @@ public class EasyExcelParse implements FileParse {
     @Override
     public <T> List<T> parseFile(String filePath, Class<T> clazz, ParseParam parseParam) {
         List<T> resultList = new ArrayList<>();
+        FileParseCommonUtil.beginMetrics(parseParam);
         ModelParserListener modelParserListener = new ModelParserListener(parseParam, resultList, clazz);
-        EasyExcel.read(filePath, modelParserListener).useDefaultListener(false)
-                .sheet(parseParam.getSheetNum()).headRowNumber(0).doRead();
+        try {
+            EasyExcel.read(filePath, modelParserListener).useDefaultListener(false)
+                    .sheet(parseParam.getSheetNum()).headRowNumber(0).doRead();
+        } catch (ExcelAnalysisException e) {
+            // 监听器抛出的异常被 easy excel 包装
+            if (e.getCause() instanceof FileParseException) {
+                throw (FileParseException) e.getCause();
+            }
+            throw e;
+        } finally {
+            modelParserListener.abort();
+            FileParseCommonUtil.endMetrics(parseParam, filePath);
+        }
         return resultList;
     }
 
+    @Override
+    public <T> CloseableIterator<T> parseIterator(String filePath, Class<T> clazz, ParseParam parseParam) {
+        checkParam(parseParam);
+        // easy excel 主动推送数据, 在单独的线程中读取, 队列满时阻塞读取线程
+        QueueParseIterator<T> iterator = new QueueParseIterator<>(parseParam.getBatchNum());
+        ModelIteratorListener<T> listener = new ModelIteratorListener<>(parseParam, iterator, clazz);
+        iterator.start(() -> {
+            Throwable error = null;
+            try {
+                EasyExcel.read(filePath, listener).useDefaultListener(false)
+                        .sheet(parseParam.getSheetNum()).headRowNumber(0).doRead();
+            } catch (Throwable e) {
+                LOGGER.error("read excel error {}", e.getMessage());
+                error = e;
+            } finally {
+                iterator.finish(error);
+            }
+        }, "easy-excel-iterator");
+        return iterator;
+    }
+
     @Override
     public <T> Map<Integer, List<T>> parseFileSheets(String filePath, Class<T> clazz, Map<Integer, ParseParam> parseParamMap) {
         Map<Integer, List<T>> resultMap = new HashMap<>(16);
         ModelManySheetParserListener modelParserListener = new ModelManySheetParserListener(parseParamMap, resultMap, clazz);
         ExcelReader excelReader = null;
+        FileParseCommonUtil.beginMetrics(parseParamMap);
         try {
             excelReader = EasyExcel.read(filePath).build();
             Set<Integer> sheetSet = parseParamMap.keySet();
@@ -64,6 +103,8 @@ public class EasyExcelParse implements FileParse {
             if (excelReader != null) {
                 excelReader.finish();
             }
+            modelParserListener.abort();
+            FileParseCommonUtil.endMetrics(parseParamMap, filePath);
         }
         return resultMap;
     }
@@ -1,10 +1,18 @@
 package com.github.shootercheng.parse.parse;
 
-import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
 import com.github.shootercheng.common.util.ExcelUtil;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.bind.RowBinder;
 import com.github.shootercheng.parse.constant.MapperType;
 import com.github.shootercheng.parse.exception.FileParseException;
 import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.consumer.BatchBuffer;
+import com.github.shootercheng.parse.parse.define.CellFormat;
+import com.github.shootercheng.parse.parse.iterator.AbstractParseIterator;
+import com.github.shootercheng.parse.parse.iterator.CloseableIterator;
 import com.github.shootercheng.parse.utils.FileParseCommonUtil;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -13,9 +21,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,12 +49,16 @@ public class ExcelFileParse implements FileParse {
     @Override
     public <T> List<T> parseFile(String filePath, Class<T> clazz, ParseParam parseParam) {
         checkParam(parseParam);
+        FileParseCommonUtil.beginMetrics(parseParam);
         Workbook workbook = null;
         List<T> resultList = new ArrayList<>();
         try {
-            workbook = ExcelUtil.getWorkBook(filePath);
+            // 整个 workbook 读入内存, 加载时间计为读取时间
+            long start = ParseMetrics.start(parseParam.getParseMetrics());
+            workbook = openWorkbook(filePath);
+            ParseMetrics.stop(parseParam.getParseMetrics(), Stage.READ, start);
             Sheet sheet = workbook.getSheetAt(parseParam.getSheetNum());
-            addSheetResultList(sheet, clazz, parseParam, resultList);
+            addSheetResultList(sheet, parseParam.getSheetNum(), clazz, parseParam, resultList);
         } catch (Exception e) {
             LOGGER.error("parse excel error {}", e.getMessage());
             throw new FileParseException("parse excel error " + filePath, e);
@@ -58,32 +70,117 @@ public class ExcelFileParse implements FileParse {
                     e.printStackTrace();
                 }
             }
+            FileParseCommonUtil.endMetrics(parseParam, filePath);
         }
         return resultList;
     }
 
-    private <T> void addSheetResultList(Sheet sheet, Class<T> clazz, ParseParam parseParam, List<T> resultList) {
+    private <T> void addSheetResultList(Sheet sheet, int sheetNum, Class<T> clazz, ParseParam parseParam,
+                                        List<T> resultList) {
         int headLine = parseParam.getHeadLine();
         int startLine = parseParam.getStartLine();
         int i = 0;
-        for (Row row : sheet) {
-            if ( parseParam.getMapperType() == MapperType.HEAD && i == headLine ) {
-                Map<Integer, String> headMap = getHeadMap(row);
-                FileParseCommonUtil.buildParseParam(clazz, parseParam, headMap);
-            } else if (i >= startLine) {
-                T t = convertRowToVo(clazz, row, parseParam);
-                if (t != null) {
-                    resultList.add(t);
-                } else {
-                    parseParam.getErrorRecord()
-                            .writeErrorMsg("line " + i + ":" + row +
-                                    "covert to vo null");
+        ParsePlan<T> parsePlan = ParsePlan.of(clazz, parseParam);
+        RowBinder<T> rowBinder = null;
+        BatchBuffer<T> batchBuffer = parseParam.getDataConsumer() != null ? new BatchBuffer<>(parseParam, sheetNum) : null;
+        try {
+            for (Row row : sheet) {
+                if ( parsePlan.getMapperType() == MapperType.HEAD && i == headLine ) {
+                    rowBinder = FileParseCommonUtil.resolveHead(parsePlan, getHeadMap(row), parseParam);
+                } else if (i >= startLine && acceptRow(row, parseParam)) {
+                    if (rowBinder == null) {
+                        rowBinder = parsePlan.getBinder();
+                    }
+                    T t = convertRowToVo(rowBinder, row, parseParam);
+                    if (batchBuffer != null) {
+                        batchBuffer.add(t);
+                    } else {
+                        resultList.add(t);
+                    }
+                }
+                i++;
+            }
+            if (batchBuffer != null) {
+                batchBuffer.flush();
+            }
+        } finally {
+            if (batchBuffer != null) {
+                batchBuffer.abort();
+            }
+        }
+    }
+
+    @Override
+    public <T> CloseableIterator<T> parseIterator(String filePath, Class<T> clazz, ParseParam parseParam) {
+        checkParam(parseParam);
+        Workbook workbook = null;
+        try {
+            workbook = openWorkbook(filePath);
+            Sheet sheet = workbook.getSheetAt(parseParam.getSheetNum());
+            return new ExcelParseIterator<>(workbook, sheet.iterator(), clazz, parseParam);
+        } catch (Exception e) {
+            if (workbook != null) {
+                try {
+                    workbook.close();
+                } catch (IOException ioException) {
+                    ioException.printStackTrace();
                 }
             }
-            i++;
+            LOGGER.error("parse excel error {}", e.getMessage());
+            throw new FileParseException("parse excel error " + filePath, e);
         }
     }
 
+    private class ExcelParseIterator<T> extends AbstractParseIterator<T> {
+        private final Workbook workbook;
+
+        private final Iterator<Row> rowIterator;
+
+        private final ParseParam parseParam;
+
+        private final ParsePlan<T> parsePlan;
+
+        private int readLine;
+
+        private RowBinder<T> rowBinder;
+
+        private ExcelParseIterator(Workbook workbook, Iterator<Row> rowIterator, Class<T> clazz, ParseParam parseParam) {
+            this.workbook = workbook;
+            this.rowIterator = rowIterator;
+            this.parseParam = parseParam;
+            this.parsePlan = ParsePlan.of(clazz, parseParam);
+        }
+
+        @Override
+        protected T fetchNext() {
+            while (rowIterator.hasNext()) {
+                Row row = rowIterator.next();
+                int currentLine = readLine++;
+                if (parsePlan.getMapperType() == MapperType.HEAD && currentLine == parseParam.getHeadLine()) {
+                    rowBinder = FileParseCommonUtil.resolveHead(parsePlan, getHeadMap(row), parseParam);
+                } else if (currentLine >= parseParam.getStartLine() && acceptRow(row, parseParam)) {
+                    if (rowBinder == null) {
+                        rowBinder = parsePlan.getBinder();
+                    }
+                    return convertRowToVo(rowBinder, row, parseParam);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected void doClose() throws IOException {
+            workbook.close();
+        }
+    }
+
+    private Workbook openWorkbook(String filePath) throws IOException {
+        Object event = JfrEvents.beginFileOpen();
+        Workbook workbook = ExcelUtil.getWorkBook(filePath);
+        JfrEvents.commitFileOpen(event, filePath);
+        return workbook;
+    }
+
     private Map<Integer, String> getHeadMap(Row row) {
         Map<Integer, String> headMap = new HashMap<>();
         row.forEach(cell -> {
@@ -97,17 +194,18 @@ public class ExcelFileParse implements FileParse {
     @Override
     public <T> Map<Integer, List<T>> parseFileSheets(String filePath, Class<T> clazz, Map<Integer, ParseParam> parseParamMap) {
         // 解析多个 sheet 页
+        FileParseCommonUtil.beginMetrics(parseParamMap);
         Workbook workbook = null;
         Map<Integer, List<T>> resultMap = new HashMap<>(16);
         try {
-            workbook = ExcelUtil.getWorkBook(filePath);
+            workbook = openWorkbook(filePath);
             Set<Map.Entry<Integer, ParseParam>> entrySet = parseParamMap.entrySet();
             for (Map.Entry<Integer, ParseParam> entry : entrySet) {
                 Integer sheetNum = entry.getKey();
                 ParseParam parseParam = entry.getValue();
                 List<T> sheetResultList = new ArrayList<>();
                 Sheet sheet = workbook.getSheetAt(sheetNum);
-                addSheetResultList(sheet, clazz, parseParam, sheetResultList);
+                addSheetResultList(sheet, sheetNum, clazz, parseParam, sheetResultList);
                 resultMap.put(sheetNum, sheetResultList);
             }
         } catch (Exception e) {
@@ -121,31 +219,38 @@ public class ExcelFileParse implements FileParse {
                     e.printStackTrace();
                 }
             }
+            FileParseCommonUtil.endMetrics(parseParamMap, filePath);
         }
         return resultMap;
     }
 
-    private  <T> T convertRowToVo(Class<T> clazz, Row row, ParseParam parseParam) {
+    private static boolean acceptRow(Row row, ParseParam parseParam) {
+        // 没有单元格时 lastCellNum 为 -1
+        return FileParseCommonUtil.acceptRow(column -> ExcelUtil.getCellValue(row, column),
+                Math.max(row.getLastCellNum(), 0), parseParam);
+    }
+
+    private  <T> T convertRowToVo(RowBinder<T> rowBinder, Row row, ParseParam parseParam) {
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        long start = ParseMetrics.start(parseMetrics);
         T t = null;
         try {
-            t = clazz.newInstance();
-            Map<String, Method> fieldSetterMap = parseParam.getFieldSetterMap();
-            for (Map.Entry<String, Method> entry : fieldSetterMap.entrySet()) {
-                Integer column = DataUtil.EXCEL_COLUMN.get(entry.getKey());
-                String cellValue = ExcelUtil.getCellValue(row, column);
-                if (parseParam.getCellFormat() != null) {
-                    cellValue = parseParam.getCellFormat().format(entry.getKey(), cellValue);
+            t = rowBinder.newInstance();
+            CellFormat cellFormat = parseParam.getCellFormat();
+            for (int i = 0, size = rowBinder.size(); i < size; i++) {
+                String cellValue = ExcelUtil.getCellValue(row, rowBinder.getColumn(i));
+                if (cellFormat != null) {
+                    cellValue = cellFormat.format(rowBinder.getColumnName(i), cellValue);
                 }
-                FileParseCommonUtil.invokeValue(t, entry.getValue(), cellValue);
+                rowBinder.bind(t, i, cellValue);
             }
             if (parseParam.getBusinessDefineParse() != null) {
                 parseParam.getBusinessDefineParse().defineParse(t, row, parseParam);
             }
-        } catch (InstantiationException e) {
-            e.printStackTrace();
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new FileParseException("create bean instance error", e);
         }
+        ParseMetrics.countRow(parseMetrics, Stage.CONVERT, start);
         return t;
     }
 }
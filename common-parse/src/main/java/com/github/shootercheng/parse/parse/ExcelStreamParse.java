@@ -0,0 +1,305 @@
+package com.github.shootercheng.parse.parse;
+
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.ReadTimer;
+import com.github.shootercheng.common.metrics.Stage;
+import com.github.shootercheng.common.util.ExcelUtil;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.bind.RowBinder;
+import com.github.shootercheng.parse.constant.MapperType;
+import com.github.shootercheng.parse.exception.FileParseException;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.consumer.BatchBuffer;
+import com.github.shootercheng.parse.parse.define.CellFormat;
+import com.github.shootercheng.parse.parse.iterator.CloseableIterator;
+import com.github.shootercheng.parse.parse.iterator.QueueParseIterator;
+import com.github.shootercheng.parse.parse.pipeline.ParsePipeline;
+import com.github.shootercheng.parse.parse.stream.RowHandler;
+import com.github.shootercheng.parse.parse.stream.SheetStreamReader;
+import com.github.shootercheng.parse.parse.stream.XlsStreamReader;
+import com.github.shootercheng.parse.parse.stream.XlsxStreamReader;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * parse excel by streaming sheet readers, the workbook is never loaded into memory.
+ * xlsx is read by sax, xls by the HSSF event model
+ * {@link com.github.shootercheng.parse.parse.define.RowDefineParse} receives the cell values as String[]
+ * @author James
+ */
+public class ExcelStreamParse implements FileParse {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExcelStreamParse.class);
+
+    private ExcelStreamParse() {
+    }
+
+    private static class ExcelStreamParseHolder {
+        private static final ExcelStreamParse parser = new ExcelStreamParse();
+    }
+
+    public static ExcelStreamParse instance() {
+        return ExcelStreamParseHolder.parser;
+    }
+
+    private static boolean isSupported(String filePath) {
+        return filePath.endsWith(ExcelUtil.EXCEL_XLSX) || filePath.endsWith(ExcelUtil.EXCEL_XLS);
+    }
+
+    private SheetStreamReader createReader(String filePath) throws IOException {
+        Object event = JfrEvents.beginFileOpen();
+        SheetStreamReader sheetReader;
+        if (filePath.endsWith(ExcelUtil.EXCEL_XLS)) {
+            sheetReader = new XlsStreamReader(filePath);
+        } else {
+            sheetReader = new XlsxStreamReader(filePath);
+        }
+        JfrEvents.commitFileOpen(event, filePath);
+        return sheetReader;
+    }
+
+    @Override
+    public <T> List<T> parseFile(String filePath, Class<T> clazz, ParseParam parseParam) {
+        if (!isSupported(filePath)) {
+            return ExcelFileParse.instance().parseFile(filePath, clazz, parseParam);
+        }
+        checkParam(parseParam);
+        FileParseCommonUtil.beginMetrics(parseParam);
+        List<T> resultList = new ArrayList<>();
+        SheetRowHandler<T> rowHandler = new SheetRowHandler<>(clazz, parseParam, parseParam.getSheetNum(), resultList);
+        try (SheetStreamReader sheetReader = createReader(filePath)) {
+            sheetReader.readSheet(parseParam.getSheetNum(), rowHandler);
+            rowHandler.consumeLeftList();
+        } catch (Exception e) {
+            LOGGER.error("parse excel error {}", e.getMessage());
+            throw new FileParseException("parse excel error " + filePath, e);
+        } finally {
+            rowHandler.close();
+            FileParseCommonUtil.endMetrics(parseParam, filePath);
+        }
+        return resultList;
+    }
+
+    @Override
+    public <T> Map<Integer, List<T>> parseFileSheets(String filePath, Class<T> clazz, Map<Integer, ParseParam> parseParamMap) {
+        if (!isSupported(filePath)) {
+            return ExcelFileParse.instance().parseFileSheets(filePath, clazz, parseParamMap);
+        }
+        FileParseCommonUtil.beginMetrics(parseParamMap);
+        Map<Integer, List<T>> resultMap = new HashMap<>(16);
+        try (SheetStreamReader sheetReader = createReader(filePath)) {
+            Set<Map.Entry<Integer, ParseParam>> entrySet = parseParamMap.entrySet();
+            for (Map.Entry<Integer, ParseParam> entry : entrySet) {
+                Integer sheetNum = entry.getKey();
+                ParseParam parseParam = entry.getValue();
+                List<T> sheetResultList = new ArrayList<>();
+                SheetRowHandler<T> rowHandler = new SheetRowHandler<>(clazz, parseParam, sheetNum, sheetResultList);
+                try {
+                    sheetReader.readSheet(sheetNum, rowHandler);
+                    rowHandler.consumeLeftList();
+                } finally {
+                    rowHandler.close();
+                }
+                resultMap.put(sheetNum, sheetResultList);
+            }
+        } catch (Exception e) {
+            LOGGER.error("parse excel error {}", e.getMessage());
+            throw new FileParseException("parse excel error " + filePath, e);
+        } finally {
+            FileParseCommonUtil.endMetrics(parseParamMap, filePath);
+        }
+        return resultMap;
+    }
+
+    @Override
+    public <T> CloseableIterator<T> parseIterator(String filePath, Class<T> clazz, ParseParam parseParam) {
+        if (!isSupported(filePath)) {
+            return ExcelFileParse.instance().parseIterator(filePath, clazz, parseParam);
+        }
+        checkParam(parseParam);
+        // sax/事件模型 主动推送数据, 在单独的线程中读取, 队列满时阻塞读取线程
+        QueueParseIterator<T> iterator = new QueueParseIterator<>(parseParam.getBatchNum());
+        SheetRowHandler<T> rowHandler = new SheetRowHandler<>(clazz, parseParam, parseParam.getSheetNum(), iterator);
+        iterator.start(() -> {
+            Throwable error = null;
+            try (SheetStreamReader sheetReader = createReader(filePath)) {
+                sheetReader.readSheet(parseParam.getSheetNum(), rowHandler);
+            } catch (Throwable e) {
+                LOGGER.error("parse excel error {}", e.getMessage());
+                error = e;
+            } finally {
+                iterator.finish(error);
+            }
+        }, "excel-stream-iterator");
+        return iterator;
+    }
+
+    private static class SheetRowHandler<T> implements RowHandler {
+        private final ParsePlan<T> parsePlan;
+
+        private final ParseParam parseParam;
+
+        private final int sheetNum;
+
+        private final List<T> resultList;
+
+        private final QueueParseIterator<T> iterator;
+
+        private final BatchBuffer<T> batchBuffer;
+
+        private final ReadTimer readTimer;
+
+        private RowBinder<T> rowBinder;
+
+        private BitSet projection;
+
+        private ParsePipeline<T> pipeline;
+
+        private SheetRowHandler(Class<T> clazz, ParseParam parseParam, int sheetNum, List<T> resultList) {
+            this.parsePlan = ParsePlan.of(clazz, parseParam);
+            this.parseParam = parseParam;
+            this.sheetNum = sheetNum;
+            this.resultList = resultList;
+            this.iterator = null;
+            this.batchBuffer = parseParam.getDataConsumer() != null ? new BatchBuffer<>(parseParam, sheetNum) : null;
+            this.readTimer = new ReadTimer(parseParam.getParseMetrics());
+            if (parsePlan.getMapperType() == MapperType.COLUMN) {
+                setRowBinder(parsePlan.getBinder());
+            }
+        }
+
+        private SheetRowHandler(Class<T> clazz, ParseParam parseParam, int sheetNum, QueueParseIterator<T> iterator) {
+            this.parsePlan = ParsePlan.of(clazz, parseParam);
+            this.parseParam = parseParam;
+            this.sheetNum = sheetNum;
+            this.resultList = null;
+            this.iterator = iterator;
+            this.batchBuffer = null;
+            this.readTimer = new ReadTimer(parseParam.getParseMetrics());
+            if (parsePlan.getMapperType() == MapperType.COLUMN) {
+                setRowBinder(parsePlan.getBinder());
+            }
+        }
+
+        @Override
+        public boolean handleRow(int rowIndex, String[] values, int length) {
+            // 两次回调之间的时间是读取时间
+            readTimer.read();
+            try {
+                return handle(rowIndex, values, length);
+            } finally {
+                readTimer.handled();
+            }
+        }
+
+        private boolean handle(int rowIndex, String[] values, int length) {
+            if (parsePlan.getMapperType() == MapperType.HEAD && rowIndex == parseParam.getHeadLine()) {
+                Map<Integer, String> headMap = new HashMap<>();
+                for (int i = 0; i < length; i++) {
+                    if (values[i] != null) {
+                        headMap.put(i, values[i]);
+                    }
+                }
+                setRowBinder(FileParseCommonUtil.resolveHead(parsePlan, headMap, parseParam));
+            } else if (rowIndex >= parseParam.getStartLine() && !acceptRow(values, length)) {
+                return true;
+            } else if (rowIndex >= parseParam.getStartLine() && iterator == null && parseParam.getPipelineThreads() > 0) {
+                if (pipeline == null) {
+                    if (rowBinder == null) {
+                        setRowBinder(parsePlan.getBinder());
+                    }
+                    pipeline = new ParsePipeline<>(parseParam, sheetNum, row -> convertRowToVo(row, row.length));
+                }
+                // values 会被复用
+                pipeline.submit(Arrays.copyOf(values, length));
+            } else if (rowIndex >= parseParam.getStartLine()) {
+                if (rowBinder == null) {
+                    setRowBinder(parsePlan.getBinder());
+                }
+                T t = convertRowToVo(values, length);
+                if (iterator != null) {
+                    try {
+                        return iterator.offer(t);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                if (batchBuffer != null) {
+                    batchBuffer.add(t);
+                } else {
+                    resultList.add(t);
+                }
+            }
+            return true;
+        }
+
+        private void setRowBinder(RowBinder<T> rowBinder) {
+            this.rowBinder = rowBinder;
+            // 只读取绑定以及过滤的列, 自定义解析需要整行数据
+            projection = FileParseCommonUtil.getProjection(rowBinder, parseParam);
+        }
+
+        private boolean acceptRow(String[] values, int length) {
+            return FileParseCommonUtil.acceptRow(column -> values[column], length, parseParam);
+        }
+
+        @Override
+        public BitSet getProjection() {
+            return projection;
+        }
+
+        private T convertRowToVo(String[] values, int length) {
+            ParseMetrics parseMetrics = parseParam.getParseMetrics();
+            long start = ParseMetrics.start(parseMetrics);
+            T t = null;
+            try {
+                t = rowBinder.newInstance();
+                CellFormat cellFormat = parseParam.getCellFormat();
+                for (int i = 0, size = rowBinder.size(); i < size; i++) {
+                    int column = rowBinder.getColumn(i);
+                    String cellValue = column < length ? values[column] : null;
+                    if (cellFormat != null) {
+                        cellValue = cellFormat.format(rowBinder.getColumnName(i), cellValue);
+                    }
+                    rowBinder.bind(t, i, cellValue);
+                }
+                if (parseParam.getBusinessDefineParse() != null) {
+                    parseParam.getBusinessDefineParse().defineParse(t, Arrays.copyOf(values, length), parseParam);
+                }
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new FileParseException("create bean instance error", e);
+            }
+            ParseMetrics.countRow(parseMetrics, Stage.CONVERT, start);
+            return t;
+        }
+
+        private void consumeLeftList() {
+            if (pipeline != null) {
+                resultList.addAll(pipeline.finish());
+            }
+            if (batchBuffer != null) {
+                batchBuffer.flush();
+            }
+        }
+
+        private void close() {
+            if (batchBuffer != null) {
+                batchBuffer.abort();
+            }
+            if (pipeline != null) {
+                pipeline.close();
+            }
+        }
+    }
+}
@@ -3,9 +3,14 @@ package com.github.shootercheng.parse.parse;
 
 import com.github.shootercheng.parse.constant.MapperType;
 import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.iterator.CloseableIterator;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author chengdu
@@ -15,6 +20,9 @@ public interface FileParse {
     <T> List<T> parseFile(String filePath, Class<T> clazz, ParseParam parseParam);
 
     default void checkParam(ParseParam parseParam) {
+        if (parseParam.getParsePlan() != null) {
+            return;
+        }
         MapperType mapperType = parseParam.getMapperType();
         boolean fieldHeadMap = parseParam.getFieldHeadMap() != null &&
                 parseParam.getFieldHeadMap().size() > 0;
@@ -36,4 +44,30 @@ public interface FileParse {
      * @return many sheet result
      */
     <T> Map<Integer, List<T>> parseFileSheets(String filePath, Class<T> clazz, Map<Integer, ParseParam> parseParamMap);
+
+    /**
+     * parse file lazily, rows are read and converted when the iterator is pulled.
+     * data consumer is not used, close the iterator if it is not read to the end
+     * @param filePath file path
+     * @param clazz clazz
+     * @param parseParam parse param
+     * @param <T> T
+     * @return closeable iterator
+     */
+    <T> CloseableIterator<T> parseIterator(String filePath, Class<T> clazz, ParseParam parseParam);
+
+    /**
+     * parse file lazily as a sequential stream, close the stream to release the file
+     * @param filePath file path
+     * @param clazz clazz
+     * @param parseParam parse param
+     * @param <T> T
+     * @return stream
+     */
+    default <T> Stream<T> parseStream(String filePath, Class<T> clazz, ParseParam parseParam) {
+        CloseableIterator<T> iterator = parseIterator(filePath, clazz, parseParam);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
 }
@@ -12,6 +12,7 @@ public class FileParseCreateor {
         private static final FileParse CSV_FILE_PARSER = CsvFileParse.instance();
         private static final FileParse EXCEL_FILE_PARSER = ExcelFileParse.instance();
         private static final FileParse EASY_EXCEL_PARSER = EasyExcelParse.instance();
+        private static final FileParse EXCEL_STREAM_PARSER = ExcelStreamParse.instance();
     }
 
     public static FileParse createFileParse(ParseType parseType) {
@@ -22,6 +23,8 @@ public class FileParseCreateor {
                 return FileParseHolder.EXCEL_FILE_PARSER;
             case EASYEXCEL:
                 return FileParseHolder.EASY_EXCEL_PARSER;
+            case EXCEL_STREAM:
+                return FileParseHolder.EXCEL_STREAM_PARSER;
             default:
                 throw new IllegalArgumentException("input file type error");
         }
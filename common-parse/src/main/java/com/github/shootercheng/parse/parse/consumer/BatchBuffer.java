@@ -0,0 +1,79 @@
+package com.github.shootercheng.parse.parse.consumer;
+
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.parse.param.ParseParam;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * collect converted rows into batches of batchNum rows for the {@link DataConsumer}.
+ * a batch is a new list or a list of the batch pool, it belongs to the consumer after accept
+ * and is never changed by the parser again
+ * @author James
+ */
+public class BatchBuffer<T> {
+    private final DataConsumer<T> dataConsumer;
+
+    private final BatchPool<T> batchPool;
+
+    private final int batchNum;
+
+    private final Integer sheet;
+
+    private final ParseMetrics parseMetrics;
+
+    private List<T> batch;
+
+    @SuppressWarnings("unchecked")
+    public BatchBuffer(ParseParam parseParam, int sheet) {
+        this.dataConsumer = parseParam.getDataConsumer();
+        this.batchPool = (BatchPool<T>) parseParam.getBatchPool();
+        this.batchNum = Math.max(parseParam.getBatchNum(), 1);
+        this.sheet = sheet;
+        this.parseMetrics = parseParam.getParseMetrics();
+    }
+
+    public void add(T t) {
+        if (batch == null) {
+            // 需要时才取, 不占用池中的 batch
+            batch = batchPool != null ? batchPool.acquire() : new ArrayList<>(batchNum);
+        }
+        batch.add(t);
+        if (batch.size() >= batchNum) {
+            flush();
+        }
+    }
+
+    /**
+     * pass the rows left to the consumer
+     */
+    public void flush() {
+        if (batch == null) {
+            return;
+        }
+        List<T> full = batch;
+        batch = null;
+        // 消费者可能修改或归还 batch, 先取行数
+        int rows = full.size();
+        long start = ParseMetrics.start(parseMetrics);
+        Object event = JfrEvents.beginConsumerBatch();
+        dataConsumer.accept(full, sheet);
+        JfrEvents.commitConsumerBatch(event, sheet, rows);
+        if (parseMetrics != null) {
+            parseMetrics.addBatch(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * the parse failed, the batch not passed to the consumer goes back to the pool.
+     * called in finally, nothing is done after flush
+     */
+    public void abort() {
+        if (batch != null && batchPool != null) {
+            batchPool.release(batch);
+        }
+        batch = null;
+    }
+}
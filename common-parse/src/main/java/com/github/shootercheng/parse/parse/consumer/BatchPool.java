@@ -0,0 +1,83 @@
+package com.github.shootercheng.parse.parse.consumer;
+
+import com.github.shootercheng.parse.exception.FileParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * recycle the batch lists passed to the {@link DataConsumer}.
+ * at most capacity batches are out of the pool, the batch being filled by the parser included,
+ * the parser waits until the consumer releases a batch, heap is bounded by capacity * batchNum rows.
+ * release every batch exactly once, a batch not passed to the consumer is released by the parser
+ * when the parse fails. acquire fails if no batch is released in the acquire timeout
+ * @author James
+ */
+public class BatchPool<T> {
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final int batchNum;
+
+    private final long acquireTimeoutMillis;
+
+    private final Semaphore permits;
+
+    private final Queue<List<T>> freeBatches = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param batchNum initial capacity of a batch list
+     * @param capacity max batches out of the pool
+     */
+    public BatchPool(int batchNum, int capacity) {
+        this(batchNum, capacity, DEFAULT_ACQUIRE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param batchNum initial capacity of a batch list
+     * @param capacity max batches out of the pool
+     * @param acquireTimeoutMillis max time to wait for a released batch
+     */
+    public BatchPool(int batchNum, int capacity, long acquireTimeoutMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("batch pool capacity must be positive");
+        }
+        if (acquireTimeoutMillis < 0) {
+            throw new IllegalArgumentException("batch pool acquire timeout must not be negative");
+        }
+        this.batchNum = batchNum;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(capacity);
+    }
+
+    /**
+     * @return an empty batch, blocked if capacity batches are not released
+     * @throws FileParseException if no batch is released in the acquire timeout
+     */
+    public List<T> acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new FileParseException("no batch released in " + acquireTimeoutMillis +
+                        "ms, please release every batch after use");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileParseException("interrupted while waiting for a released batch", e);
+        }
+        List<T> batch = freeBatches.poll();
+        return batch != null ? batch : new ArrayList<>(batchNum);
+    }
+
+    /**
+     * called by the consumer when the batch is no longer used, may be called by any thread
+     * @param batch batch from {@link #acquire()}
+     */
+    public void release(List<T> batch) {
+        batch.clear();
+        freeBatches.offer(batch);
+        permits.release();
+    }
+}
@@ -7,7 +7,8 @@ import java.util.List;
  */
 public interface DataConsumer<T> {
     /**
-     * 消费数据
+     * 消费数据, resultList 交给消费者, 解析不会再修改.
+     * 如果设置了 {@link BatchPool}, 使用完后调用 release 归还
      * @param resultList result list
      * @param sheet sheet
      */
@@ -0,0 +1,117 @@
+package com.github.shootercheng.parse.parse.csv;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * split a csv file into chunks at record boundaries.
+ * a line feed ends a record only if the count of quotes before it is even,
+ * blocks count their quotes in parallel, then the quote parity at every block
+ * start is known and the first record boundary in each block can be found.
+ * the csv must be quoted as rfc 4180, a quote inside an unquoted field moves the boundary
+ * @author James
+ */
+public class CsvChunkSplitter {
+    private static final byte QUOTE = '"';
+
+    private static final byte LF = '\n';
+
+    private CsvChunkSplitter() {
+    }
+
+    /**
+     * @param filePath file path
+     * @param startPosition start of the first chunk, must be the start of a record
+     * @param chunkSize expected chunk size
+     * @param pool pool to scan blocks
+     * @return chunk positions, chunk i is [positions[i], positions[i + 1])
+     * @throws IOException io error
+     */
+    public static long[] split(String filePath, long startPosition, long chunkSize, ForkJoinPool pool) throws IOException {
+        long fileSize;
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            fileSize = file.length();
+        }
+        if (startPosition >= fileSize) {
+            return new long[]{startPosition, startPosition};
+        }
+        List<ForkJoinTask<BlockInfo>> tasks = new ArrayList<>();
+        for (long blockStart = startPosition; blockStart < fileSize; blockStart += chunkSize) {
+            long start = blockStart;
+            long end = Math.min(blockStart + chunkSize, fileSize);
+            tasks.add(pool.submit(() -> scanBlock(filePath, start, end)));
+        }
+        long[] positions = new long[tasks.size() + 1];
+        int count = 0;
+        positions[count++] = startPosition;
+        long quoteCount = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            BlockInfo blockInfo;
+            try {
+                blockInfo = tasks.get(i).join();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (i > 0) {
+                // block start is inside quotes when the quote count before it is odd
+                long lineFeed = (quoteCount & 1) == 0 ? blockInfo.evenLineFeed : blockInfo.oddLineFeed;
+                if (lineFeed >= 0 && lineFeed + 1 < fileSize) {
+                    positions[count++] = lineFeed + 1;
+                }
+            }
+            quoteCount += blockInfo.quoteCount;
+        }
+        positions[count++] = fileSize;
+        long[] result = new long[count];
+        System.arraycopy(positions, 0, result, 0, count);
+        return result;
+    }
+
+    private static BlockInfo scanBlock(String filePath, long start, long end) {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            BlockInfo blockInfo = new BlockInfo();
+            int limit = (int) (end - start);
+            long quoteCount = 0;
+            for (int i = 0; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == QUOTE) {
+                    quoteCount++;
+                } else if (b == LF) {
+                    if ((quoteCount & 1) == 0) {
+                        if (blockInfo.evenLineFeed < 0) {
+                            blockInfo.evenLineFeed = start + i;
+                        }
+                    } else if (blockInfo.oddLineFeed < 0) {
+                        blockInfo.oddLineFeed = start + i;
+                    }
+                }
+            }
+            blockInfo.quoteCount = quoteCount;
+            return blockInfo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class BlockInfo {
+        private long quoteCount;
+
+        /**
+         * first line feed after even quotes in this block
+         */
+        private long evenLineFeed = -1;
+
+        /**
+         * first line feed after odd quotes in this block
+         */
+        private long oddLineFeed = -1;
+    }
+}
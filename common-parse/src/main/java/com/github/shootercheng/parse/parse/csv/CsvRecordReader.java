@@ -0,0 +1,70 @@
+package com.github.shootercheng.parse.parse.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * read csv file record by record, field values of the current record
+ * are only valid until next record is read
+ * @author James
+ */
+public interface CsvRecordReader extends Closeable {
+    /**
+     * read next record
+     * @return false if end of input
+     * @throws IOException read error
+     */
+    boolean nextRecord() throws IOException;
+
+    /**
+     * @return field count of current record
+     */
+    int getFieldCount();
+
+    /**
+     * @param index field index, start from 0
+     * @return field value, null if the record has no such field
+     */
+    String getField(int index);
+
+    /**
+     * content of the fields of current record, field index is the range
+     * [{@link #getFieldStart(int)}, {@link #getFieldEnd(int)}), numbers are converted from it without strings
+     * @return field chars, null if the reader only creates strings
+     */
+    default CharSequence getFieldChars() {
+        return null;
+    }
+
+    /**
+     * @param index field index, start from 0, less than field count
+     * @return start of the field in {@link #getFieldChars()}
+     */
+    default int getFieldStart(int index) {
+        throw new UnsupportedOperationException("field chars not supported");
+    }
+
+    /**
+     * @param index field index, start from 0, less than field count
+     * @return end of the field in {@link #getFieldChars()}, exclusive
+     */
+    default int getFieldEnd(int index) {
+        throw new UnsupportedOperationException("field chars not supported");
+    }
+
+    /**
+     * @return all field values of current record
+     */
+    String[] getFields();
+
+    /**
+     * an empty line, which has one empty field
+     * @return is blank record
+     */
+    boolean isBlankRecord();
+
+    /**
+     * @return line number where the current record starts, start from 0
+     */
+    long getRecordLineNumber();
+}
@@ -0,0 +1,397 @@
+package com.github.shootercheng.parse.parse.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.BitSet;
+
+/**
+ * single pass rfc 4180 csv tokenizer.
+ * reads from the reader into a reusable char buffer and copies the content
+ * of every field of the current record into a second reusable buffer,
+ * strings are only created when a field value is requested.
+ * with a projection, the content of other fields is skipped and they are read as empty
+ * @author James
+ */
+public class CsvTokenizer implements CsvRecordReader {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final char QUOTE = '"';
+
+    private static final char CR = '\r';
+
+    private static final char LF = '\n';
+
+    private static final String[] EMPTY_FIELDS = {};
+
+    private final Reader reader;
+
+    private final char delimiter;
+
+    private final char secondDelimiter;
+
+    private final char[] readBuf;
+
+    private int readPos;
+
+    private int readLimit;
+
+    private boolean eof;
+
+    /**
+     * last record ended with '\r', skip the '\n' of a following CRLF
+     */
+    private boolean skipLf;
+
+    private char[] fieldBuf = new char[1024];
+
+    private int fieldLen;
+
+    private int[] fieldEnds = new int[64];
+
+    private int fieldCount;
+
+    private long lineNumber;
+
+    private long recordLineNumber;
+
+    private final FieldChars fieldChars = new FieldChars();
+
+    private BitSet projection;
+
+    private boolean skipField;
+
+    /**
+     * a skipped field of current record is not empty
+     */
+    private boolean skippedContent;
+
+    /**
+     * current record has a quoted field, "" is an empty value not a blank line
+     */
+    private boolean quoted;
+
+    public CsvTokenizer(Reader reader, char delimiter) {
+        this(reader, delimiter, delimiter);
+    }
+
+    /**
+     * @param reader reader
+     * @param delimiter delimiter
+     * @param secondDelimiter another char which also separates fields, e.g. ',' and '\t'
+     */
+    public CsvTokenizer(Reader reader, char delimiter, char secondDelimiter) {
+        if (reader == null) {
+            throw new IllegalArgumentException("input reader is null");
+        }
+        if (isSpecial(delimiter) || isSpecial(secondDelimiter)) {
+            throw new IllegalArgumentException("delimiter can not be quote or line break");
+        }
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.secondDelimiter = secondDelimiter;
+        this.readBuf = new char[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * @param projection indexes of the fields to read, null to read all fields
+     */
+    public void setProjection(BitSet projection) {
+        this.projection = projection;
+    }
+
+    private static boolean isSpecial(char c) {
+        return c == QUOTE || c == CR || c == LF;
+    }
+
+    /**
+     * read next record, quoted fields may contain delimiter, line break and escaped quote ""
+     * @return false if end of input
+     * @throws IOException read error
+     */
+    @Override
+    public boolean nextRecord() throws IOException {
+        fieldLen = 0;
+        fieldCount = 0;
+        skippedContent = false;
+        quoted = false;
+        skipField = projection != null && !projection.get(0);
+        if (readPos >= readLimit && !fill()) {
+            return false;
+        }
+        if (skipLf) {
+            skipLf = false;
+            if (readBuf[readPos] == LF) {
+                readPos++;
+                if (readPos >= readLimit && !fill()) {
+                    return false;
+                }
+            }
+        }
+        recordLineNumber = lineNumber;
+        lineNumber++;
+        while (true) {
+            // field start
+            if (readPos >= readLimit && !fill()) {
+                endField();
+                return true;
+            }
+            char c = readBuf[readPos];
+            if (c == QUOTE) {
+                readPos++;
+                quoted = true;
+                if (readQuoted()) {
+                    return true;
+                }
+            } else if (readUnquoted()) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return true if the record is finished
+     */
+    private boolean readUnquoted() throws IOException {
+        while (true) {
+            int start = readPos;
+            int limit = readLimit;
+            char[] buf = readBuf;
+            int i = start;
+            char c = 0;
+            while (i < limit) {
+                c = buf[i];
+                if (c == delimiter || c == secondDelimiter || c == LF || c == CR) {
+                    break;
+                }
+                i++;
+            }
+            append(buf, start, i - start);
+            readPos = i;
+            if (i < limit) {
+                readPos++;
+                endField();
+                if (c == delimiter || c == secondDelimiter) {
+                    return false;
+                }
+                endLine(c);
+                return true;
+            }
+            if (!fill()) {
+                endField();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * the opening quote has been consumed
+     * @return true if the record is finished
+     */
+    private boolean readQuoted() throws IOException {
+        while (true) {
+            // inside quotes
+            int start = readPos;
+            int limit = readLimit;
+            char[] buf = readBuf;
+            int i = start;
+            while (i < limit && buf[i] != QUOTE) {
+                if (buf[i] == LF) {
+                    lineNumber++;
+                }
+                i++;
+            }
+            append(buf, start, i - start);
+            readPos = i;
+            if (i >= limit) {
+                if (!fill()) {
+                    // unterminated quote, keep what has been read
+                    endField();
+                    return true;
+                }
+                continue;
+            }
+            // closing quote or first half of an escaped quote
+            readPos++;
+            if (readPos >= readLimit && !fill()) {
+                endField();
+                return true;
+            }
+            char c = readBuf[readPos];
+            if (c == QUOTE) {
+                append(QUOTE);
+                readPos++;
+            } else if (c == delimiter || c == secondDelimiter) {
+                readPos++;
+                endField();
+                return false;
+            } else if (c == LF || c == CR) {
+                readPos++;
+                endField();
+                endLine(c);
+                return true;
+            } else {
+                // "ab"c, be lenient and keep the rest of the field as plain text
+                return readUnquoted();
+            }
+        }
+    }
+
+    private void endLine(char c) {
+        if (c == CR) {
+            if (readPos < readLimit) {
+                if (readBuf[readPos] == LF) {
+                    readPos++;
+                }
+            } else {
+                skipLf = true;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int n;
+        do {
+            n = reader.read(readBuf, 0, readBuf.length);
+        } while (n == 0);
+        if (n < 0) {
+            eof = true;
+            readPos = 0;
+            readLimit = 0;
+            return false;
+        }
+        readPos = 0;
+        readLimit = n;
+        return true;
+    }
+
+    private void append(char[] src, int offset, int len) {
+        if (len <= 0) {
+            return;
+        }
+        if (skipField) {
+            skippedContent = true;
+            return;
+        }
+        ensureFieldCapacity(len);
+        System.arraycopy(src, offset, fieldBuf, fieldLen, len);
+        fieldLen += len;
+    }
+
+    private void append(char c) {
+        if (skipField) {
+            skippedContent = true;
+            return;
+        }
+        ensureFieldCapacity(1);
+        fieldBuf[fieldLen++] = c;
+    }
+
+    private void ensureFieldCapacity(int len) {
+        if (fieldLen + len > fieldBuf.length) {
+            char[] newBuf = new char[Math.max(fieldBuf.length << 1, fieldLen + len)];
+            System.arraycopy(fieldBuf, 0, newBuf, 0, fieldLen);
+            fieldBuf = newBuf;
+        }
+    }
+
+    private void endField() {
+        if (fieldCount == fieldEnds.length) {
+            int[] newEnds = new int[fieldEnds.length << 1];
+            System.arraycopy(fieldEnds, 0, newEnds, 0, fieldCount);
+            fieldEnds = newEnds;
+        }
+        fieldEnds[fieldCount++] = fieldLen;
+        skipField = projection != null && !projection.get(fieldCount);
+    }
+
+    @Override
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    @Override
+    public String getField(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return null;
+        }
+        int start = index == 0 ? 0 : fieldEnds[index - 1];
+        int end = fieldEnds[index];
+        return start == end ? "" : new String(fieldBuf, start, end - start);
+    }
+
+    @Override
+    public CharSequence getFieldChars() {
+        return fieldChars;
+    }
+
+    @Override
+    public int getFieldStart(int index) {
+        return index == 0 ? 0 : fieldEnds[index - 1];
+    }
+
+    @Override
+    public int getFieldEnd(int index) {
+        return fieldEnds[index];
+    }
+
+    @Override
+    public String[] getFields() {
+        if (fieldCount == 0) {
+            return EMPTY_FIELDS;
+        }
+        String[] fields = new String[fieldCount];
+        int start = 0;
+        for (int i = 0; i < fieldCount; i++) {
+            int end = fieldEnds[i];
+            fields[i] = start == end ? "" : new String(fieldBuf, start, end - start);
+            start = end;
+        }
+        return fields;
+    }
+
+    @Override
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && fieldLen == 0 && !skippedContent && !quoted;
+    }
+
+    @Override
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * view of the field buffer, no copy
+     */
+    private final class FieldChars implements CharSequence {
+        @Override
+        public int length() {
+            return fieldLen;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= fieldLen) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + fieldLen);
+            }
+            return fieldBuf[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(fieldBuf, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(fieldBuf, 0, fieldLen);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.github.shootercheng.parse.parse.csv;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * csv reader over a memory mapped file.
+ * delimiters, quotes and line breaks are found on the raw bytes, the file is
+ * never decoded as a whole, only the fields requested by {@link #getField(int)}
+ * are decoded with the file charset.
+ * only charsets which encode the delimiter, quote and line break as the same
+ * single ascii byte, and never use that byte inside a multi byte char,
+ * are supported, see {@link #isSupported(Charset, char...)}
+ * @author James
+ */
+public class MappedCsvReader implements CsvRecordReader {
+    static final int DEFAULT_WINDOW_SIZE = 128 * 1024 * 1024;
+
+    private static final byte QUOTE = '"';
+
+    private static final byte CR = '\r';
+
+    private static final byte LF = '\n';
+
+    private static final String[] EMPTY_FIELDS = {};
+
+    /**
+     * field contains "" which must be unescaped after decode
+     */
+    private static final byte FLAG_ESCAPED = 1;
+
+    /**
+     * field like "ab"c, the range includes the opening quote
+     */
+    private static final byte FLAG_MIXED = 2;
+
+    private final RandomAccessFile file;
+
+    private final FileChannel channel;
+
+    private final Charset charset;
+
+    private final byte delimiter;
+
+    private final byte secondDelimiter;
+
+    private final long endPosition;
+
+    private int windowSize;
+
+    private MappedByteBuffer buffer;
+
+    private ByteBuffer view;
+
+    /**
+     * file position of buffer index 0
+     */
+    private long regionStart;
+
+    private int regionLimit;
+
+    private boolean regionAtEnd;
+
+    private int pos;
+
+    private byte[] decodeBuf = new byte[256];
+
+    private int[] fieldStarts = new int[64];
+
+    private int[] fieldEnds = new int[64];
+
+    private byte[] fieldFlags = new byte[64];
+
+    private int fieldCount;
+
+    private long lineNumber;
+
+    private long recordLineNumber;
+
+    private int scanLines;
+
+    private boolean quoteUnclosed;
+
+    public MappedCsvReader(String filePath, Charset charset, char delimiter, char secondDelimiter) throws IOException {
+        this(filePath, charset, delimiter, secondDelimiter, 0, -1, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * read records in range [startPosition, endPosition) of the file
+     * @param filePath file path
+     * @param charset file charset
+     * @param delimiter delimiter
+     * @param secondDelimiter another char which also separates fields
+     * @param startPosition start position, must be the start of a record
+     * @param endPosition end position, must be the end of a record, -1 is the end of file
+     * @throws IOException io error
+     */
+    public MappedCsvReader(String filePath, Charset charset, char delimiter, char secondDelimiter,
+                           long startPosition, long endPosition) throws IOException {
+        this(filePath, charset, delimiter, secondDelimiter, startPosition, endPosition, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedCsvReader(String filePath, Charset charset, char delimiter, char secondDelimiter,
+                    long startPosition, long endPosition, int windowSize) throws IOException {
+        if (!isSupported(charset, delimiter, secondDelimiter)) {
+            throw new IllegalArgumentException("charset " + charset + " not support memory mapped read");
+        }
+        this.charset = charset;
+        this.delimiter = (byte) delimiter;
+        this.secondDelimiter = (byte) secondDelimiter;
+        this.windowSize = windowSize;
+        this.file = new RandomAccessFile(filePath, "r");
+        try {
+            this.channel = file.getChannel();
+            this.endPosition = endPosition < 0 ? channel.size() : endPosition;
+            map(startPosition);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * check the delimiter, quote and line break chars can be found on the raw bytes
+     * @param charset charset
+     * @param delimiters delimiters
+     * @return is supported
+     */
+    public static boolean isSupported(Charset charset, char... delimiters) {
+        char[] specials = new char[delimiters.length + 3];
+        specials[0] = '"';
+        specials[1] = '\r';
+        specials[2] = '\n';
+        System.arraycopy(delimiters, 0, specials, 3, delimiters.length);
+        for (char c : specials) {
+            if (c >= 0x80) {
+                return false;
+            }
+        }
+        if (StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset)) {
+            return true;
+        }
+        if (!charset.canEncode()) {
+            return false;
+        }
+        CharsetEncoder encoder = charset.newEncoder();
+        for (char c : specials) {
+            byte[] bytes = String.valueOf(c).getBytes(charset);
+            if (bytes.length != 1 || bytes[0] != c) {
+                return false;
+            }
+            // trail bytes of double byte charsets like GBK start from 0x40
+            if (encoder.maxBytesPerChar() > 1 && c >= 0x40) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(windowSize, endPosition - start);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        view = buffer.duplicate();
+        regionStart = start;
+        regionLimit = (int) size;
+        regionAtEnd = start + size >= endPosition;
+        pos = 0;
+    }
+
+    @Override
+    public boolean nextRecord() throws IOException {
+        while (true) {
+            if (pos >= regionLimit && regionAtEnd) {
+                fieldCount = 0;
+                return false;
+            }
+            int end = scanRecord(pos);
+            if (end >= 0) {
+                pos = end;
+                recordLineNumber = lineNumber;
+                lineNumber += 1 + scanLines;
+                return true;
+            }
+            // record crosses the mapped region
+            if (pos == 0) {
+                if (windowSize >= Integer.MAX_VALUE / 2) {
+                    throw new IOException("csv record too large at position " + regionStart);
+                }
+                windowSize = windowSize << 1;
+            }
+            map(regionStart + pos);
+        }
+    }
+
+    /**
+     * @param from record start
+     * @return record end, -1 if the record is not complete in current region
+     */
+    private int scanRecord(int from) {
+        MappedByteBuffer buf = buffer;
+        int limit = regionLimit;
+        int p = from;
+        fieldCount = 0;
+        scanLines = 0;
+        quoteUnclosed = false;
+        while (true) {
+            // field start
+            if (p >= limit) {
+                if (!regionAtEnd) {
+                    return -1;
+                }
+                addField(p, p, (byte) 0);
+                return p;
+            }
+            byte b = buf.get(p);
+            byte flags = 0;
+            int start;
+            int end;
+            if (b == QUOTE) {
+                start = p + 1;
+                p = start;
+                while (true) {
+                    while (p < limit && (b = buf.get(p)) != QUOTE) {
+                        if (b == LF) {
+                            scanLines++;
+                        }
+                        p++;
+                    }
+                    if (p + 1 >= limit && !regionAtEnd) {
+                        return -1;
+                    }
+                    if (p >= limit) {
+                        // unterminated quote
+                        quoteUnclosed = true;
+                        addField(start, p, flags);
+                        return p;
+                    }
+                    if (p + 1 < limit && buf.get(p + 1) == QUOTE) {
+                        flags |= FLAG_ESCAPED;
+                        p += 2;
+                        continue;
+                    }
+                    break;
+                }
+                end = p;
+                p++;
+                if (p < limit) {
+                    b = buf.get(p);
+                    if (b != delimiter && b != secondDelimiter && b != LF && b != CR) {
+                        // "ab"c, keep the rest of the field as plain text
+                        while (p < limit && (b = buf.get(p)) != delimiter && b != secondDelimiter
+                                && b != LF && b != CR) {
+                            p++;
+                        }
+                        if (p >= limit && !regionAtEnd) {
+                            return -1;
+                        }
+                        start = start - 1;
+                        end = p;
+                        flags |= FLAG_MIXED;
+                    }
+                }
+            } else {
+                start = p;
+                while (p < limit && (b = buf.get(p)) != delimiter && b != secondDelimiter
+                        && b != LF && b != CR) {
+                    p++;
+                }
+                if (p >= limit && !regionAtEnd) {
+                    return -1;
+                }
+                end = p;
+            }
+            addField(start, end, flags);
+            if (p >= limit) {
+                return p;
+            }
+            b = buf.get(p);
+            if (b == delimiter || b == secondDelimiter) {
+                p++;
+                continue;
+            }
+            if (b == CR) {
+                if (p + 1 < limit) {
+                    return buf.get(p + 1) == LF ? p + 2 : p + 1;
+                }
+                return regionAtEnd ? p + 1 : -1;
+            }
+            return p + 1;
+        }
+    }
+
+    private void addField(int start, int end, byte flags) {
+        if (fieldCount == fieldStarts.length) {
+            int newLength = fieldCount << 1;
+            int[] newStarts = new int[newLength];
+            int[] newEnds = new int[newLength];
+            byte[] newFlags = new byte[newLength];
+            System.arraycopy(fieldStarts, 0, newStarts, 0, fieldCount);
+            System.arraycopy(fieldEnds, 0, newEnds, 0, fieldCount);
+            System.arraycopy(fieldFlags, 0, newFlags, 0, fieldCount);
+            fieldStarts = newStarts;
+            fieldEnds = newEnds;
+            fieldFlags = newFlags;
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldFlags[fieldCount] = flags;
+        fieldCount++;
+    }
+
+    @Override
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    @Override
+    public String getField(int index) {
+        if (index < 0 || index >= fieldCount) {
+            return null;
+        }
+        int start = fieldStarts[index];
+        int len = fieldEnds[index] - start;
+        if (len == 0) {
+            return "";
+        }
+        if (len > decodeBuf.length) {
+            decodeBuf = new byte[Math.max(len, decodeBuf.length << 1)];
+        }
+        view.position(start);
+        view.get(decodeBuf, 0, len);
+        String value = new String(decodeBuf, 0, len, charset);
+        byte flags = fieldFlags[index];
+        if ((flags & FLAG_MIXED) != 0) {
+            return unquoteMixed(value);
+        }
+        if ((flags & FLAG_ESCAPED) != 0) {
+            return value.replace("\"\"", "\"");
+        }
+        return value;
+    }
+
+    private static String unquoteMixed(String value) {
+        // "ab""c"d -> ab"cd
+        StringBuilder builder = new StringBuilder(value.length());
+        int i = 1;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                if (i + 1 < value.length() && value.charAt(i + 1) == '"') {
+                    builder.append('"');
+                    i += 2;
+                    continue;
+                }
+                builder.append(value, i + 1, value.length());
+                break;
+            }
+            builder.append(c);
+            i++;
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String[] getFields() {
+        if (fieldCount == 0) {
+            return EMPTY_FIELDS;
+        }
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = getField(i);
+        }
+        return fields;
+    }
+
+    @Override
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && fieldStarts[0] == fieldEnds[0] && fieldFlags[0] == 0
+                && (fieldStarts[0] == 0 || buffer.get(fieldStarts[0] - 1) != QUOTE);
+    }
+
+    @Override
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * the current record ends inside a quoted field, which has no closing quote
+     * @return is quote unclosed
+     */
+    public boolean isQuoteUnclosed() {
+        return quoteUnclosed;
+    }
+
+    /**
+     * @return file position after the current record
+     */
+    public long getPosition() {
+        return regionStart + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        view = null;
+        file.close();
+    }
+}
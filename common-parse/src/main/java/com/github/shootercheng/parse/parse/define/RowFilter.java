@@ -0,0 +1,14 @@
+package com.github.shootercheng.parse.parse.define;
+
+/**
+ * filter rows by raw cell values before the bean is created
+ * @author James
+ */
+@FunctionalInterface
+public interface RowFilter {
+    /**
+     * @param values raw values of the filter columns in the configured order, null or "" if the cell is empty
+     * @return false to skip the row, no bean is created for it
+     */
+    boolean accept(String[] values);
+}
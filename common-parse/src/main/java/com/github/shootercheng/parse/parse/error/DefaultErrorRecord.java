@@ -14,22 +14,36 @@ public class DefaultErrorRecord extends ErrorRecord {
 
     private StringBuilder errorMsg;
 
+    private long droppedCount;
+
     public DefaultErrorRecord(StringBuilder errorMsg) {
         this.errorMsg = errorMsg;
     }
 
     @Override
     public void writeErrorMsg(String errorInfo) {
-        // out of memory
+        // out of memory, 保留之前的错误, 只记录丢弃的数量
         if (errorMsg.length() > MAX_SIZE) {
-            LOGGER.info("error msg is too long, maybe you should define a consumer");
-            errorMsg.setLength(0);
+            if (droppedCount++ == 0) {
+                LOGGER.warn("error msg is too long, later errors are dropped, maybe you should use RingErrorRecord");
+            }
+            return;
         }
         errorMsg.append(errorInfo);
     }
 
+    /**
+     * @return count of errors not recorded because the message is too long
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
     @Override
     public String getErrorMsg() {
+        if (droppedCount > 0) {
+            return errorMsg + "\n" + droppedCount + " more errors dropped";
+        }
         return errorMsg.toString();
     }
 }
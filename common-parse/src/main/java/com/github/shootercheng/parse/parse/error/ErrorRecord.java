@@ -1,5 +1,9 @@
 package com.github.shootercheng.parse.parse.error;
 
+import com.github.shootercheng.common.util.DataUtil;
+
+import java.util.Arrays;
+
 /**
  * @author chengdu
  *
@@ -9,4 +13,38 @@ public abstract class ErrorRecord {
     public abstract void writeErrorMsg(String errorInfo);
 
     public abstract String getErrorMsg();
+
+    /**
+     * record a structured error, parsers pass the raw value without formatting it.
+     * the default implementation formats the error and calls writeErrorMsg
+     * @param line line index
+     * @param column column index, -1 for an error of the whole row
+     * @param errorType error type
+     * @param rawValue raw row or cell value, e.g. String[], may be null
+     */
+    public void writeError(long line, int column, ErrorType errorType, Object rawValue) {
+        writeErrorMsg(format(line, column, errorType, rawValue));
+    }
+
+    /**
+     * e.g. "line 3:[a, b]covert to null", "line 3:column B no data"
+     */
+    public static String format(long line, int column, ErrorType errorType, Object rawValue) {
+        if (errorType == ErrorType.MESSAGE) {
+            return String.valueOf(rawValue);
+        }
+        StringBuilder builder = new StringBuilder(64).append("line ").append(line).append(':');
+        if (column >= 0) {
+            builder.append("column ").append(DataUtil.columnName(column)).append(' ');
+        }
+        if (rawValue instanceof Object[]) {
+            builder.append(Arrays.toString((Object[]) rawValue));
+        } else if (rawValue != null) {
+            builder.append(rawValue);
+        }
+        if (column >= 0 && rawValue != null) {
+            builder.append(' ');
+        }
+        return builder.append(errorType.getMessage()).toString();
+    }
 }
@@ -0,0 +1,37 @@
+package com.github.shootercheng.parse.parse.error;
+
+/**
+ * @author James
+ */
+public enum ErrorType {
+    /**
+     * row can not be converted to vo
+     */
+    ROW_CONVERT("covert to null"),
+    /**
+     * no cell data of a bound column
+     */
+    CELL_MISSING("no data"),
+    /**
+     * unknown cell data type
+     */
+    CELL_TYPE("unknown cell data type"),
+    /**
+     * cell value can not be converted to the field type
+     */
+    CELL_CONVERT("convert error"),
+    /**
+     * message written by {@link ErrorRecord#writeErrorMsg(String)}
+     */
+    MESSAGE("");
+
+    private final String message;
+
+    ErrorType(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.shootercheng.parse.parse.error;
+
+/**
+ * an error kept by {@link RingErrorRecord}
+ * @author James
+ */
+public final class ParseError {
+    private final long line;
+
+    private final int column;
+
+    private final ErrorType errorType;
+
+    private final Object rawValue;
+
+    ParseError(long line, int column, ErrorType errorType, Object rawValue) {
+        this.line = line;
+        this.column = column;
+        this.errorType = errorType;
+        this.rawValue = rawValue;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * @return column index, -1 for an error of the whole row
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    public ErrorType getErrorType() {
+        return errorType;
+    }
+
+    public Object getRawValue() {
+        return rawValue;
+    }
+
+    @Override
+    public String toString() {
+        return ErrorRecord.format(line, column, errorType, rawValue);
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.shootercheng.parse.parse.error;
+
+import com.github.shootercheng.parse.exception.FileParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * keep the last capacity errors in preallocated arrays, nothing is allocated or formatted when an error is written.
+ * older errors are overwritten, or appended to the spill file if it is set.
+ * counts errors by type and by column, the counts include the overwritten errors
+ * @author James
+ */
+public class RingErrorRecord extends ErrorRecord implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RingErrorRecord.class);
+
+    private static final ErrorType[] ERROR_TYPES = ErrorType.values();
+
+    private final long[] lines;
+
+    private final int[] columns;
+
+    private final ErrorType[] errorTypes;
+
+    private final Object[] rawValues;
+
+    private final long[] typeCounts = new long[ERROR_TYPES.length];
+
+    private long[] columnCounts = new long[64];
+
+    private long errorCount;
+
+    private Writer spillWriter;
+
+    /**
+     * @param capacity max errors kept in memory
+     */
+    public RingErrorRecord(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("error record capacity must be positive");
+        }
+        this.lines = new long[capacity];
+        this.columns = new int[capacity];
+        this.errorTypes = new ErrorType[capacity];
+        this.rawValues = new Object[capacity];
+    }
+
+    /**
+     * @param capacity max errors kept in memory
+     * @param spillFile overwritten errors are appended to this file, one error per line
+     */
+    public RingErrorRecord(int capacity, String spillFile) {
+        this(capacity);
+        try {
+            this.spillWriter = Files.newBufferedWriter(Paths.get(spillFile), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new FileParseException("open error spill file error " + spillFile, e);
+        }
+    }
+
+    @Override
+    public synchronized void writeError(long line, int column, ErrorType errorType, Object rawValue) {
+        int index = (int) (errorCount % lines.length);
+        if (errorCount >= lines.length && spillWriter != null) {
+            spill(index);
+        }
+        lines[index] = line;
+        columns[index] = column;
+        errorTypes[index] = errorType;
+        rawValues[index] = rawValue;
+        errorCount++;
+        typeCounts[errorType.ordinal()]++;
+        if (column >= 0) {
+            if (column >= columnCounts.length) {
+                columnCounts = Arrays.copyOf(columnCounts, Math.max(columnCounts.length << 1, column + 1));
+            }
+            columnCounts[column]++;
+        }
+    }
+
+    private void spill(int index) {
+        try {
+            spillWriter.write(format(lines[index], columns[index], errorTypes[index], rawValues[index]));
+            spillWriter.write('\n');
+        } catch (IOException e) {
+            LOGGER.error("write error spill file error {}, spill is stopped", e.getMessage());
+            closeSpill();
+        }
+    }
+
+    @Override
+    public void writeErrorMsg(String errorInfo) {
+        writeError(-1, -1, ErrorType.MESSAGE, errorInfo);
+    }
+
+    /**
+     * @return errors in memory, one error per line
+     */
+    @Override
+    public String getErrorMsg() {
+        StringBuilder builder = new StringBuilder();
+        for (ParseError error : getErrors()) {
+            builder.append(error).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return errors in memory, oldest first
+     */
+    public synchronized List<ParseError> getErrors() {
+        int size = (int) Math.min(errorCount, lines.length);
+        List<ParseError> errors = new ArrayList<>(size);
+        for (long i = errorCount - size; i < errorCount; i++) {
+            int index = (int) (i % lines.length);
+            errors.add(new ParseError(lines[index], columns[index], errorTypes[index], rawValues[index]));
+        }
+        return errors;
+    }
+
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    public synchronized long getErrorCount(ErrorType errorType) {
+        return typeCounts[errorType.ordinal()];
+    }
+
+    /**
+     * @param column column index
+     * @return count of the cell errors of the column
+     */
+    public synchronized long getColumnErrorCount(int column) {
+        return column >= 0 && column < columnCounts.length ? columnCounts[column] : 0;
+    }
+
+    /**
+     * flush the spill file
+     * @throws IOException write error
+     */
+    public synchronized void flush() throws IOException {
+        if (spillWriter != null) {
+            spillWriter.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeSpill();
+    }
+
+    private void closeSpill() {
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (IOException e) {
+                LOGGER.error("close error spill file error {}", e.getMessage());
+            }
+            spillWriter = null;
+        }
+    }
+}
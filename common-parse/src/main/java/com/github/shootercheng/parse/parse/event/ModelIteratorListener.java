@@ -0,0 +1,78 @@
+package com.github.shootercheng.parse.parse.event;
+
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.metadata.CellData;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.bind.RowBinder;
+import com.github.shootercheng.parse.constant.MapperType;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.error.ErrorType;
+import com.github.shootercheng.parse.parse.iterator.QueueParseIterator;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+
+import java.util.Map;
+
+/**
+ * push every row to the iterator, stop reading when the iterator is closed
+ * @author James
+ */
+public class ModelIteratorListener<T> implements ReadListener<Map<Integer, CellData>> {
+    private ParseParam parseParam;
+
+    private QueueParseIterator<T> iterator;
+
+    private ParsePlan<T> parsePlan;
+
+    private RowBinder<T> rowBinder;
+
+    public ModelIteratorListener(ParseParam parseParam, QueueParseIterator<T> iterator, Class<T> clazz) {
+        this.parseParam = parseParam;
+        this.iterator = iterator;
+        this.parsePlan = ParsePlan.of(clazz, parseParam);
+    }
+
+    @Override
+    public void onException(Exception e, AnalysisContext analysisContext) throws Exception {
+        throw e;
+    }
+
+    @Override
+    public void invokeHead(Map<Integer, CellData> map, AnalysisContext analysisContext) {
+
+    }
+
+    @Override
+    public void invoke(Map<Integer, CellData> cellDataMap, AnalysisContext analysisContext) {
+        int rowIndex = analysisContext.readRowHolder().getRowIndex();
+        if (parsePlan.getMapperType() == MapperType.HEAD && rowIndex == parseParam.getHeadLine()) {
+            rowBinder = FileParseCommonUtil.resolveHead(parsePlan,
+                    ModelParserCommon.getHeadMap(cellDataMap), parseParam);
+        }
+        if (rowIndex >= parseParam.getStartLine()
+                && ModelParserCommon.acceptRow(cellDataMap, analysisContext, parseParam)) {
+            if (rowBinder == null) {
+                rowBinder = parsePlan.getBinder();
+            }
+            T t = ModelParserCommon.convertCellDataMapToVo(cellDataMap, analysisContext, rowBinder, parseParam);
+            if (t == null) {
+                FileParseCommonUtil.writeError(parseParam, rowIndex, -1, ErrorType.ROW_CONVERT, cellDataMap);
+                return;
+            }
+            try {
+                iterator.offer(t);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void doAfterAllAnalysed(AnalysisContext analysisContext) {
+    }
+
+    @Override
+    public boolean hasNext(AnalysisContext analysisContext) {
+        return !iterator.isClosed() && !Thread.currentThread().isInterrupted();
+    }
+}
@@ -3,12 +3,17 @@ package com.github.shootercheng.parse.parse.event;
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.metadata.CellData;
 import com.alibaba.excel.read.listener.ReadListener;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.bind.RowBinder;
 import com.github.shootercheng.parse.constant.MapperType;
+import com.github.shootercheng.parse.exception.FileParseException;
 import com.github.shootercheng.parse.param.ParseParam;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.github.shootercheng.parse.parse.consumer.BatchBuffer;
+import com.github.shootercheng.parse.parse.error.ErrorType;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,14 +22,18 @@ import java.util.Map;
  *
  */
 public class ModelManySheetParserListener<T> implements ReadListener<Map<Integer, CellData>> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ModelManySheetParserListener.class);
-
     private Map<Integer, ParseParam> parseParamMap;
 
     private Map<Integer, List<T>> resultMap;
 
     private Class<T> clazz;
 
+    private Map<Integer, RowBinder<T>> rowBinderMap = new HashMap<>(16);
+
+    private Map<Integer, ParsePlan<T>> parsePlanMap = new HashMap<>(16);
+
+    private Map<Integer, BatchBuffer<T>> batchBufferMap = new HashMap<>(16);
+
     public ModelManySheetParserListener(Map<Integer, ParseParam> parseParamMap ,
                                         Map<Integer, List<T>> resultMap, Class<T> clazz) {
         this.parseParamMap = parseParamMap;
@@ -34,6 +43,10 @@ public class ModelManySheetParserListener<T> implements ReadListener<Map<Integer
 
     @Override
     public void onException(Exception e, AnalysisContext analysisContext) {
+        // 不能创建实例时中止解析
+        if (e instanceof FileParseException) {
+            throw (FileParseException) e;
+        }
     }
 
     @Override
@@ -53,18 +66,15 @@ public class ModelManySheetParserListener<T> implements ReadListener<Map<Integer
                 resultMap.put(sheetNo, resultList);
             }
             int headLine = parseParam.getHeadLine();
-            if (parseParam.getMapperType() == MapperType.HEAD && rowIndex == headLine) {
-                ModelParserCommon.buildParseParam(clazz, cellDataMap, parseParam);
+            ParsePlan<T> parsePlan = parsePlanMap.computeIfAbsent(sheetNo, key -> ParsePlan.of(clazz, parseParam));
+            if (parsePlan.getMapperType() == MapperType.HEAD && rowIndex == headLine) {
+                Map<Integer, String> headMap = ModelParserCommon.getHeadMap(cellDataMap);
+                rowBinderMap.put(sheetNo, FileParseCommonUtil.resolveHead(parsePlan, headMap, parseParam));
             }
-            if (rowIndex >= parseParam.getStartLine()) {
+            if (rowIndex >= parseParam.getStartLine()
+                    && ModelParserCommon.acceptRow(cellDataMap, analysisContext, parseParam)) {
                 parseModelToResultList(cellDataMap, analysisContext, parseParam, resultList);
             }
-            if (parseParam.getDataConsumer() != null) {
-                if (resultList.size() >= parseParam.getBatchNum()) {
-                    parseParam.getDataConsumer().accept(resultList, sheetNo);
-                    resultList.clear();
-                }
-            }
         }
     }
 
@@ -77,15 +87,20 @@ public class ModelManySheetParserListener<T> implements ReadListener<Map<Integer
      */
     private void parseModelToResultList(Map<Integer, CellData> cellDataMap, AnalysisContext analysisContext,
                                         ParseParam parseParam, List<T> resultList) {
-        T t = ModelParserCommon.convertCellDataMapToVo(cellDataMap, analysisContext, clazz, parseParam);
-        if (t != null) {
+        Integer sheetNo = analysisContext.readSheetHolder().getSheetNo();
+        RowBinder<T> rowBinder = rowBinderMap.get(sheetNo);
+        if (rowBinder == null) {
+            rowBinder = parsePlanMap.get(sheetNo).getBinder();
+            rowBinderMap.put(sheetNo, rowBinder);
+        }
+        T t = ModelParserCommon.convertCellDataMapToVo(cellDataMap, analysisContext, rowBinder, parseParam);
+        if (t != null && parseParam.getDataConsumer() != null) {
+            batchBufferMap.computeIfAbsent(sheetNo, key -> new BatchBuffer<>(parseParam, key)).add(t);
+        } else if (t != null) {
             resultList.add(t);
         } else {
             int rowIndex = analysisContext.readRowHolder().getRowIndex();
-            LOGGER.error("convert row data to vo error {}", cellDataMap);
-            parseParam.getErrorRecord()
-                    .writeErrorMsg("line " + rowIndex + ":" + cellDataMap +
-                            "covert to null");
+            FileParseCommonUtil.writeError(parseParam, rowIndex, -1, ErrorType.ROW_CONVERT, cellDataMap);
         }
     }
 
@@ -99,13 +114,17 @@ public class ModelManySheetParserListener<T> implements ReadListener<Map<Integer
         return true;
     }
 
+    /**
+     * the parse failed, the rows not consumed are dropped
+     */
+    public void abort() {
+        batchBufferMap.values().forEach(BatchBuffer::abort);
+    }
+
     public void consumerLeftList(Integer key, ParseParam parseParam) {
-        if (parseParam != null && parseParam.getDataConsumer() != null) {
-            List<T> sheetResult = resultMap.get(key);
-            if (sheetResult != null && sheetResult.size() > 0) {
-                parseParam.getDataConsumer().accept(sheetResult, key);
-                sheetResult.clear();
-            }
+        BatchBuffer<T> batchBuffer = batchBufferMap.get(key);
+        if (batchBuffer != null) {
+            batchBuffer.flush();
         }
     }
 }
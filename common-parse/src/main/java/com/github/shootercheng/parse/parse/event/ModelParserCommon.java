@@ -5,13 +5,16 @@ import com.alibaba.excel.enums.CellDataTypeEnum;
 import com.alibaba.excel.metadata.CellData;
 import com.alibaba.excel.read.metadata.holder.ReadHolder;
 import com.alibaba.excel.util.ConverterUtils;
-import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.bind.RowBinder;
+import com.github.shootercheng.parse.exception.FileParseException;
 import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.define.CellFormat;
+import com.github.shootercheng.parse.parse.error.ErrorType;
 import com.github.shootercheng.parse.utils.FileParseCommonUtil;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -21,24 +24,38 @@ import java.util.Set;
  *
  */
 public class ModelParserCommon {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ModelParserCommon.class);
-
     public static <T> T convertCellDataMapToVo(Map<Integer, CellData> cellDataMap, AnalysisContext analysisContext,
                                                Class<T> clazz, ParseParam parseParam) {
+        RowBinder<T> rowBinder = ParsePlan.of(clazz, parseParam).getBinder();
+        return convertCellDataMapToVo(cellDataMap, analysisContext, rowBinder, parseParam);
+    }
+
+    public static <T> T convertCellDataMapToVo(Map<Integer, CellData> cellDataMap, AnalysisContext analysisContext,
+                                               RowBinder<T> rowBinder, ParseParam parseParam) {
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        long start = ParseMetrics.start(parseMetrics);
+        try {
+            return convertRow(cellDataMap, analysisContext, rowBinder, parseParam);
+        } finally {
+            ParseMetrics.countRow(parseMetrics, Stage.CONVERT, start);
+        }
+    }
+
+    private static <T> T convertRow(Map<Integer, CellData> cellDataMap, AnalysisContext analysisContext,
+                                    RowBinder<T> rowBinder, ParseParam parseParam) {
         T t = null;
+        int rowIndex = analysisContext.readRowHolder().getRowIndex();
+        int column = -1;
+        Object cellData = null;
         try {
-            t = clazz.newInstance();
+            t = rowBinder.newInstance();
             ReadHolder currentReadHolder = analysisContext.currentReadHolder();
-            Map<String, Method> fieldSetterMap = parseParam.getFieldSetterMap();
-            for (Map.Entry<String, Method> entry : fieldSetterMap.entrySet()) {
-                String columnChar = entry.getKey();
-                Integer column = DataUtil.EXCEL_COLUMN.get(columnChar);
-                Object cellData = cellDataMap.get(column);
+            CellFormat cellFormat = parseParam.getCellFormat();
+            for (int i = 0, size = rowBinder.size(); i < size; i++) {
+                column = rowBinder.getColumn(i);
+                cellData = cellDataMap.get(column);
                 if (cellData == null) {
-                    LOGGER.error("column char parse no data {}", columnChar);
-                    int rowIndex = analysisContext.readRowHolder().getRowIndex();
-                    parseParam.getErrorRecord().writeErrorMsg("line " + rowIndex + ":" +
-                            column + "column char parse no data");
+                    FileParseCommonUtil.writeError(parseParam, rowIndex, column, ErrorType.CELL_MISSING, null);
                     continue;
                 }
                 String cellValue;
@@ -50,32 +67,66 @@ public class ModelParserCommon {
                     }
                     cellValue = (String) ConverterUtils.convertToJavaObject(convertCellData, null, null,
                             currentReadHolder.converterMap(),
-                            currentReadHolder.globalConfiguration(), analysisContext.readRowHolder().getRowIndex(), column);
+                            currentReadHolder.globalConfiguration(), rowIndex, column);
                 } else if (cellData instanceof String) {
                     cellValue = (String) cellData;
                 } else {
-                    LOGGER.error("unknown cell data type");
+                    FileParseCommonUtil.writeError(parseParam, rowIndex, column, ErrorType.CELL_TYPE, cellData);
                     return null;
                 }
-                if (parseParam.getCellFormat() != null) {
-                    cellValue = parseParam.getCellFormat().format(columnChar, cellValue);
+                if (cellFormat != null) {
+                    cellValue = cellFormat.format(rowBinder.getColumnName(i), cellValue);
                 }
-                FileParseCommonUtil.invokeValue(t, entry.getValue(), cellValue);
+                rowBinder.bind(t, i, cellValue);
             }
+            column = -1;
             if (parseParam.getBusinessDefineParse() != null) {
                 parseParam.getBusinessDefineParse().defineParse(t, cellDataMap, parseParam);
             }
-        } catch (InstantiationException e) {
-            e.printStackTrace();
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new FileParseException("create bean instance error", e);
         } catch (Exception e) {
-            e.printStackTrace();
+            // 与之前一样保留已转换的字段
+            FileParseCommonUtil.writeError(parseParam, rowIndex, column, ErrorType.CELL_CONVERT,
+                    column >= 0 ? cellData : cellDataMap);
         }
         return t;
     }
 
+    /**
+     * @param cellDataMap cell data map
+     * @param analysisContext analysis context
+     * @param parseParam parse param
+     * @return false if the row is skipped by {@link FileParseCommonUtil#acceptRow}
+     */
+    public static boolean acceptRow(Map<Integer, CellData> cellDataMap, AnalysisContext analysisContext,
+                                    ParseParam parseParam) {
+        // 不存在的列不在 map 中
+        return FileParseCommonUtil.acceptRow(column -> getCellValue(cellDataMap.get(column), analysisContext, column),
+                Integer.MAX_VALUE, parseParam);
+    }
+
+    private static String getCellValue(Object cellData, AnalysisContext analysisContext, int column) {
+        if (cellData instanceof CellData) {
+            CellData convertCellData = (CellData) cellData;
+            if (CellDataTypeEnum.EMPTY == convertCellData.getType()) {
+                return null;
+            }
+            ReadHolder currentReadHolder = analysisContext.currentReadHolder();
+            return (String) ConverterUtils.convertToJavaObject(convertCellData, null, null,
+                    currentReadHolder.converterMap(), currentReadHolder.globalConfiguration(),
+                    analysisContext.readRowHolder().getRowIndex(), column);
+        } else if (cellData instanceof String) {
+            return (String) cellData;
+        }
+        return null;
+    }
+
     public static void buildParseParam(Class<?> clazz, Map<Integer, CellData> cellDataMap, ParseParam parseParam) {
+        FileParseCommonUtil.buildParseParam(clazz, parseParam, getHeadMap(cellDataMap));
+    }
+
+    public static Map<Integer, String> getHeadMap(Map<Integer, CellData> cellDataMap) {
         Set<Map.Entry<Integer, CellData>> entrySet = cellDataMap.entrySet();
         Map<Integer, String> headMap = new HashMap<>();
         for (Map.Entry<Integer, CellData> entry : entrySet) {
@@ -83,6 +134,6 @@ public class ModelParserCommon {
             String cellDataValue = entry.getValue().toString();
             headMap.put(key, cellDataValue);
         }
-        FileParseCommonUtil.buildParseParam(clazz, parseParam, headMap);
+        return headMap;
     }
 }
@@ -4,10 +4,15 @@ package com.github.shootercheng.parse.parse.event;
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.metadata.CellData;
 import com.alibaba.excel.read.listener.ReadListener;
+import com.github.shootercheng.common.metrics.ReadTimer;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.bind.RowBinder;
 import com.github.shootercheng.parse.constant.MapperType;
+import com.github.shootercheng.parse.exception.FileParseException;
 import com.github.shootercheng.parse.param.ParseParam;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.github.shootercheng.parse.parse.consumer.BatchBuffer;
+import com.github.shootercheng.parse.parse.error.ErrorType;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
 
 import java.util.List;
 import java.util.Map;
@@ -17,23 +22,32 @@ import java.util.Map;
  *
  */
 public class ModelParserListener<T> implements ReadListener<Map<Integer, CellData>> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ModelParserListener.class);
-
     private ParseParam parseParam;
 
     private List<T> resultList;
 
-    private Class<T> clazz;
+    private ParsePlan<T> parsePlan;
+
+    private RowBinder<T> rowBinder;
+
+    private BatchBuffer<T> batchBuffer;
+
+    private ReadTimer readTimer;
 
     public ModelParserListener(ParseParam parseParam, List<T> resultList, Class<T> clazz) {
         this.parseParam = parseParam;
         this.resultList = resultList;
-        this.clazz = clazz;
+        this.parsePlan = ParsePlan.of(clazz, parseParam);
+        this.readTimer = new ReadTimer(parseParam.getParseMetrics());
     }
 
 
     @Override
-    public void onException(Exception e, AnalysisContext analysisContext)  {
+    public void onException(Exception e, AnalysisContext analysisContext) {
+        // 不能创建实例时中止解析
+        if (e instanceof FileParseException) {
+            throw (FileParseException) e;
+        }
     }
 
     @Override
@@ -43,41 +57,45 @@ public class ModelParserListener<T> implements ReadListener<Map<Integer, CellDat
 
     @Override
     public void invoke(Map<Integer, CellData> cellDataMap, AnalysisContext analysisContext) {
+        readTimer.read();
+        try {
+            parseRow(cellDataMap, analysisContext);
+        } finally {
+            readTimer.handled();
+        }
+    }
+
+    private void parseRow(Map<Integer, CellData> cellDataMap, AnalysisContext analysisContext) {
         int rowIndex = analysisContext.readRowHolder().getRowIndex();
         int headLine = parseParam.getHeadLine();
-        if (parseParam.getMapperType() == MapperType.HEAD && rowIndex == headLine) {
-            ModelParserCommon.buildParseParam(clazz, cellDataMap, parseParam);
+        if (parsePlan.getMapperType() == MapperType.HEAD && rowIndex == headLine) {
+            rowBinder = FileParseCommonUtil.resolveHead(parsePlan,
+                    ModelParserCommon.getHeadMap(cellDataMap), parseParam);
         }
         int startLine = parseParam.getStartLine();
         // convert cell data to model
-        if (rowIndex >= startLine) {
-            T t = ModelParserCommon.convertCellDataMapToVo(cellDataMap, analysisContext, clazz, parseParam);
-            if (t != null) {
-                resultList.add(t);
-            } else {
-                parseParam.getErrorRecord()
-                        .writeErrorMsg("line " + rowIndex + ":" + cellDataMap +
-                                "covert to null");
+        if (rowIndex >= startLine && ModelParserCommon.acceptRow(cellDataMap, analysisContext, parseParam)) {
+            if (rowBinder == null) {
+                rowBinder = parsePlan.getBinder();
             }
-        }
-        if (parseParam.getDataConsumer() != null) {
-            if (resultList.size() >= parseParam.getBatchNum()) {
-                Integer sheetNum = analysisContext.readSheetHolder().getSheetNo();
-                parseParam.getDataConsumer().accept(resultList, sheetNum);
-                resultList.clear();
+            T t = ModelParserCommon.convertCellDataMapToVo(cellDataMap, analysisContext, rowBinder, parseParam);
+            if (t == null) {
+                FileParseCommonUtil.writeError(parseParam, rowIndex, -1, ErrorType.ROW_CONVERT, cellDataMap);
+            } else if (parseParam.getDataConsumer() != null) {
+                if (batchBuffer == null) {
+                    batchBuffer = new BatchBuffer<>(parseParam, analysisContext.readSheetHolder().getSheetNo());
+                }
+                batchBuffer.add(t);
+            } else {
+                resultList.add(t);
             }
         }
     }
 
     @Override
     public void doAfterAllAnalysed(AnalysisContext analysisContext) {
-        if (parseParam.getDataConsumer() != null) {
-            if (resultList.size() > 0) {
-                LOGGER.info("consumer left data size {}", resultList.size());
-                Integer sheetNum = analysisContext.readSheetHolder().getSheetNo();
-                parseParam.getDataConsumer().accept(resultList, sheetNum);
-                resultList.clear();
-            }
+        if (batchBuffer != null) {
+            batchBuffer.flush();
         }
     }
 
@@ -85,4 +103,13 @@ public class ModelParserListener<T> implements ReadListener<Map<Integer, CellDat
     public boolean hasNext(AnalysisContext analysisContext) {
         return true;
     }
+
+    /**
+     * the parse failed, the rows not consumed are dropped
+     */
+    public void abort() {
+        if (batchBuffer != null) {
+            batchBuffer.abort();
+        }
+    }
 }
@@ -0,0 +1,76 @@
+package com.github.shootercheng.parse.parse.iterator;
+
+import com.github.shootercheng.parse.exception.FileParseException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * fetch one element ahead, close the file at the end or on error
+ * @author James
+ */
+public abstract class AbstractParseIterator<T> implements CloseableIterator<T> {
+    private T next;
+
+    private boolean finished;
+
+    private boolean closed;
+
+    /**
+     * @return next element, null if end of file
+     * @throws Exception read error
+     */
+    protected abstract T fetchNext() throws Exception;
+
+    /**
+     * release the file
+     * @throws Exception close error
+     */
+    protected abstract void doClose() throws Exception;
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            next = fetchNext();
+        } catch (FileParseException e) {
+            close();
+            throw e;
+        } catch (Exception e) {
+            close();
+            throw new FileParseException("parse file error", e);
+        }
+        if (next == null) {
+            close();
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T t = next;
+        next = null;
+        return t;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        finished = true;
+        try {
+            doClose();
+        } catch (Exception e) {
+            throw new FileParseException("close file error", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.shootercheng.parse.parse.iterator;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * iterator over a file which is read lazily,
+ * close it when not read to the end
+ * @author James
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+    /**
+     * release the file, it is called automatically when the last element has been read
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,106 @@
+package com.github.shootercheng.parse.parse.iterator;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * iterator for push style readers, the reader runs on a worker thread
+ * and is blocked when the queue is full
+ * @author James
+ */
+public class QueueParseIterator<T> extends AbstractParseIterator<T> {
+    private static final Object END = new Object();
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final BlockingQueue<Object> queue;
+
+    private volatile boolean closed;
+
+    private Thread worker;
+
+    public QueueParseIterator(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+    }
+
+    /**
+     * start the reader on a new thread, the thread must call {@link #finish(Throwable)} at last
+     * @param reader reader
+     * @param name thread name
+     */
+    public void start(Runnable reader, String name) {
+        worker = new Thread(reader, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * called by the reader thread
+     * @param t element
+     * @return false if the iterator is closed, the reader should stop
+     * @throws InterruptedException interrupted
+     */
+    public boolean offer(T t) throws InterruptedException {
+        return offerObject(t);
+    }
+
+    /**
+     * called by the reader thread when reading is finished
+     * @param error read error, null if success
+     */
+    public void finish(Throwable error) {
+        try {
+            offerObject(error != null ? new ReadError(error) : END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offerObject(Object object) throws InterruptedException {
+        while (!queue.offer(object, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (closed) {
+                return false;
+            }
+        }
+        return !closed;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected T fetchNext() throws Exception {
+        Object object = queue.take();
+        if (object == END) {
+            return null;
+        }
+        if (object instanceof ReadError) {
+            Throwable error = ((ReadError) object).error;
+            if (error instanceof Exception) {
+                throw (Exception) error;
+            }
+            throw new IllegalStateException(error);
+        }
+        return (T) object;
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        closed = true;
+        queue.clear();
+        if (worker != null && worker != Thread.currentThread()) {
+            worker.join();
+        }
+    }
+
+    private static class ReadError {
+        private final Throwable error;
+
+        private ReadError(Throwable error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.github.shootercheng.parse.parse.pipeline;
+
+import com.github.shootercheng.parse.exception.FileParseException;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.consumer.BatchBuffer;
+import com.github.shootercheng.parse.parse.consumer.DataConsumer;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * reader -> converters -> consumer pipeline.
+ * the reader thread submits raw rows, batches of raw rows are converted by the converter threads,
+ * one consumer thread takes the batches in reading order and passes them to the {@link DataConsumer}.
+ * at most pipelineQueueSize batches are in flight, the reader is blocked when the consumer is slow
+ * @author James
+ */
+public class ParsePipeline<T> implements Closeable {
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private static final AtomicInteger PIPELINE_NUMBER = new AtomicInteger();
+
+    private final Future<RowBatch<T>> end = CompletableFuture.completedFuture(null);
+
+    private final ParseParam parseParam;
+
+    private final int sheetNum;
+
+    private final Function<String[], T> converter;
+
+    private final int batchNum;
+
+    private final ExecutorService convertExecutor;
+
+    private final BlockingQueue<Future<RowBatch<T>>> batchQueue;
+
+    private final Thread consumeThread;
+
+    private final List<T> resultList = new ArrayList<>();
+
+    private RowBatch<T> rowBatch;
+
+    private volatile Throwable failure;
+
+    /**
+     * @param parseParam parse param, pipelineThreads and pipelineQueueSize are used
+     * @param sheetNum sheet passed to the data consumer
+     * @param converter convert raw row to vo, called by converter threads
+     */
+    public ParsePipeline(ParseParam parseParam, int sheetNum, Function<String[], T> converter) {
+        this.parseParam = parseParam;
+        this.sheetNum = sheetNum;
+        this.converter = converter;
+        this.batchNum = Math.max(parseParam.getBatchNum(), 1);
+        this.batchQueue = new ArrayBlockingQueue<>(Math.max(parseParam.getPipelineQueueSize(), 1));
+        int number = PIPELINE_NUMBER.incrementAndGet();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.convertExecutor = Executors.newFixedThreadPool(Math.max(parseParam.getPipelineThreads(), 1), runnable -> {
+            Thread thread = new Thread(runnable, "parse-pipeline-" + number + "-convert-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.consumeThread = new Thread(this::consume, "parse-pipeline-" + number + "-consume");
+        this.consumeThread.setDaemon(true);
+        this.consumeThread.start();
+    }
+
+    /**
+     * called by the reader thread, the row must not be changed after submit
+     * @param row raw row
+     */
+    public void submit(String[] row) {
+        checkFailure();
+        if (rowBatch == null) {
+            rowBatch = new RowBatch<>(batchNum);
+        }
+        rowBatch.add(row);
+        if (rowBatch.size() >= batchNum) {
+            dispatch();
+        }
+    }
+
+    /**
+     * wait for all rows consumed
+     * @return converted rows if the data consumer is null, otherwise empty list
+     */
+    public List<T> finish() {
+        if (rowBatch != null) {
+            dispatch();
+        }
+        put(end);
+        try {
+            consumeThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileParseException("parse pipeline interrupted", e);
+        }
+        checkFailure();
+        return resultList;
+    }
+
+    private void dispatch() {
+        RowBatch<T> batch = rowBatch;
+        rowBatch = null;
+        put(convertExecutor.submit(() -> batch.convert(converter)));
+    }
+
+    private void put(Future<RowBatch<T>> future) {
+        try {
+            // 队列满时阻塞读取, 消费失败时退出
+            while (!batchQueue.offer(future, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileParseException("parse pipeline interrupted", e);
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new FileParseException("parse pipeline error " + failure.getMessage(), failure);
+        }
+    }
+
+    private void consume() {
+        BatchBuffer<T> batchBuffer = parseParam.getDataConsumer() != null ? new BatchBuffer<>(parseParam, sheetNum) : null;
+        try {
+            Future<RowBatch<T>> future;
+            while ((future = batchQueue.take()) != end) {
+                RowBatch<T> batch = future.get();
+                if (batchBuffer == null) {
+                    resultList.addAll(batch.resultList);
+                    continue;
+                }
+                for (T t : batch.resultList) {
+                    batchBuffer.add(t);
+                }
+            }
+            if (batchBuffer != null) {
+                batchBuffer.flush();
+            }
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            if (batchBuffer != null) {
+                batchBuffer.abort();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        convertExecutor.shutdownNow();
+        if (consumeThread.isAlive()) {
+            consumeThread.interrupt();
+        }
+    }
+
+    private static class RowBatch<T> {
+        private final List<String[]> rows;
+
+        private final List<T> resultList;
+
+        private RowBatch(int capacity) {
+            this.rows = new ArrayList<>(capacity);
+            this.resultList = new ArrayList<>(capacity);
+        }
+
+        private void add(String[] row) {
+            rows.add(row);
+        }
+
+        private int size() {
+            return rows.size();
+        }
+
+        private RowBatch<T> convert(Function<String[], T> converter) {
+            for (String[] row : rows) {
+                resultList.add(converter.apply(row));
+            }
+            rows.clear();
+            return this;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.shootercheng.parse.parse.stream;
+
+import java.util.BitSet;
+
+/**
+ * receive rows from a streaming sheet reader
+ * @author James
+ */
+@FunctionalInterface
+public interface RowHandler {
+    /**
+     * the values array is reused by the reader, copy it if it is kept
+     * @param rowIndex index of the row in the rows which exist in the sheet, start from 0
+     * @param values cell values, null if the cell does not exist
+     * @param length value length, cells after length do not exist
+     * @return false to stop reading
+     */
+    boolean handleRow(int rowIndex, String[] values, int length);
+
+    /**
+     * read before every row, cells not in the projection are read as not exist
+     * @return indexes of the columns to read, null to read all columns
+     */
+    default BitSet getProjection() {
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.shootercheng.parse.parse.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * read sheets of an excel file row by row without loading the workbook
+ * @author James
+ */
+public interface SheetStreamReader extends Closeable {
+    /**
+     * @param sheetNum sheet index, start from 0
+     * @param rowHandler row handler
+     * @throws IOException read error
+     */
+    void readSheet(int sheetNum, RowHandler rowHandler) throws IOException;
+}
@@ -0,0 +1,267 @@
+package com.github.shootercheng.parse.parse.stream;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * read xls sheets by the HSSF event model, records are read one by one and only one row is kept in memory.
+ * cell values are the same as {@link com.github.shootercheng.common.util.ExcelUtil#getCellValue},
+ * rows are counted like iterating a HSSFSheet: rows without cells are kept if the file has a row record
+ * @author James
+ */
+public class XlsStreamReader implements SheetStreamReader {
+    private final POIFSFileSystem fileSystem;
+
+    public XlsStreamReader(String filePath) throws IOException {
+        this.fileSystem = new POIFSFileSystem(new File(filePath), true);
+    }
+
+    @Override
+    public void readSheet(int sheetNum, RowHandler rowHandler) throws IOException {
+        SheetListener sheetListener = new SheetListener(sheetNum, rowHandler);
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(sheetListener);
+        try {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fileSystem);
+        } catch (HSSFUserException e) {
+            throw new IOException("read xls sheet error " + sheetNum, e);
+        }
+        if (!sheetListener.sheetFound) {
+            throw new IllegalArgumentException("sheet " + sheetNum + " not exist");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileSystem.close();
+    }
+
+    private static class SheetListener extends AbortableHSSFListener {
+        private final int sheetNum;
+
+        private final RowHandler rowHandler;
+
+        private final EventWorkbookBuilder.SheetRecordCollectingListener workbookListener;
+
+        private final FormatTrackingHSSFListener formatListener;
+
+        private HSSFWorkbook stubWorkbook;
+
+        private SSTRecord sstRecord;
+
+        private boolean date1904;
+
+        private int sheetIndex = -1;
+
+        private int depth;
+
+        private boolean sheetFound;
+
+        private boolean stop;
+
+        /**
+         * row numbers which have a row record
+         */
+        private final BitSet rowRecords = new BitSet();
+
+        private int nextRow;
+
+        private int rowIndex;
+
+        private int cellRow = -1;
+
+        private String[] values = new String[16];
+
+        private int length;
+
+        private SheetListener(int sheetNum, RowHandler rowHandler) {
+            this.sheetNum = sheetNum;
+            this.rowHandler = rowHandler;
+            // 记录依次经过 workbook 收集, 格式跟踪, 缺失记录补全
+            HSSFListener cellListener = this::processCellRecord;
+            this.formatListener = new FormatTrackingHSSFListener(new MissingRecordAwareHSSFListener(cellListener));
+            this.workbookListener = new EventWorkbookBuilder.SheetRecordCollectingListener(formatListener);
+        }
+
+        @Override
+        public short abortableProcessRecord(Record record) {
+            workbookListener.processRecord(record);
+            return stop ? (short) 1 : 0;
+        }
+
+        private boolean inSheet() {
+            return sheetIndex == sheetNum && depth == 1;
+        }
+
+        private void processCellRecord(Record record) {
+            switch (record.getSid()) {
+                case BOFRecord.sid:
+                    depth++;
+                    BOFRecord bofRecord = (BOFRecord) record;
+                    if (depth == 1 && bofRecord.getType() == BOFRecord.TYPE_WORKSHEET) {
+                        sheetIndex++;
+                        sheetFound = sheetFound || sheetIndex == sheetNum;
+                    }
+                    break;
+                case EOFRecord.sid:
+                    if (inSheet()) {
+                        finishSheet();
+                        stop = true;
+                    }
+                    depth--;
+                    break;
+                case SSTRecord.sid:
+                    sstRecord = (SSTRecord) record;
+                    break;
+                case DateWindow1904Record.sid:
+                    date1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+                    break;
+                case RowRecord.sid:
+                    if (inSheet()) {
+                        rowRecords.set(((RowRecord) record).getRowNumber());
+                    }
+                    break;
+                case NumberRecord.sid:
+                    if (inSheet()) {
+                        NumberRecord numberRecord = (NumberRecord) record;
+                        setCell(numberRecord.getRow(), numberRecord.getColumn(),
+                                numberValue(numberRecord, numberRecord.getValue()));
+                    }
+                    break;
+                case LabelSSTRecord.sid:
+                    if (inSheet()) {
+                        LabelSSTRecord labelSSTRecord = (LabelSSTRecord) record;
+                        setCell(labelSSTRecord.getRow(), labelSSTRecord.getColumn(),
+                                sstRecord.getString(labelSSTRecord.getSSTIndex()).getString());
+                    }
+                    break;
+                case LabelRecord.sid:
+                    if (inSheet()) {
+                        LabelRecord labelRecord = (LabelRecord) record;
+                        setCell(labelRecord.getRow(), labelRecord.getColumn(), labelRecord.getValue());
+                    }
+                    break;
+                case BoolErrRecord.sid:
+                    if (inSheet()) {
+                        BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+                        String value = boolErrRecord.isBoolean() ? String.valueOf(boolErrRecord.getBooleanValue()) : "";
+                        setCell(boolErrRecord.getRow(), boolErrRecord.getColumn(), value);
+                    }
+                    break;
+                case FormulaRecord.sid:
+                    if (inSheet()) {
+                        FormulaRecord formulaRecord = (FormulaRecord) record;
+                        if (stubWorkbook == null) {
+                            stubWorkbook = workbookListener.getStubHSSFWorkbook();
+                        }
+                        setCell(formulaRecord.getRow(), formulaRecord.getColumn(),
+                                HSSFFormulaParser.toFormulaString(stubWorkbook, formulaRecord.getParsedExpression()));
+                    }
+                    break;
+                case BlankRecord.sid:
+                    if (inSheet()) {
+                        BlankRecord blankRecord = (BlankRecord) record;
+                        setCell(blankRecord.getRow(), blankRecord.getColumn(), "");
+                    }
+                    break;
+                default:
+                    if (record instanceof LastCellOfRowDummyRecord && inSheet()) {
+                        int row = ((LastCellOfRowDummyRecord) record).getRow();
+                        if (row == cellRow || rowRecords.get(row)) {
+                            endRow(row);
+                        }
+                    }
+                    break;
+            }
+        }
+
+        private String numberValue(NumberRecord numberRecord, double value) {
+            int formatIndex = formatListener.getFormatIndex(numberRecord);
+            String formatString = formatListener.getFormatString(numberRecord);
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                // 转换为 long 时间
+                return "L" + DateUtil.getJavaDate(value, date1904).getTime();
+            }
+            return NumberToTextConverter.toText(value);
+        }
+
+        private void setCell(int row, int column, String value) {
+            if (row != cellRow) {
+                if (cellRow >= 0 && length > 0) {
+                    endRow(cellRow);
+                }
+                cellRow = row;
+            }
+            if (column >= values.length) {
+                String[] newValues = new String[Math.max(values.length << 1, column + 1)];
+                System.arraycopy(values, 0, newValues, 0, length);
+                values = newValues;
+            }
+            values[column] = value;
+            length = Math.max(length, column + 1);
+        }
+
+        /**
+         * emit the rows which only have a row record before this row, then this row
+         */
+        private void endRow(int row) {
+            if (row < nextRow || stop) {
+                return;
+            }
+            for (int i = rowRecords.nextSetBit(nextRow); i >= 0 && i < row && !stop; i = rowRecords.nextSetBit(i + 1)) {
+                emitRow(i, 0);
+            }
+            if (!stop) {
+                emitRow(row, row == cellRow ? length : 0);
+            }
+            for (int i = 0; i < length; i++) {
+                values[i] = null;
+            }
+            length = 0;
+            nextRow = row + 1;
+        }
+
+        private void emitRow(int row, int valueLength) {
+            if (!rowHandler.handleRow(rowIndex++, values, valueLength)) {
+                stop = true;
+            }
+        }
+
+        private void finishSheet() {
+            if (cellRow >= 0 && length > 0) {
+                endRow(cellRow);
+            }
+            for (int i = rowRecords.nextSetBit(nextRow); i >= 0 && !stop; i = rowRecords.nextSetBit(i + 1)) {
+                emitRow(i, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.github.shootercheng.parse.parse.stream;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * read xlsx sheets by XSSFReader and a sax handler, only one row is kept in memory.
+ * cell values are the same as {@link com.github.shootercheng.common.util.ExcelUtil#getCellValue}:
+ * date cells are "L" + millis, numbers are formatted by NumberToTextConverter,
+ * formula cells are the formula text.
+ * cells out of the projection of the row handler are skipped without reading their text or shared string
+ * @author James
+ */
+public class XlsxStreamReader implements SheetStreamReader {
+    private final OPCPackage opcPackage;
+
+    private final XSSFReader xssfReader;
+
+    private final ReadOnlySharedStringsTable sharedStringsTable;
+
+    private final StylesTable stylesTable;
+
+    private final boolean date1904;
+
+    private final Map<Integer, Boolean> dateStyleCache = new HashMap<>();
+
+    public XlsxStreamReader(String filePath) throws IOException {
+        try {
+            opcPackage = OPCPackage.open(filePath, PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("open xlsx file error " + filePath, e);
+        }
+        try {
+            xssfReader = new XSSFReader(opcPackage);
+            sharedStringsTable = new ReadOnlySharedStringsTable(opcPackage);
+            stylesTable = xssfReader.getStylesTable();
+            date1904 = readDate1904();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException | IOException e) {
+            opcPackage.revert();
+            throw new IOException("read xlsx file error " + filePath, e);
+        }
+    }
+
+    private boolean readDate1904() throws IOException, SAXException, ParserConfigurationException, OpenXML4JException {
+        boolean[] date1904 = new boolean[1];
+        try (InputStream inputStream = xssfReader.getWorkbookData()) {
+            XMLReader xmlReader = SAXHelper.newXMLReader();
+            xmlReader.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                    }
+                }
+            });
+            xmlReader.parse(new InputSource(inputStream));
+        }
+        return date1904[0];
+    }
+
+    @Override
+    public void readSheet(int sheetNum, RowHandler rowHandler) throws IOException {
+        try {
+            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            int index = 0;
+            while (sheetIterator.hasNext()) {
+                try (InputStream inputStream = sheetIterator.next()) {
+                    if (index == sheetNum) {
+                        XMLReader xmlReader = SAXHelper.newXMLReader();
+                        xmlReader.setContentHandler(new SheetHandler(rowHandler));
+                        xmlReader.parse(new InputSource(inputStream));
+                        return;
+                    }
+                }
+                index++;
+            }
+        } catch (StopReadException e) {
+            return;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("read xlsx sheet error " + sheetNum, e);
+        }
+        throw new IllegalArgumentException("sheet " + sheetNum + " not exist");
+    }
+
+    private boolean isDateStyle(int styleIndex) {
+        Boolean isDate = dateStyleCache.get(styleIndex);
+        if (isDate == null) {
+            XSSFCellStyle style = stylesTable.getStyleAt(styleIndex);
+            if (style == null) {
+                isDate = false;
+            } else {
+                int formatIndex = style.getDataFormat();
+                String formatString = style.getDataFormatString();
+                if (formatString == null) {
+                    formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+                }
+                isDate = DateUtil.isADateFormat(formatIndex, formatString);
+            }
+            dateStyleCache.put(styleIndex, isDate);
+        }
+        return isDate;
+    }
+
+    @Override
+    public void close() {
+        opcPackage.revert();
+    }
+
+    /**
+     * column index of cell reference, e.g. "AB12" is 27
+     */
+    static int referenceColumn(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static class StopReadException extends SAXException {
+        private StopReadException() {
+            super("stop read");
+        }
+    }
+
+    private class SheetHandler extends DefaultHandler {
+        private final RowHandler rowHandler;
+
+        private String[] values = new String[16];
+
+        private int length;
+
+        private int rowIndex;
+
+        private int column;
+
+        private String cellType;
+
+        private int styleIndex;
+
+        private boolean inValue;
+
+        private boolean inInlineString;
+
+        private boolean inInlineText;
+
+        private boolean inFormula;
+
+        private boolean hasValue;
+
+        private BitSet projection;
+
+        private boolean skipCell;
+
+        private final StringBuilder text = new StringBuilder();
+
+        private final StringBuilder formula = new StringBuilder();
+
+        private SheetHandler(RowHandler rowHandler) {
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    for (int i = 0; i < length; i++) {
+                        values[i] = null;
+                    }
+                    length = 0;
+                    column = -1;
+                    projection = rowHandler.getProjection();
+                    break;
+                case "c":
+                    String reference = attributes.getValue("r");
+                    column = reference != null ? referenceColumn(reference) : column + 1;
+                    skipCell = projection != null && !projection.get(column);
+                    if (skipCell) {
+                        break;
+                    }
+                    cellType = attributes.getValue("t");
+                    String style = attributes.getValue("s");
+                    styleIndex = style != null ? Integer.parseInt(style) : -1;
+                    hasValue = false;
+                    text.setLength(0);
+                    formula.setLength(0);
+                    break;
+                case "v":
+                    inValue = true;
+                    text.setLength(0);
+                    break;
+                case "is":
+                    inInlineString = true;
+                    text.setLength(0);
+                    break;
+                case "t":
+                    inInlineText = inInlineString;
+                    break;
+                case "f":
+                    inFormula = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int len) {
+            if (skipCell) {
+                return;
+            }
+            if (inValue || inInlineText) {
+                text.append(ch, start, len);
+            } else if (inFormula) {
+                formula.append(ch, start, len);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v":
+                    inValue = false;
+                    hasValue = true;
+                    break;
+                case "t":
+                    inInlineText = false;
+                    break;
+                case "is":
+                    inInlineString = false;
+                    hasValue = true;
+                    break;
+                case "f":
+                    inFormula = false;
+                    break;
+                case "c":
+                    if (!skipCell) {
+                        setValue(column, cellValue());
+                    }
+                    skipCell = false;
+                    break;
+                case "row":
+                    if (!rowHandler.handleRow(rowIndex++, values, length)) {
+                        throw new StopReadException();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void setValue(int index, String value) {
+            if (index >= values.length) {
+                String[] newValues = new String[Math.max(values.length << 1, index + 1)];
+                System.arraycopy(values, 0, newValues, 0, length);
+                values = newValues;
+            }
+            values[index] = value;
+            length = Math.max(length, index + 1);
+        }
+
+        private String cellValue() {
+            if (formula.length() > 0) {
+                return formula.toString();
+            }
+            if (!hasValue) {
+                return "";
+            }
+            String value = text.toString();
+            if (cellType == null || "n".equals(cellType)) {
+                if (value.isEmpty()) {
+                    return "";
+                }
+                double doubleValue = Double.parseDouble(value);
+                if (styleIndex >= 0 && isDateStyle(styleIndex) && DateUtil.isValidExcelDate(doubleValue)) {
+                    // 转换为 long 时间
+                    return "L" + DateUtil.getJavaDate(doubleValue, date1904).getTime();
+                }
+                return NumberToTextConverter.toText(doubleValue);
+            }
+            switch (cellType) {
+                case "s":
+                    return sharedStringsTable.getItemAt(Integer.parseInt(value)).getString();
+                case "b":
+                    return String.valueOf("1".equals(value));
+                case "e":
+                    return "";
+                default:
+                    // inlineStr, str
+                    return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.shootercheng.parse.type;
+
+/**
+ * convert a char range to boolean without boxing and substring
+ * @author James
+ */
+@FunctionalInterface
+public interface BooleanConverter {
+    /**
+     * @param input input chars
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @return boolean value
+     */
+    boolean convertToBoolean(CharSequence input, int start, int end);
+}
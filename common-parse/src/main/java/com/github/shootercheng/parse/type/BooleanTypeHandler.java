@@ -4,9 +4,25 @@ package com.github.shootercheng.parse.type;
  * @author chengdu
  *
  */
-public class BooleanTypeHandler implements BaseTypeHandler {
+public class BooleanTypeHandler implements BaseTypeHandler, BooleanConverter {
+    private static final String TRUE = "true";
+
     @Override
     public Object convertStrToType(String input) {
-        return Boolean.valueOf(input);
+        return convertToBoolean(input, 0, input.length());
+    }
+
+    @Override
+    public boolean convertToBoolean(CharSequence input, int start, int end) {
+        // 与 Boolean.valueOf 相同, 忽略大小写
+        if (end - start != TRUE.length()) {
+            return false;
+        }
+        for (int i = 0; i < TRUE.length(); i++) {
+            if (Character.toLowerCase(input.charAt(start + i)) != TRUE.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 }
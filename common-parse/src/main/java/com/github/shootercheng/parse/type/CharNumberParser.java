@@ -0,0 +1,84 @@
+package com.github.shootercheng.parse.type;
+
+/**
+ * parse numbers from a char range, same results as Long.parseLong and Double.parseDouble.
+ * double is parsed directly when the digits fit the exact double range, otherwise by Double.parseDouble
+ * @author James
+ */
+final class CharNumberParser {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private CharNumberParser() {
+    }
+
+    static long parseLong(CharSequence input, int start, int end, long min, long max) {
+        if (start >= end) {
+            throw numberFormatError(input, start, end);
+        }
+        int pos = start;
+        char first = input.charAt(pos);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            if (++pos == end) {
+                throw numberFormatError(input, start, end);
+            }
+        }
+        // 按负数累加, 避免 Long.MIN_VALUE 溢出
+        long limit = negative ? min : -max;
+        long value = 0;
+        while (pos < end) {
+            int digit = input.charAt(pos++) - '0';
+            if (digit < 0 || digit > 9 || value < limit / 10) {
+                throw numberFormatError(input, start, end);
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                throw numberFormatError(input, start, end);
+            }
+            value -= digit;
+        }
+        return negative ? value : -value;
+    }
+
+    static double parseDouble(CharSequence input, int start, int end) {
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (input.charAt(pos) == '-' || input.charAt(pos) == '+')) {
+            negative = input.charAt(pos++) == '-';
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; pos < end; pos++) {
+            char c = input.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + c - '0';
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (++digits > MAX_EXACT_DIGITS) {
+                    break;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (pos < end || digits == 0) {
+            // 指数, 空白, 超长数字等
+            return Double.parseDouble(input.subSequence(start, end).toString());
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    static NumberFormatException numberFormatError(CharSequence input, int start, int end) {
+        return new NumberFormatException("For input string: \"" + input.subSequence(start, end) + "\"");
+    }
+}
@@ -1,6 +1,6 @@
 package com.github.shootercheng.parse.type;
 
-import com.github.shootercheng.parse.utils.DateUtil;
+import com.github.shootercheng.parse.utils.DateParser;
 
 import java.util.Date;
 
@@ -9,12 +9,14 @@ import java.util.Date;
  *
  */
 public class DateTypeHandler implements BaseTypeHandler {
+    private final DateParser dateParser = new DateParser();
+
     @Override
     public Object convertStrToType(String input) {
         if (input.startsWith("L")) {
             long longDate = Long.valueOf(input.substring(1).trim());
             return new Date(longDate);
         }
-        return DateUtil.parseStrToDate(input);
+        return dateParser.parse(input);
     }
 }
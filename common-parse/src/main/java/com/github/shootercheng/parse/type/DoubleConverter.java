@@ -0,0 +1,16 @@
+package com.github.shootercheng.parse.type;
+
+/**
+ * convert a char range to double without boxing and substring
+ * @author James
+ */
+@FunctionalInterface
+public interface DoubleConverter {
+    /**
+     * @param input input chars
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @return double value
+     */
+    double convertToDouble(CharSequence input, int start, int end);
+}
@@ -4,9 +4,14 @@ package com.github.shootercheng.parse.type;
  * @author chengdu
  *
  */
-public class DoubleTypeHandler implements BaseTypeHandler {
+public class DoubleTypeHandler implements BaseTypeHandler, DoubleConverter {
     @Override
     public Object convertStrToType(String input) {
-        return Double.valueOf(input);
+        return convertToDouble(input, 0, input.length());
+    }
+
+    @Override
+    public double convertToDouble(CharSequence input, int start, int end) {
+        return CharNumberParser.parseDouble(input, start, end);
     }
 }
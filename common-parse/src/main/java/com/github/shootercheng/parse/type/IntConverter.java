@@ -0,0 +1,16 @@
+package com.github.shootercheng.parse.type;
+
+/**
+ * convert a char range to int without boxing and substring
+ * @author James
+ */
+@FunctionalInterface
+public interface IntConverter {
+    /**
+     * @param input input chars
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @return int value
+     */
+    int convertToInt(CharSequence input, int start, int end);
+}
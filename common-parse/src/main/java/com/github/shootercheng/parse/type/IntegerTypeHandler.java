@@ -4,14 +4,21 @@ package com.github.shootercheng.parse.type;
  * @author chengdu
  *
  */
-public class IntegerTypeHandler implements BaseTypeHandler {
+public class IntegerTypeHandler implements BaseTypeHandler, IntConverter {
     @Override
     public Object convertStrToType(String input) {
+        return convertToInt(input, 0, input.length());
+    }
+
+    @Override
+    public int convertToInt(CharSequence input, int start, int end) {
         // 小数点数据转换为 1
-        int dotIndex = input.indexOf(".");
-        if (dotIndex != -1) {
-            input = input.substring(0, dotIndex);
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) == '.') {
+                end = i;
+                break;
+            }
         }
-        return Integer.valueOf(input);
+        return (int) CharNumberParser.parseLong(input, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
     }
 }
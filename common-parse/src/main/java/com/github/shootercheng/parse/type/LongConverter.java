@@ -0,0 +1,16 @@
+package com.github.shootercheng.parse.type;
+
+/**
+ * convert a char range to long without boxing and substring
+ * @author James
+ */
+@FunctionalInterface
+public interface LongConverter {
+    /**
+     * @param input input chars
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @return long value
+     */
+    long convertToLong(CharSequence input, int start, int end);
+}
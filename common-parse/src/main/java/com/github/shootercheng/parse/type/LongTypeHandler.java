@@ -4,10 +4,15 @@ package com.github.shootercheng.parse.type;
  * @author chengdu
  *
  */
-public class LongTypeHandler implements BaseTypeHandler{
+public class LongTypeHandler implements BaseTypeHandler, LongConverter {
 
     @Override
     public Object convertStrToType(String input) {
-        return Long.valueOf(input);
+        return convertToLong(input, 0, input.length());
+    }
+
+    @Override
+    public long convertToLong(CharSequence input, int start, int end) {
+        return CharNumberParser.parseLong(input, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
     }
 }
@@ -0,0 +1,120 @@
+package com.github.shootercheng.parse.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * built-in date layouts, parsed by hand without regex and formatter.
+ * month and day have 1 or 2 digits, date and time are separated by 1 or 2 blanks.
+ * out of range fields roll over like a lenient SimpleDateFormat, e.g. 2019-13-01 is 2020-01-01
+ * @author James
+ */
+enum DateLayout {
+    DASH_DATE('-', 0),
+    DASH_MINUTE('-', 2),
+    DASH_SECOND('-', 3),
+    SLASH_DATE('/', 0),
+    SLASH_MINUTE('/', 2),
+    SLASH_SECOND('/', 3),
+    DOT_DATE('.', 0);
+
+    static final DateLayout[] LAYOUTS = values();
+
+    private final char separator;
+
+    private final int timeFields;
+
+    DateLayout(char separator, int timeFields) {
+        this.separator = separator;
+        this.timeFields = timeFields;
+    }
+
+    /**
+     * @param dateStr date string
+     * @return null if not this layout
+     */
+    Date parse(String dateStr) {
+        int length = dateStr.length();
+        if (length < 8 || dateStr.charAt(4) != separator) {
+            return null;
+        }
+        int year = fixedDigits(dateStr, 0, 4);
+        if (year < 0) {
+            return null;
+        }
+        // 月, 日 1 到 2 位
+        int pos = 5;
+        int month = 0;
+        int start = pos;
+        while (pos < length && pos - start < 2 && isDigit(dateStr.charAt(pos))) {
+            month = month * 10 + dateStr.charAt(pos++) - '0';
+        }
+        if (pos == start || pos >= length || dateStr.charAt(pos) != separator) {
+            return null;
+        }
+        int day = 0;
+        start = ++pos;
+        while (pos < length && pos - start < 2 && isDigit(dateStr.charAt(pos))) {
+            day = day * 10 + dateStr.charAt(pos++) - '0';
+        }
+        if (pos == start) {
+            return null;
+        }
+        if (timeFields == 0) {
+            return pos == length ? toDate(year, month, day, 0, 0, 0) : null;
+        }
+        start = pos;
+        while (pos < length && pos - start < 2 && isBlank(dateStr.charAt(pos))) {
+            pos++;
+        }
+        // HH:mm 或 HH:mm:ss
+        if (pos == start || length - pos != timeFields * 3 - 1) {
+            return null;
+        }
+        int hour = fixedDigits(dateStr, pos, 2);
+        int minute = dateStr.charAt(pos + 2) == ':' ? fixedDigits(dateStr, pos + 3, 2) : -1;
+        int second = 0;
+        if (timeFields == 3) {
+            second = dateStr.charAt(pos + 5) == ':' ? fixedDigits(dateStr, pos + 6, 2) : -1;
+        }
+        if (hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        return toDate(year, month, day, hour, minute, second);
+    }
+
+    private static int fixedDigits(String dateStr, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = dateStr.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * same as regex \s
+     */
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static Date toDate(int year, int month, int day, int hour, int minute, int second) {
+        LocalDateTime dateTime;
+        if (month >= 1 && month <= 12 && day >= 1 && day <= 28 && hour < 24 && minute < 60 && second < 60) {
+            dateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+        } else {
+            dateTime = LocalDateTime.of(year, 1, 1, 0, 0).plusMonths(month - 1L).plusDays(day - 1L)
+                    .plusHours(hour).plusMinutes(minute).plusSeconds(second);
+        }
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.shootercheng.parse.utils;
+
+import com.github.shootercheng.parse.exception.DataParseException;
+
+import java.util.Date;
+
+/**
+ * parse date strings of the built-in layouts: yyyy-MM-dd, yyyy/MM/dd, yyyy.MM.dd,
+ * and yyyy-MM-dd or yyyy/MM/dd followed by HH:mm or HH:mm:ss.
+ * the first matched layout is learned and tried first for the next values,
+ * one parser is used for one column, it is thread safe
+ * @author James
+ */
+public class DateParser {
+    private volatile DateLayout learnedLayout;
+
+    /**
+     * @param dateStr date string
+     * @return date
+     * @throws DataParseException no layout matches
+     */
+    public Date parse(String dateStr) {
+        DateLayout layout = learnedLayout;
+        if (layout != null) {
+            Date date = layout.parse(dateStr);
+            if (date != null) {
+                return date;
+            }
+        }
+        for (DateLayout candidate : DateLayout.LAYOUTS) {
+            if (candidate != layout) {
+                Date date = candidate.parse(dateStr);
+                if (date != null) {
+                    learnedLayout = candidate;
+                    return date;
+                }
+            }
+        }
+        throw new DataParseException("pattern not config or input str error " + dateStr);
+    }
+}
@@ -6,12 +6,9 @@ import org.slf4j.LoggerFactory;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.regex.Pattern;
 
 /**
  * @author chengdu
@@ -20,37 +17,22 @@ import java.util.regex.Pattern;
 public class DateUtil {
     private static final Logger LOGGER = LoggerFactory.getLogger(DateUtil.class);
 
-    private static final Map<Pattern, String> REGEX_MAP;
-    static {
-        Map<Pattern, String> map = new HashMap();
-        map.put(Pattern.compile("\\d{4}/\\d{1,2}/\\d{1,2}"), "yyyy/MM/dd");
-        map.put(Pattern.compile("\\d{4}-\\d{1,2}-\\d{1,2}"), "yyyy-MM-dd");
-        map.put(Pattern.compile("\\d{4}-\\d{1,2}-\\d{1,2}\\s{1,2}\\d{2}:\\d{2}:\\d{2}"), "yyyy-MM-dd HH:mm:ss");
-        map.put(Pattern.compile("\\d{4}-\\d{1,2}-\\d{1,2}\\s{1,2}\\d{2}:\\d{2}"), "yyyy-MM-dd HH:mm");
-        map.put(Pattern.compile("\\d{4}\\.\\d{1,2}\\.\\d{1,2}"), "yyyy.MM.dd");
-        map.put(Pattern.compile("\\d{4}/\\d{1,2}/\\d{1,2}\\s{1,2}\\d{2}:\\d{2}:\\d{2}"), "yyyy/MM/dd HH:mm:ss");
-        map.put(Pattern.compile("\\d{4}/\\d{1,2}/\\d{1,2}\\s{1,2}\\d{2}:\\d{2}"), "yyyy/MM/dd HH:mm");
-        REGEX_MAP = Collections.unmodifiableMap(map);
-    }
+    private static final DateParser DATE_PARSER = new DateParser();
+
+    private static final ThreadLocal<Map<String, SimpleDateFormat>> FORMAT_CACHE = ThreadLocal.withInitial(HashMap::new);
 
     public static Date parseStrToDate(String dateStr){
-        String pattern = null;
-        Set<Map.Entry<Pattern,String>> entrySet = REGEX_MAP.entrySet();
-        for (Map.Entry<Pattern, String> entry : entrySet){
-            if (entry.getKey().matcher(dateStr).matches()){
-                pattern = entry.getValue();
-                break;
-            }
-        }
-        if (pattern == null){
+        try {
+            return DATE_PARSER.parse(dateStr);
+        } catch (DataParseException e) {
             LOGGER.error("pattern not config or input str error {}", dateStr);
-            throw new DataParseException("pattern not config or input str error " + dateStr);
+            throw e;
         }
-        return parseStrToDate(dateStr, pattern);
     }
 
     public static Date parseStrToDate(String dateStr, String pattern) {
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern);
+        // SimpleDateFormat 非线程安全, 每个线程缓存
+        SimpleDateFormat simpleDateFormat = FORMAT_CACHE.get().computeIfAbsent(pattern, SimpleDateFormat::new);
         Date date = null;
         try {
             date = simpleDateFormat.parse(dateStr);
@@ -1,21 +1,30 @@
 package com.github.shootercheng.parse.utils;
 
-import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.common.jfr.JfrEvents;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
 import com.github.shootercheng.common.util.ReflectUtil;
 import com.github.shootercheng.common.util.StringUtils;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.bind.RowBinder;
 import com.github.shootercheng.parse.constant.CommonConstant;
 import com.github.shootercheng.parse.constant.ParseType;
 import com.github.shootercheng.parse.exception.FileParseException;
-import com.github.shootercheng.parse.exception.ParamBuildException;
 import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.define.RowFilter;
+import com.github.shootercheng.parse.parse.error.ErrorType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.lang.reflect.Method;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntFunction;
 
 /**
  * @author chengdu
@@ -42,59 +51,141 @@ public class FileParseCommonUtil {
     }
 
     /**
-     * 根据 head 字段参数 匹配每一列对应的 setXX 方法
+     * 根据 head 字段参数 匹配每一列对应的 setXX 方法, fieldHeadMap 不会被修改
      * @param clazz
      * @param parseParam
      * @param headMap
      */
     public static void buildParseParam(Class<?> clazz, ParseParam parseParam, Map<Integer, String> headMap) {
-        Map<String, List<String>> fieldHeadMap = parseParam.getFieldHeadMap();
-        Map<String, String> fieldColumnMap = new HashMap<>();
-        Set<Map.Entry<Integer, String>> entrySet = headMap.entrySet();
-        for (Map.Entry<Integer, String> entry : entrySet) {
-            Integer key = entry.getKey();
-            String excelColumn = DataUtil.COLUMN_NUM.get(key);
-            String head = entry.getValue();
-            String field = findHeadField(fieldHeadMap, head);
-            fieldColumnMap.put(excelColumn, field.toLowerCase());
-        }
-        Map<String, Method> columnSetterMap = FileParseCommonUtil.convertToColumnMethodMap(clazz, fieldColumnMap);
+        Map<String, Method> columnSetterMap = ParsePlan.compile(clazz, parseParam).mapHeadSetter(headMap);
         parseParam.setFieldSetterMap(columnSetterMap);
+    }
 
+    /**
+     * 按 head 行匹配字段, 计入 bind 时间以及 jfr 事件
+     * @param parsePlan parse plan
+     * @param headMap head map
+     * @param parseParam parse param
+     * @param <T> T
+     * @return row binder
+     */
+    public static <T> RowBinder<T> resolveHead(ParsePlan<T> parsePlan, Map<Integer, String> headMap,
+                                               ParseParam parseParam) {
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        long start = ParseMetrics.start(parseMetrics);
+        Object event = JfrEvents.beginHeadResolve();
+        RowBinder<T> rowBinder = parsePlan.getBinder(headMap);
+        JfrEvents.commitHeadResolve(event, headMap.size(), rowBinder.size());
+        ParseMetrics.stop(parseMetrics, Stage.BIND, start);
+        return rowBinder;
     }
 
     /**
-     * 找到当前 head 对应的 字段
-     * @param fieldHeadMap
-     * @param head
-     * @return 模型对应的字段
+     * 读取的列: 绑定的列以及过滤的列, 自定义解析需要整行数据时返回 null
+     * @param rowBinder row binder
+     * @param parseParam parse param
+     * @return column indexes to read, null to read all columns
      */
-    private static String findHeadField(Map<String, List<String>> fieldHeadMap, String head) {
-        Set<Map.Entry<String, List<String>>> entrySet = fieldHeadMap.entrySet();
-        String field = null;
-        for (Map.Entry<String, List<String>> entry : entrySet) {
-            String key = entry.getKey();
-            List<String> headList = entry.getValue();
-            if (isMatchHead(headList, head)) {
-                field = key;
-                break;
+    public static BitSet getProjection(RowBinder<?> rowBinder, ParseParam parseParam) {
+        if (parseParam.getBusinessDefineParse() != null) {
+            return null;
+        }
+        BitSet projection = rowBinder.getColumnSet();
+        if (parseParam.getRowFilter() != null) {
+            for (int column : parseParam.getFilterColumns()) {
+                projection.set(column);
             }
         }
-        if (field == null) {
-            throw new ParamBuildException("file head ["+ head + "] can not map bean field, " +
-                    "please check field map config");
+        return projection;
+    }
+
+    /**
+     * 创建对象之前按原始值过滤
+     * @param cellAt column index to raw cell value
+     * @param length column count of the row, columns after it are null
+     * @param parseParam parse param
+     * @return false if the row is skipped
+     */
+    public static boolean acceptRow(IntFunction<String> cellAt, int length, ParseParam parseParam) {
+        RowFilter rowFilter = parseParam.getRowFilter();
+        if (rowFilter == null) {
+            return true;
+        }
+        int[] filterColumns = parseParam.getFilterColumns();
+        String[] values = new String[filterColumns.length];
+        for (int i = 0; i < filterColumns.length; i++) {
+            values[i] = filterColumns[i] < length ? cellAt.apply(filterColumns[i]) : null;
+        }
+        return rowFilter.accept(values);
+    }
+
+    /**
+     * 记录错误, 并计数到 parse metrics
+     * @param parseParam parse param
+     * @param line line index
+     * @param column column index, -1 if the whole row
+     * @param errorType error type
+     * @param rawValue raw value
+     */
+    public static void writeError(ParseParam parseParam, long line, int column, ErrorType errorType, Object rawValue) {
+        parseParam.getErrorRecord().writeError(line, column, errorType, rawValue);
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        if (parseMetrics != null) {
+            parseMetrics.addErrors(1);
+        }
+    }
+
+    public static void beginMetrics(ParseParam parseParam) {
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        if (parseMetrics != null) {
+            parseMetrics.begin();
         }
-        fieldHeadMap.remove(field);
-        return field;
     }
 
-    private static boolean isMatchHead(List<String> headList, String head) {
-        for (String value : headList) {
-            if (value.equalsIgnoreCase(head)) {
-                return true;
+    /**
+     * 解析结束, 文件大小计为处理的字节数
+     * @param parseParam parse param
+     * @param filePath file path
+     */
+    public static void endMetrics(ParseParam parseParam, String filePath) {
+        ParseMetrics parseMetrics = parseParam.getParseMetrics();
+        if (parseMetrics != null) {
+            parseMetrics.addBytes(new File(filePath).length());
+            parseMetrics.end();
+        }
+    }
+
+    /**
+     * 多 sheet 解析, sheet 共用的 metrics 只开始一次
+     * @param parseParamMap sheet parse params
+     */
+    public static void beginMetrics(Map<Integer, ParseParam> parseParamMap) {
+        for (ParseMetrics parseMetrics : distinctMetrics(parseParamMap)) {
+            parseMetrics.begin();
+        }
+    }
+
+    /**
+     * 多 sheet 解析结束, 文件大小在每个 metrics 中只计一次
+     * @param parseParamMap sheet parse params
+     * @param filePath file path
+     */
+    public static void endMetrics(Map<Integer, ParseParam> parseParamMap, String filePath) {
+        long bytes = new File(filePath).length();
+        for (ParseMetrics parseMetrics : distinctMetrics(parseParamMap)) {
+            parseMetrics.addBytes(bytes);
+            parseMetrics.end();
+        }
+    }
+
+    private static Set<ParseMetrics> distinctMetrics(Map<Integer, ParseParam> parseParamMap) {
+        Set<ParseMetrics> metricsSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ParseParam parseParam : parseParamMap.values()) {
+            if (parseParam.getParseMetrics() != null) {
+                metricsSet.add(parseParam.getParseMetrics());
             }
         }
-        return false;
+        return metricsSet;
     }
 
     public static <T> void invokeValue( T t, Method method, String value) {
@@ -150,6 +241,9 @@ public class FileParseCommonUtil {
             if (ParseType.EASYEXCEL == parseParam.getParseType()) {
                 return ParseType.EASYEXCEL;
             }
+            if (ParseType.EXCEL_STREAM == parseParam.getParseType()) {
+                return ParseType.EXCEL_STREAM;
+            }
         }
         return parseTypeFind;
     }
@@ -0,0 +1,236 @@
+package com.github.catdou.parse;
+
+import com.alibaba.fastjson.JSON;
+import com.github.catdou.parse.model.ExcelTypeVo;
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.exception.FileParseException;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.iterator.CloseableIterator;
+import com.github.shootercheng.parse.parse.stream.RowHandler;
+import com.github.shootercheng.parse.parse.stream.XlsxStreamReader;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author James
+ */
+public class ExcelStreamParseTest {
+    private static final int ROW_COUNT = 300;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String writeExcel(String name, Workbook workbook) throws IOException {
+        File file = folder.newFile(name);
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-MM-dd"));
+            Sheet sheet = workbook.createSheet();
+            Row head = sheet.createRow(0);
+            String[] heads = {"编号", "姓名", "分数", "日期", "数字日期", "布尔"};
+            for (int i = 0; i < heads.length; i++) {
+                head.createCell(i).setCellValue(heads[i]);
+            }
+            for (int i = 0; i < ROW_COUNT; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("name" + i % 10);
+                row.createCell(2).setCellValue(i + 0.25);
+                row.createCell(3).setCellValue("2019-10-" + (i % 28 + 1));
+                row.createCell(4).setCellValue(new Date(1570000000000L + i * 86400000L));
+                row.getCell(4).setCellStyle(dateStyle);
+                row.createCell(5).setCellValue(i % 2 == 0);
+            }
+            workbook.write(outputStream);
+        } finally {
+            workbook.close();
+        }
+        return file.getPath();
+    }
+
+    private ParseParam createParam() {
+        return new ParseParam().setStartLine(1).setBatchNum(50)
+                .setParseType(ParseType.EXCEL_STREAM)
+                .setFieldSetterMap(AnnotationUtil.findOneSheetSetter(ExcelTypeVo.class));
+    }
+
+    private void checkSameAsPoi(String filePath) {
+        checkSameAsPoi(filePath, ROW_COUNT);
+    }
+
+    private void checkSameAsPoi(String filePath, int rowCount) {
+        FileParse poiParse = FileParseCreateor.createFileParse(ParseType.EXCEL);
+        List<ExcelTypeVo> expected = poiParse.parseFile(filePath, ExcelTypeVo.class, createParam());
+        FileParse streamParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath, createParam()));
+        List<ExcelTypeVo> resultList = streamParse.parseFile(filePath, ExcelTypeVo.class, createParam());
+        Assert.assertEquals(rowCount, resultList.size());
+        Assert.assertEquals(JSON.toJSONString(expected), JSON.toJSONString(resultList));
+    }
+
+    @Test
+    public void testSharedString() throws IOException {
+        checkSameAsPoi(writeExcel("shared.xlsx", new XSSFWorkbook()));
+    }
+
+    @Test
+    public void testInlineString() throws IOException {
+        checkSameAsPoi(writeExcel("inline.xlsx", new SXSSFWorkbook()));
+    }
+
+    @Test
+    public void testXls() throws IOException {
+        checkSameAsPoi(writeExcel("legacy.xls", new HSSFWorkbook()));
+    }
+
+    @Test
+    public void testXlsSparseRows() throws IOException {
+        File file = folder.newFile("sparse.xls");
+        try (Workbook workbook = new HSSFWorkbook(); OutputStream outputStream = new FileOutputStream(file)) {
+            workbook.createSheet("empty");
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("编号");
+            // 空行, 缺失的行和单元格, 公式
+            sheet.createRow(1);
+            Row row = sheet.createRow(3);
+            row.createCell(0).setCellValue(1);
+            row.createCell(1).setCellFormula("A4*2");
+            row.createCell(5).setCellValue(true);
+            row = sheet.createRow(6);
+            row.createCell(1).setCellValue("last");
+            row.createCell(2);
+            sheet.createRow(8);
+            workbook.write(outputStream);
+        }
+        List<ExcelTypeVo> resultList = FileParseCreateor.createFileParse(ParseType.EXCEL_STREAM)
+                .parseFile(file.getPath(), ExcelTypeVo.class, createParam().setSheetNum(1));
+        // 行 1, 3, 6, 8
+        Assert.assertEquals(4, resultList.size());
+        Assert.assertNull(resultList.get(0).getId());
+        Assert.assertEquals(Integer.valueOf(1), resultList.get(1).getId());
+        Assert.assertEquals("A4*2", resultList.get(1).getUserName());
+        Assert.assertTrue(resultList.get(1).getBool());
+        Assert.assertEquals("last", resultList.get(2).getUserName());
+        Assert.assertNull(resultList.get(3).getUserName());
+    }
+
+    @Test
+    public void testHeadAndConsumer() throws IOException {
+        String filePath = writeExcel("head.xlsx", new XSSFWorkbook());
+        Map<String, List<String>> fieldHeadMap = new HashMap<>();
+        fieldHeadMap.put("id", Arrays.asList("编号"));
+        fieldHeadMap.put("userName", Arrays.asList("姓名"));
+        fieldHeadMap.put("score", Arrays.asList("分数"));
+        fieldHeadMap.put("date", Arrays.asList("日期"));
+        fieldHeadMap.put("numDate", Arrays.asList("数字日期"));
+        fieldHeadMap.put("bool", Arrays.asList("布尔"));
+        List<Integer> batchSizes = new ArrayList<>();
+        List<ExcelTypeVo> consumeList = new ArrayList<>();
+        ParseParam parseParam = new ParseParam().setHeadLine(0).setStartLine(1).setBatchNum(64)
+                .setFieldHeadMap(fieldHeadMap)
+                .setDataConsumer((list, sheet) -> {
+                    batchSizes.add(list.size());
+                    consumeList.addAll(list);
+                });
+        FileParse fileParse = FileParseCreateor.createFileParse(ParseType.EXCEL_STREAM);
+        List<ExcelTypeVo> resultList = fileParse.parseFile(filePath, ExcelTypeVo.class, parseParam);
+        Assert.assertTrue(resultList.isEmpty());
+        Assert.assertEquals(ROW_COUNT, consumeList.size());
+        Assert.assertEquals(Integer.valueOf(64), batchSizes.get(0));
+        Assert.assertEquals(Integer.valueOf(ROW_COUNT - 1), consumeList.get(ROW_COUNT - 1).getId());
+        Assert.assertEquals(Double.valueOf(1.25), consumeList.get(1).getScore());
+        Assert.assertEquals(1570000000000L, consumeList.get(0).getNumDate().getTime());
+    }
+
+    @Test(timeout = 60000)
+    public void testIterator() throws IOException {
+        String filePath = writeExcel("iterator.xlsx", new XSSFWorkbook());
+        FileParse fileParse = FileParseCreateor.createFileParse(ParseType.EXCEL_STREAM);
+        try (CloseableIterator<ExcelTypeVo> iterator = fileParse.parseIterator(filePath, ExcelTypeVo.class, createParam())) {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(Integer.valueOf(i), iterator.next().getId());
+            }
+        }
+        Assert.assertEquals(ROW_COUNT, fileParse.parseStream(filePath, ExcelTypeVo.class, createParam()).count());
+        String xlsPath = writeExcel("iterator.xls", new HSSFWorkbook());
+        try (CloseableIterator<ExcelTypeVo> iterator = fileParse.parseIterator(xlsPath, ExcelTypeVo.class, createParam())) {
+            Assert.assertEquals(Integer.valueOf(0), iterator.next().getId());
+        }
+        Assert.assertEquals(ROW_COUNT, fileParse.parseStream(xlsPath, ExcelTypeVo.class, createParam()).count());
+    }
+
+    @Test
+    public void testXlsxProjection() throws IOException {
+        String filePath = writeExcel("projection.xlsx", new XSSFWorkbook());
+        List<String[]> rows = new ArrayList<>();
+        BitSet projection = new BitSet();
+        projection.set(1);
+        projection.set(4);
+        try (XlsxStreamReader reader = new XlsxStreamReader(filePath)) {
+            reader.readSheet(0, new RowHandler() {
+                @Override
+                public boolean handleRow(int rowIndex, String[] values, int length) {
+                    rows.add(Arrays.copyOf(values, length));
+                    return rowIndex < 2;
+                }
+
+                @Override
+                public BitSet getProjection() {
+                    return projection;
+                }
+            });
+        }
+        Assert.assertEquals(3, rows.size());
+        Assert.assertArrayEquals(new String[]{null, "姓名", null, null, "数字日期"}, rows.get(0));
+        Assert.assertEquals("name1", rows.get(2)[1]);
+        Assert.assertNull(rows.get(2)[0]);
+        Assert.assertTrue(rows.get(2)[4].startsWith("L"));
+        // 只映射部分列
+        Map<String, Method> setterMap = new HashMap<>(AnnotationUtil.findOneSheetSetter(ExcelTypeVo.class));
+        setterMap.keySet().retainAll(Arrays.asList("A", "B"));
+        List<ExcelTypeVo> resultList = FileParseCreateor.createFileParse(ParseType.EXCEL_STREAM)
+                .parseFile(filePath, ExcelTypeVo.class, createParam().setFieldSetterMap(setterMap));
+        Assert.assertEquals(ROW_COUNT, resultList.size());
+        Assert.assertEquals(Integer.valueOf(9), resultList.get(9).getId());
+        Assert.assertEquals("name9", resultList.get(9).getUserName());
+        Assert.assertNull(resultList.get(9).getBool());
+    }
+
+    @Test(expected = FileParseException.class)
+    public void testInstanceError() throws IOException {
+        String filePath = writeExcel("abstract.xlsx", new XSSFWorkbook());
+        Map<String, Method> setterMap = new HashMap<>();
+        setterMap.put("A", AnnotationUtil.findOneSheetSetter(ExcelTypeVo.class).get("A"));
+        // setter 属于父类, 抽象子类无法创建
+        FileParseCreateor.createFileParse(ParseType.EXCEL_STREAM)
+                .parseFile(filePath, AbstractTypeVo.class, createParam().setFieldSetterMap(setterMap));
+    }
+
+    public abstract static class AbstractTypeVo extends ExcelTypeVo {
+    }
+}
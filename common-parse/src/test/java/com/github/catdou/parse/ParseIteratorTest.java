@@ -0,0 +1,68 @@
+package com.github.catdou.parse;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.iterator.CloseableIterator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.catdou.parse.ParseTestFiles.USER_HEAD;
+import static com.github.catdou.parse.ParseTestFiles.columnParam;
+import static com.github.catdou.parse.ParseTestFiles.writeCsv;
+import static com.github.catdou.parse.ParseTestFiles.writeXlsx;
+
+/**
+ * @author James
+ */
+public class ParseIteratorTest {
+    private static final int ROW_COUNT = 500;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private void checkIterator(String filePath, ParseType parseType) {
+        FileParse fileParse = FileParseCreateor.createFileParse(parseType);
+        List<String> nameList = new ArrayList<>();
+        try (CloseableIterator<UserInfo> iterator = fileParse.parseIterator(filePath, UserInfo.class,
+                columnParam().setBatchNum(10))) {
+            while (iterator.hasNext()) {
+                nameList.add(iterator.next().getName());
+            }
+            Assert.assertFalse(iterator.hasNext());
+        }
+        Assert.assertEquals(ROW_COUNT, nameList.size());
+        Assert.assertEquals("name0", nameList.get(0));
+        Assert.assertEquals("name" + (ROW_COUNT - 1), nameList.get(ROW_COUNT - 1));
+        // 提前结束
+        try (Stream<UserInfo> stream = fileParse.parseStream(filePath, UserInfo.class,
+                columnParam().setBatchNum(10))) {
+            List<String> firstList = stream.limit(3).map(UserInfo::getName).collect(Collectors.toList());
+            Assert.assertEquals(nameList.subList(0, 3), firstList);
+        }
+    }
+
+    @Test
+    public void testCsvIterator() throws IOException {
+        checkIterator(writeCsv(folder, "iterator.csv", USER_HEAD, ROW_COUNT), ParseType.CSV);
+    }
+
+    @Test
+    public void testExcelIterator() throws IOException {
+        checkIterator(writeXlsx(folder, "iterator.xlsx", ROW_COUNT), ParseType.EXCEL);
+    }
+
+    @Test(timeout = 60000)
+    public void testEasyExcelIterator() throws IOException {
+        checkIterator(writeXlsx(folder, "iterator.xlsx", ROW_COUNT), ParseType.EASYEXCEL);
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.catdou.parse;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * test files and params of {@link UserInfo}, rows are "name{i},{f|m},{i}"
+ * @author James
+ */
+public final class ParseTestFiles {
+    public static final String USER_HEAD = "name,gender,num";
+
+    public static final String USER_CN_HEAD = "姓名,性别,编号";
+
+    private ParseTestFiles() {
+    }
+
+    public static String userRow(int i) {
+        return "name" + i + "," + (i % 2 == 0 ? "f" : "m") + "," + i;
+    }
+
+    public static String writeCsv(TemporaryFolder folder, String name, String head, int rowCount) throws IOException {
+        return writeCsv(folder, name, head, rowCount, ParseTestFiles::userRow);
+    }
+
+    /**
+     * @param rowFunction row index to csv row without line break
+     */
+    public static String writeCsv(TemporaryFolder folder, String name, String head, int rowCount,
+                                  IntFunction<String> rowFunction) throws IOException {
+        File file = folder.newFile(name);
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(head + "\r\n");
+            for (int i = 0; i < rowCount; i++) {
+                writer.write(rowFunction.apply(i) + "\r\n");
+            }
+        }
+        return file.getPath();
+    }
+
+    public static String writeXlsx(TemporaryFolder folder, String name, int rowCount) throws IOException {
+        return writeXlsx(folder, name, 1, rowCount);
+    }
+
+    /**
+     * every sheet has the same head and rows
+     */
+    public static String writeXlsx(TemporaryFolder folder, String name, int sheetCount, int rowCount)
+            throws IOException {
+        return writeXlsx(folder, name, sheetCount, USER_HEAD.split(","), rowCount, i -> userRow(i).split(","));
+    }
+
+    /**
+     * all cells are strings
+     * @param rowFunction row index to cell values
+     */
+    public static String writeXlsx(TemporaryFolder folder, String name, String[] heads, int rowCount,
+                                   IntFunction<String[]> rowFunction) throws IOException {
+        return writeXlsx(folder, name, 1, heads, rowCount, rowFunction);
+    }
+
+    private static String writeXlsx(TemporaryFolder folder, String name, int sheetCount, String[] heads,
+                                    int rowCount, IntFunction<String[]> rowFunction) throws IOException {
+        File file = folder.newFile(name);
+        try (Workbook workbook = new XSSFWorkbook(); OutputStream outputStream = new FileOutputStream(file)) {
+            for (int s = 0; s < sheetCount; s++) {
+                Sheet sheet = workbook.createSheet();
+                Row head = sheet.createRow(0);
+                for (int i = 0; i < heads.length; i++) {
+                    head.createCell(i).setCellValue(heads[i]);
+                }
+                for (int i = 0; i < rowCount; i++) {
+                    Row row = sheet.createRow(i + 1);
+                    String[] values = rowFunction.apply(i);
+                    for (int j = 0; j < values.length; j++) {
+                        row.createCell(j).setCellValue(values[j]);
+                    }
+                }
+            }
+            workbook.write(outputStream);
+        }
+        return file.getPath();
+    }
+
+    /**
+     * map {@link UserInfo} by the column annotations
+     */
+    public static ParseParam columnParam() {
+        return new ParseParam().setStartLine(1)
+                .setEncode(StandardCharsets.UTF_8.name())
+                .setFieldSetterMap(AnnotationUtil.findOneSheetSetter(UserInfo.class));
+    }
+
+    /**
+     * map {@link UserInfo} by the chinese heads
+     */
+    public static ParseParam headParam() {
+        Map<String, List<String>> fieldHeadMap = new HashMap<>();
+        fieldHeadMap.put("name", Arrays.asList("姓名"));
+        fieldHeadMap.put("gender", Arrays.asList("性别"));
+        fieldHeadMap.put("num", Arrays.asList("编号"));
+        return new ParseParam().setStartLine(1).setHeadLine(0)
+                .setEncode(StandardCharsets.UTF_8.name())
+                .setFieldHeadMap(fieldHeadMap);
+    }
+
+    public static List<String> toStringList(List<UserInfo> userInfoList) {
+        List<String> list = new ArrayList<>(userInfoList.size());
+        for (UserInfo userInfo : userInfoList) {
+            list.add(userInfo.getName() + "|" + userInfo.getGender() + "|" + userInfo.getNum());
+        }
+        return list;
+    }
+}
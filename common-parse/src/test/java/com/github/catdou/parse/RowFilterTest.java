@@ -0,0 +1,113 @@
+package com.github.catdou.parse;
+
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.iterator.CloseableIterator;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author James
+ */
+public class RowFilterTest {
+    private static final int ROW_COUNT = 90;
+
+    private static final AtomicInteger CREATED = new AtomicInteger();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ParseParam createParam(ParseType parseType) {
+        // 状态列不绑定到字段, 只用于过滤
+        Map<String, String> columnFieldMap = new HashMap<>();
+        columnFieldMap.put("A", "name");
+        columnFieldMap.put("C", "num");
+        return new ParseParam().setStartLine(1).setEncode(StandardCharsets.UTF_8.name())
+                .setParseType(parseType)
+                .setFieldSetterMap(FileParseCommonUtil.convertToColumnMethodMap(StatusVo.class, columnFieldMap))
+                .setRowFilter(values -> "1".equals(values[0]), "B");
+    }
+
+    private void checkFiltered(String filePath, ParseType parseType) {
+        ParseParam parseParam = createParam(parseType);
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath, parseParam));
+        CREATED.set(0);
+        List<StatusVo> resultList = fileParse.parseFile(filePath, StatusVo.class, parseParam);
+        Assert.assertEquals(ROW_COUNT / 3, resultList.size());
+        Assert.assertEquals(ROW_COUNT / 3, CREATED.get());
+        for (int i = 0; i < resultList.size(); i++) {
+            Assert.assertEquals("name" + (i * 3 + 1), resultList.get(i).getName());
+            Assert.assertEquals(i * 3 + 1, resultList.get(i).getNum());
+        }
+        Assert.assertTrue(parseParam.getErrorRecord().getErrorMsg().isEmpty());
+    }
+
+    @Test
+    public void testCsv() throws IOException {
+        String filePath = ParseTestFiles.writeCsv(folder, "status.csv", "name,status,num", ROW_COUNT,
+                i -> "name" + i + "," + i % 3 + "," + i);
+        checkFiltered(filePath, ParseType.CSV);
+        FileParse fileParse = FileParseCreateor.createFileParse(ParseType.CSV);
+        try (CloseableIterator<StatusVo> iterator = fileParse.parseIterator(filePath, StatusVo.class,
+                createParam(ParseType.CSV))) {
+            Assert.assertEquals(1, iterator.next().getNum());
+            Assert.assertEquals(4, iterator.next().getNum());
+        }
+        Assert.assertEquals(ROW_COUNT / 3, fileParse.parseFile(filePath, StatusVo.class,
+                createParam(ParseType.CSV).setParallelism(2)).size());
+        Assert.assertEquals(ROW_COUNT / 3, fileParse.parseFile(filePath, StatusVo.class,
+                createParam(ParseType.CSV).setPipelineThreads(2)).size());
+    }
+
+    @Test
+    public void testExcel() throws IOException {
+        String filePath = ParseTestFiles.writeXlsx(folder, "status.xlsx", new String[]{"name", "status", "num"},
+                ROW_COUNT, i -> new String[]{"name" + i, String.valueOf(i % 3), String.valueOf(i)});
+        checkFiltered(filePath, ParseType.EXCEL);
+        checkFiltered(filePath, ParseType.EXCEL_STREAM);
+        checkFiltered(filePath, ParseType.EASYEXCEL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testErrorColumn() {
+        new ParseParam().setRowFilter(values -> true, "b");
+    }
+
+    public static class StatusVo {
+        private String name;
+
+        private int num;
+
+        public StatusVo() {
+            CREATED.incrementAndGet();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getNum() {
+            return num;
+        }
+
+        public void setNum(int num) {
+            this.num = num;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.github.catdou.parse.bind;
+
+import com.github.catdou.parse.model.ReflectVo;
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.bind.ParsePlan;
+import com.github.shootercheng.parse.constant.MapperType;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.github.catdou.parse.ParseTestFiles.USER_CN_HEAD;
+import static com.github.catdou.parse.ParseTestFiles.USER_HEAD;
+import static com.github.catdou.parse.ParseTestFiles.toStringList;
+import static com.github.catdou.parse.ParseTestFiles.writeCsv;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author James
+ */
+public class ParsePlanTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Map<String, List<String>> createFieldHeadMap() {
+        Map<String, List<String>> fieldHeadMap = new HashMap<>();
+        fieldHeadMap.put("name", Arrays.asList("姓名", "name"));
+        fieldHeadMap.put("gender", Arrays.asList("性别", "gender"));
+        fieldHeadMap.put("num", Arrays.asList("编号", "num"));
+        return fieldHeadMap;
+    }
+
+    private ParseParam createParam() {
+        return new ParseParam().setStartLine(1).setHeadLine(0).setEncode(StandardCharsets.UTF_8.name());
+    }
+
+    @Test
+    public void testParamNotChanged() throws IOException {
+        String filePath = writeCsv(folder, "head.csv", USER_CN_HEAD, 100);
+        Map<String, List<String>> fieldHeadMap = createFieldHeadMap();
+        ParseParam parseParam = createParam().setFieldHeadMap(fieldHeadMap);
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath));
+        List<UserInfo> first = fileParse.parseFile(filePath, UserInfo.class, parseParam);
+        Assert.assertEquals(3, fieldHeadMap.size());
+        Assert.assertEquals(MapperType.HEAD, parseParam.getMapperType());
+        Assert.assertNull(parseParam.getFieldSetterMap());
+        // 同一参数再次解析
+        String otherPath = writeCsv(folder, "other.csv", USER_CN_HEAD, 100);
+        Assert.assertEquals(toStringList(first), toStringList(fileParse.parseFile(otherPath, UserInfo.class, parseParam)));
+        Assert.assertEquals(100, first.size());
+        Assert.assertEquals("name99|m|99", toStringList(first).get(99));
+    }
+
+    @Test(timeout = 60000)
+    public void testSharedPlan() throws Exception {
+        String cnPath = writeCsv(folder, "cn.csv", USER_CN_HEAD, 2000);
+        String enPath = writeCsv(folder, "en.csv", USER_HEAD, 2000);
+        ParsePlan<UserInfo> parsePlan = ParsePlan.compile(UserInfo.class, createParam().setFieldHeadMap(createFieldHeadMap()));
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(cnPath));
+        List<String> expected = toStringList(fileParse.parseFile(cnPath, UserInfo.class,
+                createParam().setFieldHeadMap(createFieldHeadMap())));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<UserInfo>>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String filePath = i % 2 == 0 ? cnPath : enPath;
+                futures.add(executor.submit(() -> fileParse.parseFile(filePath, UserInfo.class,
+                        createParam().setParsePlan(parsePlan))));
+            }
+            for (Future<List<UserInfo>> future : futures) {
+                Assert.assertEquals(expected, toStringList(future.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMapHeadSetter() {
+        ParsePlan<UserInfo> parsePlan = ParsePlan.compile(UserInfo.class, createParam().setFieldHeadMap(createFieldHeadMap()));
+        Map<Integer, String> headMap = new HashMap<>();
+        headMap.put(0, "NUM");
+        headMap.put(2, "姓名");
+        Map<String, Method> setterMap = parsePlan.mapHeadSetter(headMap);
+        Assert.assertEquals("setNum", setterMap.get("A").getName());
+        Assert.assertEquals("setName", setterMap.get("C").getName());
+        Assert.assertSame(parsePlan.getBinder(headMap), parsePlan.getBinder(new HashMap<>(headMap)));
+        try {
+            ParsePlan.of(ReflectVo.class, createParam().setParsePlan(parsePlan));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains(ReflectVo.class.getName()));
+        }
+    }
+
+    @Test
+    public void testUnmappedHeadIgnored() throws IOException {
+        String filePath = writeCsv(folder, "extra.csv", "备注, NAME ,Gender,num,other", 10);
+        List<String> lines = Files.readAllLines(new File(filePath).toPath(), StandardCharsets.UTF_8);
+        List<String> extraLines = new ArrayList<>();
+        extraLines.add(lines.get(0));
+        for (int i = 1; i < lines.size(); i++) {
+            extraLines.add("r" + i + "," + lines.get(i) + ",x");
+        }
+        Files.write(new File(filePath).toPath(), extraLines, StandardCharsets.UTF_8);
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath));
+        List<UserInfo> userInfoList = fileParse.parseFile(filePath, UserInfo.class,
+                createParam().setFieldHeadMap(createFieldHeadMap()));
+        Assert.assertEquals(10, userInfoList.size());
+        Assert.assertEquals("name9|m|9", toStringList(userInfoList).get(9));
+    }
+
+    @Test
+    public void testHeadCache() {
+        ParsePlan<UserInfo> parsePlan = ParsePlan.compile(UserInfo.class, createParam().setFieldHeadMap(createFieldHeadMap()));
+        Map<Integer, String> headMap = new HashMap<>();
+        headMap.put(0, "name");
+        headMap.put(1, "编号");
+        Map<Integer, String> sameHeadMap = new HashMap<>(headMap);
+        Assert.assertSame(parsePlan.getBinder(headMap), parsePlan.getBinder(sameHeadMap));
+        sameHeadMap.put(1, "gender");
+        Assert.assertEquals("setGender", parsePlan.mapHeadSetter(sameHeadMap).get("B").getName());
+        Assert.assertEquals(2, parsePlan.getBinder(sameHeadMap).size());
+        // 同名 head 依次对应配置中的字段
+        Map<String, List<String>> fieldHeadMap = new LinkedHashMap<>();
+        fieldHeadMap.put("name", Arrays.asList("名称"));
+        fieldHeadMap.put("gender", Arrays.asList("名称"));
+        ParsePlan<UserInfo> samePlan = ParsePlan.compile(UserInfo.class, createParam().setFieldHeadMap(fieldHeadMap));
+        headMap.clear();
+        headMap.put(1, "名称");
+        headMap.put(0, "名称");
+        Map<String, Method> setterMap = samePlan.mapHeadSetter(headMap);
+        Assert.assertEquals("setName", setterMap.get("A").getName());
+        Assert.assertEquals("setGender", setterMap.get("B").getName());
+    }
+
+    @Test
+    public void testPlanOf() {
+        // 没有设置 plan 时每次解析重新编译, 不做全局缓存
+        ParseParam parseParam = createParam().setFieldHeadMap(createFieldHeadMap());
+        Assert.assertNotSame(ParsePlan.of(UserInfo.class, parseParam), ParsePlan.of(UserInfo.class, parseParam));
+        ParsePlan<UserInfo> parsePlan = ParsePlan.compile(UserInfo.class, parseParam);
+        Assert.assertSame(parsePlan, ParsePlan.of(UserInfo.class, createParam().setParsePlan(parsePlan)));
+        Map<String, Method> setterMap = AnnotationUtil.findOneSheetSetter(UserInfo.class);
+        Assert.assertEquals(3, ParsePlan.of(UserInfo.class, createParam().setFieldSetterMap(setterMap))
+                .getBinder().size());
+    }
+}
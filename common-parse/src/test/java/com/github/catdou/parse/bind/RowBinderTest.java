@@ -0,0 +1,222 @@
+package com.github.catdou.parse.bind;
+
+import com.github.catdou.parse.ParseTestFiles;
+import com.github.catdou.parse.model.ExcelTypeVo;
+import com.github.shootercheng.common.util.ReflectUtil;
+import com.github.shootercheng.parse.bind.RowBinder;
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.exception.FileParseException;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author James
+ */
+public class RowBinderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private <T> T bindRow(RowBinder<T> rowBinder, String[] row) throws Exception {
+        T t = rowBinder.newInstance();
+        for (int i = 0; i < rowBinder.size(); i++) {
+            rowBinder.bind(t, i, row[rowBinder.getColumn(i)]);
+        }
+        return t;
+    }
+
+    @Test
+    public void testBind() throws Exception {
+        Map<String, Method> setterMap = AnnotationUtil.findOneSheetSetter(ExcelTypeVo.class);
+        RowBinder<ExcelTypeVo> rowBinder = RowBinder.compile(ExcelTypeVo.class, setterMap);
+        // binder 不缓存, 由 ParsePlan 持有
+        Assert.assertNotSame(rowBinder, RowBinder.compile(ExcelTypeVo.class, new HashMap<>(setterMap)));
+        Assert.assertEquals(6, rowBinder.size());
+        for (int i = 0; i < rowBinder.size(); i++) {
+            Assert.assertEquals(i, rowBinder.getColumn(i));
+        }
+        Assert.assertEquals("F", rowBinder.getColumnName(5));
+        ExcelTypeVo vo = bindRow(rowBinder, new String[]{"12.0", "james", "1.5", "2019-10-01", "L0", "true"});
+        Assert.assertEquals(Integer.valueOf(12), vo.getId());
+        Assert.assertEquals("james", vo.getUserName());
+        Assert.assertEquals(Double.valueOf(1.5), vo.getScore());
+        Assert.assertEquals(0L, vo.getNumDate().getTime());
+        Assert.assertTrue(vo.getBool());
+        // 空值不设置
+        vo = bindRow(rowBinder, new String[]{"", null, "", "", "", ""});
+        Assert.assertNull(vo.getId());
+        Assert.assertNull(vo.getUserName());
+    }
+
+    @Test
+    public void testPrimitiveAndNotPublic() throws Exception {
+        Map<String, Method> beanSetter = ReflectUtil.getBeanSetterMap(PrimitiveVo.class);
+        Map<String, Method> setterMap = new HashMap<>();
+        setterMap.put("A", beanSetter.get("num"));
+        setterMap.put("B", beanSetter.get("amount"));
+        setterMap.put("C", beanSetter.get("flag"));
+        setterMap.put("D", beanSetter.get("count"));
+        RowBinder<PrimitiveVo> rowBinder = RowBinder.compile(PrimitiveVo.class, setterMap);
+        PrimitiveVo vo = bindRow(rowBinder, new String[]{"3", "2.5", "true", "9"});
+        Assert.assertEquals(3, vo.num);
+        Assert.assertEquals(2.5, vo.amount, 0);
+        Assert.assertTrue(vo.flag);
+        Assert.assertEquals(9L, vo.count);
+    }
+
+    @Test
+    public void testPublicPrimitive() throws Exception {
+        Map<String, Method> beanSetter = ReflectUtil.getBeanSetterMap(PublicPrimitiveVo.class);
+        Map<String, Method> setterMap = new HashMap<>();
+        setterMap.put("A", beanSetter.get("num"));
+        setterMap.put("B", beanSetter.get("amount"));
+        setterMap.put("C", beanSetter.get("flag"));
+        setterMap.put("D", beanSetter.get("count"));
+        RowBinder<PublicPrimitiveVo> rowBinder = RowBinder.compile(PublicPrimitiveVo.class, setterMap);
+        PublicPrimitiveVo vo = bindRow(rowBinder, new String[]{"-3.7", "2.25", "TRUE", "9000000000"});
+        Assert.assertEquals(-3, vo.num);
+        Assert.assertEquals(2.25, vo.amount, 0);
+        Assert.assertTrue(vo.flag);
+        Assert.assertEquals(9000000000L, vo.count);
+        try {
+            bindRow(rowBinder, new String[]{"x", "", "", ""});
+            Assert.fail();
+        } catch (NumberFormatException e) {
+            Assert.assertTrue(e.getMessage().contains("x"));
+        }
+    }
+
+    @Test
+    public void testBindRange() throws Exception {
+        Map<String, Method> beanSetter = ReflectUtil.getBeanSetterMap(PublicPrimitiveVo.class);
+        Map<String, Method> setterMap = new HashMap<>();
+        setterMap.put("A", beanSetter.get("num"));
+        setterMap.put("B", beanSetter.get("amount"));
+        setterMap.put("C", beanSetter.get("flag"));
+        setterMap.put("D", beanSetter.get("count"));
+        RowBinder<PublicPrimitiveVo> rowBinder = RowBinder.compile(PublicPrimitiveVo.class, setterMap);
+        PublicPrimitiveVo vo = rowBinder.newInstance();
+        String chars = "x-3.7|2.25TRUE9000000000";
+        rowBinder.bind(vo, 0, chars, 1, 5);
+        rowBinder.bind(vo, 1, chars, 6, 10);
+        rowBinder.bind(vo, 2, chars, 10, 14);
+        rowBinder.bind(vo, 3, chars, 14, chars.length());
+        Assert.assertEquals(-3, vo.num);
+        Assert.assertEquals(2.25, vo.amount, 0);
+        Assert.assertTrue(vo.flag);
+        Assert.assertEquals(9000000000L, vo.count);
+        // csv 从读取缓冲区绑定
+        File file = folder.newFile("primitive.csv");
+        Files.write(file.toPath(), Arrays.asList("-3.7,\"2.25\",TRUE,9000000000", "1,,,"), StandardCharsets.UTF_8);
+        ParseParam parseParam = new ParseParam().setEncode(StandardCharsets.UTF_8.name())
+                .setParseType(ParseType.CSV).setFieldSetterMap(setterMap);
+        List<PublicPrimitiveVo> voList = FileParseCreateor.createFileParse(ParseType.CSV)
+                .parseFile(file.getPath(), PublicPrimitiveVo.class, parseParam);
+        Assert.assertEquals(2, voList.size());
+        Assert.assertEquals(-3, voList.get(0).num);
+        Assert.assertEquals(2.25, voList.get(0).amount, 0);
+        Assert.assertEquals(9000000000L, voList.get(0).count);
+        Assert.assertEquals(1, voList.get(1).num);
+        Assert.assertEquals(0L, voList.get(1).count);
+    }
+
+    @Test(expected = FileParseException.class)
+    public void testInstanceError() throws IOException {
+        File file = folder.newFile("abstract.csv");
+        Files.write(file.toPath(), Collections.singletonList("1,2,true,3"), StandardCharsets.UTF_8);
+        Map<String, Method> beanSetter = ReflectUtil.getBeanSetterMap(AbstractVo.class);
+        Map<String, Method> setterMap = new HashMap<>();
+        setterMap.put("A", beanSetter.get("num"));
+        ParseParam parseParam = new ParseParam().setEncode(StandardCharsets.UTF_8.name())
+                .setParseType(ParseType.CSV).setFieldSetterMap(setterMap);
+        // 不能创建实例时抛出异常, 而不是当作空行
+        FileParseCreateor.createFileParse(ParseType.CSV).parseFile(file.getPath(), AbstractVo.class, parseParam);
+    }
+
+    @Test(expected = FileParseException.class)
+    public void testEasyExcelInstanceError() throws IOException {
+        String filePath = ParseTestFiles.writeXlsx(folder, "abstract.xlsx", 1);
+        Map<String, Method> beanSetter = ReflectUtil.getBeanSetterMap(AbstractVo.class);
+        Map<String, Method> setterMap = new HashMap<>();
+        setterMap.put("C", beanSetter.get("num"));
+        ParseParam parseParam = new ParseParam().setStartLine(1).setParseType(ParseType.EASYEXCEL)
+                .setFieldSetterMap(setterMap);
+        FileParseCreateor.createFileParse(ParseType.EASYEXCEL).parseFile(filePath, AbstractVo.class, parseParam);
+    }
+
+    public abstract static class AbstractVo {
+        private int num;
+
+        public void setNum(int num) {
+            this.num = num;
+        }
+    }
+
+    public static class PublicPrimitiveVo {
+        private int num;
+
+        private double amount;
+
+        private boolean flag;
+
+        private long count;
+
+        public void setNum(int num) {
+            this.num = num;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public void setFlag(boolean flag) {
+            this.flag = flag;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    static class PrimitiveVo {
+        private int num;
+
+        private double amount;
+
+        private boolean flag;
+
+        private long count;
+
+        public void setNum(int num) {
+            this.num = num;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public void setFlag(boolean flag) {
+            this.flag = flag;
+        }
+
+        void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.catdou.parse.consumer;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.exception.FileParseException;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.consumer.BatchPool;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.catdou.parse.ParseTestFiles.USER_HEAD;
+import static com.github.catdou.parse.ParseTestFiles.columnParam;
+import static com.github.catdou.parse.ParseTestFiles.writeCsv;
+import static com.github.catdou.parse.ParseTestFiles.writeXlsx;
+
+/**
+ * @author James
+ */
+public class BatchConsumerTest {
+    private static final int ROW_COUNT = 1000;
+
+    private static final int BATCH_NUM = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ParseParam createParam(ParseType parseType) {
+        return columnParam().setBatchNum(BATCH_NUM).setParseType(parseType);
+    }
+
+    /**
+     * 消费者保留每个 batch, batch 不会被解析修改
+     */
+    private void checkOwnedBatches(String filePath, ParseParam parseParam) {
+        List<List<UserInfo>> batches = new ArrayList<>();
+        parseParam.setDataConsumer((list, sheet) -> batches.add(list));
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath, parseParam));
+        Assert.assertTrue(fileParse.parseFile(filePath, UserInfo.class, parseParam).isEmpty());
+        Map<List<UserInfo>, Boolean> distinct = new IdentityHashMap<>();
+        List<String> names = new ArrayList<>();
+        for (List<UserInfo> batch : batches) {
+            Assert.assertNull(distinct.put(batch, Boolean.TRUE));
+            Assert.assertTrue(batch.size() <= BATCH_NUM);
+            for (UserInfo userInfo : batch) {
+                names.add(userInfo.getName());
+            }
+        }
+        Assert.assertEquals((ROW_COUNT + BATCH_NUM - 1) / BATCH_NUM, batches.size());
+        Assert.assertEquals(ROW_COUNT, names.size());
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Assert.assertEquals("name" + i, names.get(i));
+        }
+    }
+
+    @Test
+    public void testCsvOwnedBatches() throws IOException {
+        String filePath = writeCsv(folder, "batch.csv", USER_HEAD, ROW_COUNT);
+        checkOwnedBatches(filePath, createParam(ParseType.CSV));
+        checkOwnedBatches(filePath, createParam(ParseType.CSV).setPipelineThreads(2));
+        checkOwnedBatches(filePath, createParam(ParseType.CSV).setParallelism(2));
+    }
+
+    @Test
+    public void testExcelOwnedBatches() throws IOException {
+        String filePath = writeXlsx(folder, "batch.xlsx", ROW_COUNT);
+        checkOwnedBatches(filePath, createParam(ParseType.EXCEL));
+        checkOwnedBatches(filePath, createParam(ParseType.EXCEL_STREAM));
+        checkOwnedBatches(filePath, createParam(ParseType.EASYEXCEL));
+    }
+
+    @Test
+    public void testReleasedBatchReused() throws IOException {
+        String filePath = writeCsv(folder, "batch.csv", USER_HEAD, ROW_COUNT);
+        BatchPool<UserInfo> batchPool = new BatchPool<>(BATCH_NUM, 1);
+        Map<List<UserInfo>, Boolean> distinct = Collections.synchronizedMap(new IdentityHashMap<>());
+        AtomicInteger sum = new AtomicInteger();
+        ParseParam parseParam = createParam(ParseType.CSV).setBatchPool(batchPool)
+                .setDataConsumer((list, sheet) -> {
+                    distinct.put(list, Boolean.TRUE);
+                    sum.addAndGet(list.size());
+                    batchPool.release(list);
+                });
+        FileParseCreateor.createFileParse(ParseType.CSV).parseFile(filePath, UserInfo.class, parseParam);
+        Assert.assertEquals(ROW_COUNT, sum.get());
+        Assert.assertEquals(1, distinct.size());
+    }
+
+    @Test(timeout = 60000)
+    public void testPoolBoundsInFlightBatches() throws Exception {
+        String filePath = writeXlsx(folder, "batch.xlsx", ROW_COUNT);
+        int capacity = 3;
+        BatchPool<UserInfo> batchPool = new BatchPool<>(BATCH_NUM, capacity);
+        BlockingQueue<List<UserInfo>> queue = new ArrayBlockingQueue<>(ROW_COUNT);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger sum = new AtomicInteger();
+        // 慢消费者在另一个线程中处理并归还
+        Thread worker = new Thread(() -> {
+            try {
+                while (sum.get() < ROW_COUNT) {
+                    List<UserInfo> batch = queue.take();
+                    Thread.sleep(2);
+                    sum.addAndGet(batch.size());
+                    inFlight.decrementAndGet();
+                    batchPool.release(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        ParseParam parseParam = createParam(ParseType.EXCEL_STREAM).setBatchPool(batchPool)
+                .setDataConsumer((list, sheet) -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    queue.add(list);
+                });
+        FileParseCreateor.createFileParse(ParseType.EXCEL_STREAM).parseFile(filePath, UserInfo.class, parseParam);
+        worker.join();
+        Assert.assertEquals(ROW_COUNT, sum.get());
+        Assert.assertTrue(maxInFlight.get() <= capacity);
+    }
+
+    @Test(timeout = 60000)
+    public void testFailedParseReleasesBatch() throws IOException {
+        String csvPath = writeCsv(folder, "batch.csv", USER_HEAD, ROW_COUNT);
+        String xlsxPath = writeXlsx(folder, "batch.xlsx", ROW_COUNT);
+        BatchPool<UserInfo> batchPool = new BatchPool<>(BATCH_NUM, 1, 5000);
+        List<ParseParam> paramList = Arrays.asList(createParam(ParseType.CSV),
+                createParam(ParseType.CSV).setPipelineThreads(2),
+                createParam(ParseType.CSV).setParallelism(2),
+                createParam(ParseType.EXCEL),
+                createParam(ParseType.EXCEL_STREAM));
+        for (ParseParam parseParam : paramList) {
+            String filePath = parseParam.getParseType() == ParseType.CSV ? csvPath : xlsxPath;
+            FileParse fileParse = FileParseCreateor.createFileParse(parseParam.getParseType());
+            // batch 未满时转换失败, 池中的 batch 需要归还
+            parseParam.setBatchPool(batchPool).setDataConsumer((list, sheet) -> batchPool.release(list))
+                    .setCellFormat((column, cellValue) -> {
+                        if ("name100".equals(cellValue)) {
+                            throw new IllegalStateException("convert error");
+                        }
+                        return cellValue;
+                    });
+            try {
+                fileParse.parseFile(filePath, UserInfo.class, parseParam);
+                Assert.fail();
+            } catch (FileParseException e) {
+                Assert.assertNotNull(e.getCause());
+            }
+            AtomicInteger sum = new AtomicInteger();
+            ParseParam reuseParam = createParam(parseParam.getParseType()).setBatchPool(batchPool)
+                    .setDataConsumer((list, sheet) -> {
+                        sum.addAndGet(list.size());
+                        batchPool.release(list);
+                    });
+            fileParse.parseFile(filePath, UserInfo.class, reuseParam);
+            Assert.assertEquals(ROW_COUNT, sum.get());
+        }
+    }
+
+    @Test(expected = FileParseException.class)
+    public void testAcquireTimeout() {
+        BatchPool<UserInfo> batchPool = new BatchPool<>(BATCH_NUM, 1, 10);
+        batchPool.acquire();
+        // 没有归还时不会一直等待
+        batchPool.acquire();
+    }
+}
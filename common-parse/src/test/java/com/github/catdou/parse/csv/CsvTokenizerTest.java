@@ -0,0 +1,159 @@
+package com.github.catdou.parse.csv;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.csv.CsvTokenizer;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * @author James
+ */
+public class CsvTokenizerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<String[]> tokenize(String input, char delimiter) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(input), delimiter)) {
+            while (tokenizer.nextRecord()) {
+                records.add(tokenizer.getFields());
+            }
+        }
+        return records;
+    }
+
+    @Test
+    public void testPlain() throws IOException {
+        List<String[]> records = tokenize("1,2,3\n4,,6\r\n7,8,", ',');
+        Assert.assertEquals(3, records.size());
+        Assert.assertArrayEquals(new String[]{"1", "2", "3"}, records.get(0));
+        Assert.assertArrayEquals(new String[]{"4", "", "6"}, records.get(1));
+        Assert.assertArrayEquals(new String[]{"7", "8", ""}, records.get(2));
+    }
+
+    @Test
+    public void testQuoted() throws IOException {
+        List<String[]> records = tokenize("\"james0,1233,322\",\"a\"\"b\",\"\"\n\"x\",y", ',');
+        Assert.assertEquals(2, records.size());
+        Assert.assertArrayEquals(new String[]{"james0,1233,322", "a\"b", ""}, records.get(0));
+        Assert.assertArrayEquals(new String[]{"x", "y"}, records.get(1));
+    }
+
+    @Test
+    public void testFieldChars() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("12,\"a\"\"b\",,-3.5\nx"), ',')) {
+            Assert.assertTrue(tokenizer.nextRecord());
+            CharSequence fieldChars = tokenizer.getFieldChars();
+            for (int i = 0; i < tokenizer.getFieldCount(); i++) {
+                Assert.assertEquals(tokenizer.getField(i),
+                        fieldChars.subSequence(tokenizer.getFieldStart(i), tokenizer.getFieldEnd(i)).toString());
+            }
+            Assert.assertEquals(tokenizer.getFieldStart(3), tokenizer.getFieldEnd(2));
+            Assert.assertTrue(tokenizer.nextRecord());
+            // 下一条记录复用同一个缓冲区
+            Assert.assertSame(fieldChars, tokenizer.getFieldChars());
+            Assert.assertEquals("x", fieldChars.toString());
+        }
+    }
+
+    @Test
+    public void testMultiLine() throws IOException {
+        String input = "1,\"line1\r\nline2\",3\r\n4,5,6\r\n";
+        List<String[]> records = new ArrayList<>();
+        List<Long> lineNumbers = new ArrayList<>();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(input), ',')) {
+            while (tokenizer.nextRecord()) {
+                records.add(tokenizer.getFields());
+                lineNumbers.add(tokenizer.getRecordLineNumber());
+            }
+        }
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals("line1\r\nline2", records.get(0)[1]);
+        Assert.assertArrayEquals(new String[]{"4", "5", "6"}, records.get(1));
+        Assert.assertEquals(Long.valueOf(2), lineNumbers.get(1));
+    }
+
+    @Test
+    public void testDelimiter() throws IOException {
+        List<String[]> records = tokenize("a;\"b;c\";d", ';');
+        Assert.assertArrayEquals(new String[]{"a", "b;c", "d"}, records.get(0));
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("1\t2,3"), ',', '\t')) {
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertEquals(3, tokenizer.getFieldCount());
+            Assert.assertEquals("3", tokenizer.getField(2));
+            Assert.assertNull(tokenizer.getField(3));
+        }
+    }
+
+    @Test
+    public void testBlankLine() throws IOException {
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("a\n\n\"\"\nb"), ',')) {
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertFalse(tokenizer.isBlankRecord());
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertTrue(tokenizer.isBlankRecord());
+            // 引号中的空值不是空行
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertFalse(tokenizer.isBlankRecord());
+            Assert.assertEquals("", tokenizer.getField(0));
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertEquals("b", tokenizer.getField(0));
+            Assert.assertFalse(tokenizer.nextRecord());
+        }
+    }
+
+    @Test
+    public void testParseQuotedFile() throws IOException {
+        File file = folder.newFile("quote.csv");
+        String content = "name,gender,num\r\n\"cheng,du\",\"m\",\"1\"\"2\"\r\njames,f,\r\n";
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        String filePath = file.getPath();
+        ParseParam parseParam = new ParseParam().setStartLine(1)
+                .setEncode(StandardCharsets.UTF_8.name())
+                .setFieldSetterMap(AnnotationUtil.findOneSheetSetter(UserInfo.class));
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath));
+        List<UserInfo> userInfoList = fileParse.parseFile(filePath, UserInfo.class, parseParam);
+        Assert.assertEquals(2, userInfoList.size());
+        Assert.assertEquals("cheng,du", userInfoList.get(0).getName());
+        Assert.assertEquals("1\"2", userInfoList.get(0).getNum());
+        Assert.assertNull(userInfoList.get(1).getNum());
+    }
+
+    @Test
+    public void testProjection() throws IOException {
+        BitSet projection = new BitSet();
+        projection.set(1);
+        projection.set(3);
+        try (CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("a,b,\"c,\"\"c\",d,e\n\nx\n,y\r\n"), ',')) {
+            tokenizer.setProjection(projection);
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertArrayEquals(new String[]{"", "b", "", "d", ""}, tokenizer.getFields());
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertTrue(tokenizer.isBlankRecord());
+            // 只有未读取的列有值, 不是空行
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertFalse(tokenizer.isBlankRecord());
+            Assert.assertEquals("", tokenizer.getField(0));
+            Assert.assertTrue(tokenizer.nextRecord());
+            Assert.assertArrayEquals(new String[]{"", "y"}, tokenizer.getFields());
+            Assert.assertFalse(tokenizer.nextRecord());
+        }
+    }
+}
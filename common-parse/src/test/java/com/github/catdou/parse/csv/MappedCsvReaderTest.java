@@ -0,0 +1,115 @@
+package com.github.catdou.parse.csv;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.csv.CsvRecordReader;
+import com.github.shootercheng.parse.parse.csv.CsvTokenizer;
+import com.github.shootercheng.parse.parse.csv.MappedCsvReader;
+import com.github.shootercheng.parse.utils.AnnotationUtil;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author James
+ */
+public class MappedCsvReaderTest {
+
+    private static final String CONTENT = "name,gender,num\r\n\"cheng,du\",\"m\",\"1\"\"2\"\r\n"
+            + "james,f,\r\n\r\n1,\"line1\nline2\",3\n\"ab\"c,\"\",x\n\"x\"\"\",y";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File writeFile(String name, String content, Charset charset) throws IOException {
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(charset));
+        return file;
+    }
+
+    private List<String> read(CsvRecordReader reader) throws IOException {
+        List<String> records = new ArrayList<>();
+        try {
+            while (reader.nextRecord()) {
+                records.add(reader.getRecordLineNumber() + ":" + reader.isBlankRecord() + ":"
+                        + String.join("|", reader.getFields()));
+            }
+        } finally {
+            reader.close();
+        }
+        return records;
+    }
+
+    private MappedCsvReader createReader(File file, Charset charset, int windowSize) throws Exception {
+        Constructor<MappedCsvReader> constructor = MappedCsvReader.class.getDeclaredConstructor(String.class,
+                Charset.class, char.class, char.class, long.class, long.class, int.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(file.getPath(), charset, ',', ',', 0L, -1L, windowSize);
+    }
+
+    @Test
+    public void testSameAsTokenizer() throws Exception {
+        File file = writeFile("utf8.csv", CONTENT, StandardCharsets.UTF_8);
+        List<String> expected = read(new CsvTokenizer(new StringReader(CONTENT), ','));
+        Assert.assertEquals(expected, read(new MappedCsvReader(file.getPath(), StandardCharsets.UTF_8, ',', ',')));
+        // 记录跨越映射窗口
+        for (int windowSize = 1; windowSize < 16; windowSize++) {
+            Assert.assertEquals(expected, read(createReader(file, StandardCharsets.UTF_8, windowSize)));
+        }
+    }
+
+    @Test
+    public void testQuotedEmptyLine() throws Exception {
+        String content = "a\n\"\"\n\nb";
+        File file = writeFile("empty.csv", content, StandardCharsets.UTF_8);
+        List<String> expected = Arrays.asList("0:false:a", "1:false:", "2:true:", "3:false:b");
+        Assert.assertEquals(expected, read(new CsvTokenizer(new StringReader(content), ',')));
+        Assert.assertEquals(expected, read(new MappedCsvReader(file.getPath(), StandardCharsets.UTF_8, ',', ',')));
+    }
+
+    @Test
+    public void testGbk() throws Exception {
+        String content = "姓名,性别\n\"成,都\",男\n";
+        Charset gbk = Charset.forName("GBK");
+        Assert.assertTrue(MappedCsvReader.isSupported(gbk, ',', '\t'));
+        Assert.assertFalse(MappedCsvReader.isSupported(StandardCharsets.UTF_16, ','));
+        File file = writeFile("gbk.csv", content, gbk);
+        List<String> records = read(createReader(file, gbk, 5));
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals("1:false:成,都|男", records.get(1));
+    }
+
+    @Test
+    public void testParseFile() throws IOException {
+        File file = writeFile("mapped.csv", CONTENT, StandardCharsets.UTF_8);
+        String filePath = file.getPath();
+        ParseParam parseParam = new ParseParam().setStartLine(1)
+                .setEncode(StandardCharsets.UTF_8.name())
+                .setMemoryMapped(true)
+                .setFieldSetterMap(AnnotationUtil.findOneSheetSetter(UserInfo.class));
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath));
+        List<UserInfo> userInfoList = fileParse.parseFile(filePath, UserInfo.class, parseParam);
+        Assert.assertEquals(5, userInfoList.size());
+        Assert.assertEquals("cheng,du", userInfoList.get(0).getName());
+        Assert.assertEquals("1\"2", userInfoList.get(0).getNum());
+        Assert.assertNull(userInfoList.get(1).getNum());
+        Assert.assertEquals("line1\nline2", userInfoList.get(2).getGender());
+        Assert.assertEquals("abc", userInfoList.get(3).getName());
+        Assert.assertEquals("x\"", userInfoList.get(4).getName());
+    }
+}
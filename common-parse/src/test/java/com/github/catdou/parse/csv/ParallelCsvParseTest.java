@@ -0,0 +1,102 @@
+package com.github.catdou.parse.csv;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.csv.CsvChunkSplitter;
+import com.github.shootercheng.parse.parse.csv.MappedCsvReader;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.github.catdou.parse.ParseTestFiles.USER_CN_HEAD;
+import static com.github.catdou.parse.ParseTestFiles.headParam;
+import static com.github.catdou.parse.ParseTestFiles.toStringList;
+import static com.github.catdou.parse.ParseTestFiles.writeCsv;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author James
+ */
+public class ParallelCsvParseTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 含引号内换行和空行
+     */
+    private static String quotedRow(int i) {
+        if (i % 7 == 0) {
+            return "\"name" + i + "\r\n,\"\"x\"\"\",m,\"" + i + "\"";
+        } else if (i % 11 == 0) {
+            return "";
+        }
+        return "name" + i + ",f," + i;
+    }
+
+    private List<String> readRange(String filePath, long start, long end) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (MappedCsvReader reader = new MappedCsvReader(filePath, StandardCharsets.UTF_8, ',', ',', start, end)) {
+            while (reader.nextRecord()) {
+                records.add(Arrays.toString(reader.getFields()));
+            }
+            Assert.assertFalse(reader.isQuoteUnclosed());
+        }
+        return records;
+    }
+
+    @Test
+    public void testSplit() throws IOException {
+        String filePath = writeCsv(folder, "split.csv", USER_CN_HEAD, 200, ParallelCsvParseTest::quotedRow);
+        List<String> expected = readRange(filePath, 0, -1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long chunkSize = 5; chunkSize < 200; chunkSize += 17) {
+                long[] positions = CsvChunkSplitter.split(filePath, 0, chunkSize, pool);
+                List<String> records = new ArrayList<>();
+                for (int i = 0; i < positions.length - 1; i++) {
+                    Assert.assertTrue(positions[i] < positions[i + 1]);
+                    records.addAll(readRange(filePath, positions[i], positions[i + 1]));
+                }
+                Assert.assertEquals(expected, records);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelParse() throws IOException {
+        String filePath = writeCsv(folder, "parallel.csv", USER_CN_HEAD, 150000,
+                ParallelCsvParseTest::quotedRow);
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath));
+        List<UserInfo> expected = fileParse.parseFile(filePath, UserInfo.class, headParam());
+        List<UserInfo> parallelList = fileParse.parseFile(filePath, UserInfo.class,
+                headParam().setParallelism(4));
+        Assert.assertEquals(toStringList(expected), toStringList(parallelList));
+
+        List<UserInfo> consumeList = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        List<UserInfo> resultList = fileParse.parseFile(filePath, UserInfo.class, headParam()
+                .setParallelism(4)
+                .setBatchNum(5000)
+                .setDataConsumer((list, sheet) -> {
+                    batchSizes.add(list.size());
+                    consumeList.addAll(list);
+                }));
+        Assert.assertTrue(resultList.isEmpty());
+        Assert.assertEquals(toStringList(expected), toStringList(consumeList));
+        for (int i = 0; i < batchSizes.size() - 1; i++) {
+            Assert.assertEquals(Integer.valueOf(5000), batchSizes.get(i));
+        }
+    }
+}
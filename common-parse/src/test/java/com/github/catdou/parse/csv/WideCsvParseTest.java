@@ -0,0 +1,97 @@
+package com.github.catdou.parse.csv;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.common.util.DataUtil;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author James
+ */
+public class WideCsvParseTest {
+    private static final int COLUMN_COUNT = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String writeWideFile() throws IOException {
+        File file = folder.newFile("wide.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            String[] head = new String[COLUMN_COUNT];
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                head[i] = "h" + i;
+            }
+            writer.write(String.join(",", head) + "\r\n");
+            for (int row = 0; row < 10; row++) {
+                String[] values = new String[COLUMN_COUNT];
+                for (int i = 0; i < COLUMN_COUNT; i++) {
+                    values[i] = row + "-" + i;
+                }
+                writer.write(String.join(",", values) + "\r\n");
+            }
+        }
+        return file.getPath();
+    }
+
+    @Test
+    public void testColumnIndex() {
+        Assert.assertEquals(0, DataUtil.columnIndex("A"));
+        Assert.assertEquals(25, DataUtil.columnIndex("Z"));
+        Assert.assertEquals(26, DataUtil.columnIndex("AA"));
+        Assert.assertEquals(701, DataUtil.columnIndex("ZZ"));
+        Assert.assertEquals(702, DataUtil.columnIndex("AAA"));
+        Assert.assertEquals(16383, DataUtil.columnIndex("XFD"));
+        Assert.assertEquals(-1, DataUtil.columnIndex("XFE"));
+        Assert.assertEquals(-1, DataUtil.columnIndex("a"));
+        Assert.assertEquals(-1, DataUtil.columnIndex(""));
+        for (int i = 0; i < DataUtil.MAX_COLUMN_NUM; i++) {
+            Assert.assertEquals(i, DataUtil.columnIndex(DataUtil.columnName(i)));
+            if (i < 702) {
+                Assert.assertEquals(DataUtil.COLUMN_NUM.get(i), DataUtil.columnName(i));
+            }
+        }
+        Assert.assertEquals("XFD", DataUtil.calExcelNumChar(16383));
+    }
+
+    @Test
+    public void testWideColumn() throws IOException {
+        String filePath = writeWideFile();
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath));
+        Map<String, String> fieldColumnMap = new HashMap<>(16);
+        fieldColumnMap.put("A", "name");
+        fieldColumnMap.put("AAA", "gender");
+        fieldColumnMap.put("AMJ", "num");
+        ParseParam parseParam = new ParseParam().setStartLine(1).setEncode(StandardCharsets.UTF_8.name())
+                .setFieldSetterMap(FileParseCommonUtil.convertToColumnMethodMap(UserInfo.class, fieldColumnMap));
+        List<UserInfo> columnList = fileParse.parseFile(filePath, UserInfo.class, parseParam);
+        Assert.assertEquals(10, columnList.size());
+        Assert.assertEquals("9-0", columnList.get(9).getName());
+        Assert.assertEquals("9-702", columnList.get(9).getGender());
+        Assert.assertEquals("9-1023", columnList.get(9).getNum());
+
+        Map<String, List<String>> fieldHeadMap = new HashMap<>();
+        fieldHeadMap.put("name", Arrays.asList("h0"));
+        fieldHeadMap.put("gender", Arrays.asList("h702"));
+        fieldHeadMap.put("num", Arrays.asList("h1023"));
+        List<UserInfo> headList = fileParse.parseFile(filePath, UserInfo.class, new ParseParam().setStartLine(1)
+                .setHeadLine(0).setEncode(StandardCharsets.UTF_8.name()).setFieldHeadMap(fieldHeadMap));
+        Assert.assertEquals("3-1023", headList.get(3).getNum());
+        Assert.assertEquals("3-702", headList.get(3).getGender());
+    }
+}
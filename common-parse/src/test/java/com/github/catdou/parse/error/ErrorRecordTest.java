@@ -0,0 +1,101 @@
+package com.github.catdou.parse.error;
+
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.error.DefaultErrorRecord;
+import com.github.shootercheng.parse.parse.error.ErrorType;
+import com.github.shootercheng.parse.parse.error.ParseError;
+import com.github.shootercheng.parse.parse.error.RingErrorRecord;
+import com.github.shootercheng.parse.parse.pipeline.ParsePipeline;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * @author James
+ */
+public class ErrorRecordTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRing() {
+        RingErrorRecord errorRecord = new RingErrorRecord(4);
+        for (int i = 0; i < 10; i++) {
+            errorRecord.writeError(i, i % 2, ErrorType.CELL_CONVERT, "v" + i);
+        }
+        errorRecord.writeError(10, -1, ErrorType.ROW_CONVERT, new String[]{"a", "b"});
+        Assert.assertEquals(11, errorRecord.getErrorCount());
+        Assert.assertEquals(10, errorRecord.getErrorCount(ErrorType.CELL_CONVERT));
+        Assert.assertEquals(1, errorRecord.getErrorCount(ErrorType.ROW_CONVERT));
+        Assert.assertEquals(5, errorRecord.getColumnErrorCount(1));
+        Assert.assertEquals(0, errorRecord.getColumnErrorCount(100));
+        List<ParseError> errors = errorRecord.getErrors();
+        Assert.assertEquals(4, errors.size());
+        Assert.assertEquals(7, errors.get(0).getLine());
+        Assert.assertEquals(1, errors.get(0).getColumn());
+        Assert.assertEquals("v7", errors.get(0).getRawValue());
+        Assert.assertEquals("line 7:column B v7 convert error", errors.get(0).toString());
+        Assert.assertEquals("line 10:[a, b]covert to null", errors.get(3).toString());
+        errorRecord.writeErrorMsg("custom");
+        Assert.assertTrue(errorRecord.getErrorMsg().endsWith("custom\n"));
+    }
+
+    @Test
+    public void testSpill() throws IOException {
+        File spillFile = new File(folder.getRoot(), "error.log");
+        try (RingErrorRecord errorRecord = new RingErrorRecord(2, spillFile.getPath())) {
+            for (int i = 0; i < 5; i++) {
+                errorRecord.writeError(i, 0, ErrorType.CELL_MISSING, null);
+            }
+            Assert.assertEquals(2, errorRecord.getErrors().size());
+        }
+        List<String> lines = Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(3, lines.size());
+        Assert.assertEquals("line 0:column A no data", lines.get(0));
+        Assert.assertEquals("line 2:column A no data", lines.get(2));
+    }
+
+    @Test
+    public void testDefaultNotWiped() {
+        DefaultErrorRecord errorRecord = new DefaultErrorRecord(new StringBuilder());
+        errorRecord.writeError(0, -1, ErrorType.ROW_CONVERT, "first");
+        char[] chars = new char[1000];
+        String longMsg = new String(chars);
+        for (int i = 0; i < 1100; i++) {
+            errorRecord.writeErrorMsg(longMsg);
+        }
+        Assert.assertTrue(errorRecord.getErrorMsg().startsWith("line 0:firstcovert to null"));
+        Assert.assertTrue(errorRecord.getDroppedCount() > 0);
+        Assert.assertTrue(errorRecord.getErrorMsg().endsWith(errorRecord.getDroppedCount() + " more errors dropped"));
+    }
+
+    @Test(timeout = 60000)
+    public void testPipelineErrors() {
+        RingErrorRecord errorRecord = new RingErrorRecord(16);
+        ParseParam parseParam = new ParseParam().setBatchNum(10).setPipelineThreads(2).setErrorRecord(errorRecord);
+        // 转换线程记录单元格错误
+        try (ParsePipeline<String> pipeline = new ParsePipeline<>(parseParam, 0, row -> {
+            if (row[0].startsWith("bad")) {
+                FileParseCommonUtil.writeError(parseParam, Integer.parseInt(row[0].substring(3)), 0,
+                        ErrorType.CELL_CONVERT, row[0]);
+            }
+            return row[0];
+        })) {
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(new String[]{i % 10 == 3 ? "bad" + i : String.valueOf(i)});
+            }
+            Assert.assertEquals(100, pipeline.finish().size());
+        }
+        Assert.assertEquals(10, errorRecord.getErrorCount(ErrorType.CELL_CONVERT));
+        Assert.assertEquals(10, errorRecord.getColumnErrorCount(0));
+    }
+}
@@ -2,6 +2,7 @@ package com.github.catdou.parse.excel;
 
 import org.apache.poi.hssf.eventusermodel.HSSFListener;
 import org.apache.poi.hssf.record.*;
+import org.apache.poi.hssf.record.Record;
 
 /**
  * @author chengdu
@@ -0,0 +1,93 @@
+package com.github.catdou.parse.jfr;
+
+import com.github.catdou.parse.ParseTestFiles;
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author James
+ */
+public class JfrEventsTest {
+    private static final int ROW_COUNT = 1000;
+
+    private static final int BATCH_NUM = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<RecordedEvent> record(Runnable runnable) throws IOException {
+        File recordFile = folder.newFile("parse.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : Arrays.asList("FileOpen", "HeadResolve", "ConsumerBatch")) {
+                recording.enable("com.github.shootercheng." + name);
+            }
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(recordFile.toPath());
+        }
+        return RecordingFile.readAllEvents(recordFile.toPath());
+    }
+
+    private static List<RecordedEvent> filter(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> result = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("com.github.shootercheng." + name)) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testCsvEvents() throws IOException {
+        String filePath = ParseTestFiles.writeCsv(folder, "jfr.csv", "name,gender,num,other", ROW_COUNT,
+                i -> ParseTestFiles.userRow(i) + ",x");
+        Map<String, List<String>> fieldHeadMap = new HashMap<>();
+        fieldHeadMap.put("name", Arrays.asList("name"));
+        fieldHeadMap.put("num", Arrays.asList("num"));
+        ParseParam parseParam = new ParseParam().setStartLine(1).setBatchNum(BATCH_NUM)
+                .setEncode(StandardCharsets.UTF_8.name())
+                .setFieldHeadMap(fieldHeadMap)
+                .setDataConsumer((list, sheet) -> { });
+        List<RecordedEvent> events = record(() -> FileParseCreateor.createFileParse(ParseType.CSV)
+                .parseFile(filePath, UserInfo.class, parseParam));
+
+        List<RecordedEvent> openEvents = filter(events, "FileOpen");
+        Assert.assertEquals(1, openEvents.size());
+        Assert.assertEquals(filePath, openEvents.get(0).getString("path"));
+        Assert.assertEquals(new File(filePath).length(), openEvents.get(0).getLong("bytes"));
+
+        List<RecordedEvent> headEvents = filter(events, "HeadResolve");
+        Assert.assertEquals(1, headEvents.size());
+        Assert.assertEquals(4, headEvents.get(0).getInt("headColumns"));
+        Assert.assertEquals(2, headEvents.get(0).getInt("boundColumns"));
+
+        List<RecordedEvent> batchEvents = filter(events, "ConsumerBatch");
+        Assert.assertEquals((ROW_COUNT + BATCH_NUM - 1) / BATCH_NUM, batchEvents.size());
+        int rows = 0;
+        for (RecordedEvent event : batchEvents) {
+            rows += event.getInt("rows");
+            Assert.assertFalse(event.getDuration().isNegative());
+        }
+        Assert.assertEquals(ROW_COUNT, rows);
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.catdou.parse.metrics;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.common.metrics.MetricsSnapshot;
+import com.github.shootercheng.common.metrics.ParseMetrics;
+import com.github.shootercheng.common.metrics.Stage;
+import com.github.shootercheng.parse.constant.ParseType;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.error.ErrorType;
+import com.github.shootercheng.parse.parse.pipeline.ParsePipeline;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.catdou.parse.ParseTestFiles.USER_HEAD;
+import static com.github.catdou.parse.ParseTestFiles.columnParam;
+import static com.github.catdou.parse.ParseTestFiles.writeCsv;
+import static com.github.catdou.parse.ParseTestFiles.writeXlsx;
+
+/**
+ * @author James
+ */
+public class ParseMetricsTest {
+    private static final int ROW_COUNT = 1000;
+
+    private static final int BATCH_NUM = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ParseParam createParam(ParseType parseType, ParseMetrics parseMetrics) {
+        return columnParam().setBatchNum(BATCH_NUM).setParseType(parseType).setParseMetrics(parseMetrics);
+    }
+
+    @Test
+    public void testCsvMetrics() throws IOException {
+        String filePath = writeCsv(folder, "metrics.csv", USER_HEAD, ROW_COUNT);
+        ParseMetrics parseMetrics = new ParseMetrics();
+        ParseParam parseParam = createParam(ParseType.CSV, parseMetrics).setDataConsumer((list, sheet) -> { });
+        FileParseCreateor.createFileParse(ParseType.CSV).parseFile(filePath, UserInfo.class, parseParam);
+        MetricsSnapshot snapshot = parseMetrics.snapshot();
+        Assert.assertEquals(ROW_COUNT, snapshot.getRows());
+        Assert.assertEquals(new File(filePath).length(), snapshot.getBytes());
+        Assert.assertEquals(0, snapshot.getErrors());
+        Assert.assertTrue(snapshot.getStageNanos(Stage.READ) > 0);
+        Assert.assertTrue(snapshot.getStageNanos(Stage.CONVERT) > 0);
+        Assert.assertTrue(snapshot.getElapsedNanos() > 0);
+        Assert.assertTrue(snapshot.getRowsPerSecond() > 0);
+        int batchCount = (ROW_COUNT + BATCH_NUM - 1) / BATCH_NUM;
+        Assert.assertEquals(batchCount, snapshot.getBatchCount());
+        long histogramSum = 0;
+        for (long count : snapshot.getBatchHistogram()) {
+            histogramSum += count;
+        }
+        Assert.assertEquals(batchCount, histogramSum);
+        // 多次解析共用一个 metrics
+        FileParseCreateor.createFileParse(ParseType.CSV).parseFile(filePath, UserInfo.class,
+                createParam(ParseType.CSV, parseMetrics).setParallelism(2));
+        Assert.assertEquals(ROW_COUNT * 2, parseMetrics.getRows());
+        Assert.assertEquals(new File(filePath).length() * 2, parseMetrics.getBytes());
+    }
+
+    @Test
+    public void testExcelStreamMetrics() throws IOException {
+        String filePath = writeXlsx(folder, "metrics.xlsx", ROW_COUNT);
+        ParseMetrics parseMetrics = new ParseMetrics();
+        FileParseCreateor.createFileParse(ParseType.EXCEL_STREAM).parseFile(filePath, UserInfo.class,
+                createParam(ParseType.EXCEL_STREAM, parseMetrics));
+        Assert.assertEquals(ROW_COUNT, parseMetrics.getRows());
+        Assert.assertTrue(parseMetrics.getStageNanos(Stage.READ) > 0);
+        Assert.assertTrue(parseMetrics.getStageNanos(Stage.CONVERT) > 0);
+        parseMetrics.reset();
+        Assert.assertEquals(0, parseMetrics.getRows());
+        FileParseCreateor.createFileParse(ParseType.EASYEXCEL).parseFile(filePath, UserInfo.class,
+                createParam(ParseType.EASYEXCEL, parseMetrics));
+        Assert.assertEquals(ROW_COUNT, parseMetrics.getRows());
+        Assert.assertEquals(new File(filePath).length(), parseMetrics.getBytes());
+    }
+
+    @Test
+    public void testSheetsMetrics() throws IOException {
+        String filePath = writeXlsx(folder, "sheets.xlsx", 2, ROW_COUNT);
+        for (ParseType parseType : Arrays.asList(ParseType.EXCEL, ParseType.EXCEL_STREAM, ParseType.EASYEXCEL)) {
+            // 两个 sheet 共用一个 metrics, 文件大小只计一次
+            ParseMetrics parseMetrics = new ParseMetrics();
+            Map<Integer, ParseParam> parseParamMap = new HashMap<>();
+            parseParamMap.put(0, createParam(parseType, parseMetrics));
+            parseParamMap.put(1, createParam(parseType, parseMetrics));
+            Map<Integer, List<UserInfo>> resultMap = FileParseCreateor.createFileParse(parseType)
+                    .parseFileSheets(filePath, UserInfo.class, parseParamMap);
+            Assert.assertEquals(ROW_COUNT, resultMap.get(1).size());
+            Assert.assertEquals(parseType.name(), ROW_COUNT * 2, parseMetrics.getRows());
+            Assert.assertEquals(new File(filePath).length(), parseMetrics.getBytes());
+            Assert.assertTrue(parseMetrics.snapshot().getElapsedNanos() > 0);
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testErrorCount() {
+        ParseMetrics parseMetrics = new ParseMetrics();
+        ParseParam parseParam = new ParseParam().setBatchNum(10).setPipelineThreads(2).setParseMetrics(parseMetrics);
+        try (ParsePipeline<String> pipeline = new ParsePipeline<>(parseParam, 0, row -> {
+            if (row[0].startsWith("bad")) {
+                FileParseCommonUtil.writeError(parseParam, 0, 0, ErrorType.CELL_CONVERT, row[0]);
+            }
+            return row[0];
+        })) {
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(new String[]{i % 10 == 3 ? "bad" + i : String.valueOf(i)});
+            }
+            pipeline.finish();
+        }
+        Assert.assertEquals(10, parseMetrics.getErrors());
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        ParseMetrics parseMetrics = new ParseMetrics();
+        parseMetrics.addRows(5);
+        parseMetrics.addBatch(3000000L);
+        ObjectName objectName = parseMetrics.register("order-import");
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            Assert.assertEquals(5L, mBeanServer.getAttribute(objectName, "Rows"));
+            long[] histogram = (long[]) mBeanServer.getAttribute(objectName, "BatchLatencyHistogram");
+            // 3ms 在 4ms 的桶中
+            Assert.assertEquals(1, histogram[2]);
+        } finally {
+            parseMetrics.unregister();
+        }
+        Assert.assertFalse(mBeanServer.isRegistered(objectName));
+    }
+}
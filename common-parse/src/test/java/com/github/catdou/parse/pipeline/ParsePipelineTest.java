@@ -0,0 +1,111 @@
+package com.github.catdou.parse.pipeline;
+
+import com.github.catdou.parse.model.UserInfo;
+import com.github.shootercheng.parse.exception.FileParseException;
+import com.github.shootercheng.parse.param.ParseParam;
+import com.github.shootercheng.parse.parse.FileParse;
+import com.github.shootercheng.parse.parse.FileParseCreateor;
+import com.github.shootercheng.parse.parse.pipeline.ParsePipeline;
+import com.github.shootercheng.parse.utils.FileParseCommonUtil;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.github.catdou.parse.ParseTestFiles.USER_CN_HEAD;
+import static com.github.catdou.parse.ParseTestFiles.headParam;
+import static com.github.catdou.parse.ParseTestFiles.toStringList;
+import static com.github.catdou.parse.ParseTestFiles.writeCsv;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author James
+ */
+public class ParsePipelineTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = 60000)
+    public void testCsvPipeline() throws IOException {
+        String filePath = writeCsv(folder, "pipeline.csv", USER_CN_HEAD, 20000);
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath));
+        List<UserInfo> expected = fileParse.parseFile(filePath, UserInfo.class, headParam());
+        List<UserInfo> pipelineList = fileParse.parseFile(filePath, UserInfo.class,
+                headParam().setPipelineThreads(3).setBatchNum(700));
+        Assert.assertEquals(toStringList(expected), toStringList(pipelineList));
+
+        List<UserInfo> consumeList = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        List<UserInfo> resultList = fileParse.parseFile(filePath, UserInfo.class, headParam()
+                .setPipelineThreads(3)
+                .setBatchNum(700)
+                .setDataConsumer((list, sheet) -> {
+                    Assert.assertNotSame(caller, Thread.currentThread());
+                    batchSizes.add(list.size());
+                    consumeList.addAll(list);
+                }));
+        Assert.assertTrue(resultList.isEmpty());
+        Assert.assertEquals(toStringList(expected), toStringList(consumeList));
+        for (int i = 0; i < batchSizes.size() - 1; i++) {
+            Assert.assertEquals(Integer.valueOf(700), batchSizes.get(i));
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testBackpressure() throws Exception {
+        CountDownLatch consumeLatch = new CountDownLatch(1);
+        AtomicInteger submitted = new AtomicInteger();
+        List<String> consumeList = new ArrayList<>();
+        ParseParam parseParam = new ParseParam().setBatchNum(10).setPipelineThreads(2).setPipelineQueueSize(2)
+                .setDataConsumer((list, sheet) -> {
+                    try {
+                        consumeLatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    consumeList.addAll(list);
+                });
+        List<?> resultList;
+        try (ParsePipeline<String> pipeline = new ParsePipeline<>(parseParam, 0, row -> row[0])) {
+            Thread reader = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    pipeline.submit(new String[]{String.valueOf(i)});
+                    submitted.incrementAndGet();
+                }
+            });
+            reader.start();
+            Thread.sleep(500);
+            // 消费者阻塞时, 读取最多领先 队列大小 + 消费中 + 未满批次
+            Assert.assertTrue(submitted.get() < 50);
+            consumeLatch.countDown();
+            reader.join();
+            resultList = pipeline.finish();
+        }
+        Assert.assertTrue(resultList.isEmpty());
+        Assert.assertEquals(1000, consumeList.size());
+        Assert.assertEquals("5", consumeList.get(5));
+        Assert.assertEquals("999", consumeList.get(999));
+    }
+
+    @Test(timeout = 60000)
+    public void testConsumerError() throws IOException {
+        String filePath = writeCsv(folder, "error.csv", USER_CN_HEAD, 5000);
+        FileParse fileParse = FileParseCreateor.createFileParse(FileParseCommonUtil.findParserType(filePath));
+        try {
+            fileParse.parseFile(filePath, UserInfo.class, headParam().setPipelineThreads(2).setBatchNum(100)
+                    .setDataConsumer((list, sheet) -> {
+                        throw new IllegalStateException("insert error");
+                    }));
+            Assert.fail();
+        } catch (FileParseException e) {
+            Assert.assertNotNull(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.catdou.parse.type;
+
+import com.github.shootercheng.parse.type.BooleanTypeHandler;
+import com.github.shootercheng.parse.type.DoubleTypeHandler;
+import com.github.shootercheng.parse.type.IntegerTypeHandler;
+import com.github.shootercheng.parse.type.LongTypeHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * @author James
+ */
+public class TypeConverterTest {
+
+    private static Object legacyInt(String input) {
+        int dotIndex = input.indexOf(".");
+        if (dotIndex != -1) {
+            input = input.substring(0, dotIndex);
+        }
+        return Integer.valueOf(input);
+    }
+
+    private static Object call(Supplier<Object> supplier) {
+        try {
+            return supplier.get();
+        } catch (NumberFormatException e) {
+            return NumberFormatException.class;
+        }
+    }
+
+    @Test
+    public void testInteger() {
+        IntegerTypeHandler handler = new IntegerTypeHandler();
+        String[] inputs = {"0", "12", "-12", "+12", "12.0", "12.9", "-1.5", "1.abc", ".5", "-", "+", "1a",
+                "2147483647", "2147483648", "-2147483648", "-2147483649", "99999999999", " 1", "1 "};
+        for (String input : inputs) {
+            Assert.assertEquals(input, call(() -> legacyInt(input)), call(() -> handler.convertStrToType(input)));
+        }
+        Assert.assertEquals(345, handler.convertToInt("x,345,y", 2, 5));
+    }
+
+    @Test
+    public void testLong() {
+        LongTypeHandler handler = new LongTypeHandler();
+        String[] inputs = {"0", "-0", "123456789012", "-9223372036854775808", "9223372036854775807",
+                "9223372036854775808", "-9223372036854775809", "-92233720368547758090", "1.0", "+", "a"};
+        for (String input : inputs) {
+            Assert.assertEquals(input, call(() -> Long.valueOf(input)), call(() -> handler.convertStrToType(input)));
+        }
+        Assert.assertEquals(-77L, handler.convertToLong("a-77b", 1, 4));
+    }
+
+    @Test
+    public void testDouble() {
+        DoubleTypeHandler handler = new DoubleTypeHandler();
+        String[] inputs = {"0", "-0", "-0.0", "1.5", ".5", "5.", "-.25", "123456789.123456", "0.1", "0.3",
+                "1234567890123456789", "3.14159265358979323846", "1e10", "-2.5E-3", " 1.5", "1.5d", "NaN",
+                "-Infinity", ".", "-", "1.2.3", "abc", "0.000000000000001"};
+        for (String input : inputs) {
+            Assert.assertEquals(input, call(() -> Double.valueOf(input)), call(() -> handler.convertStrToType(input)));
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            String input = random.nextInt(1000000) + "." + random.nextInt(100000000);
+            Assert.assertEquals(input, Double.valueOf(input), handler.convertStrToType(input));
+        }
+        Assert.assertEquals(2.5, handler.convertToDouble("[2.5]", 1, 4), 0);
+    }
+
+    @Test
+    public void testBoolean() {
+        BooleanTypeHandler handler = new BooleanTypeHandler();
+        String[] inputs = {"true", "TRUE", "True", "false", "1", "yes", "truee", "tru", ""};
+        for (String input : inputs) {
+            Assert.assertEquals(input, Boolean.valueOf(input), handler.convertStrToType(input));
+        }
+        Assert.assertTrue(handler.convertToBoolean("a,TRUE,b", 2, 6));
+    }
+}
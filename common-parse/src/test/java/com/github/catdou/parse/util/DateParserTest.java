@@ -0,0 +1,105 @@
+package com.github.catdou.parse.util;
+
+import com.github.shootercheng.parse.exception.DataParseException;
+import com.github.shootercheng.parse.utils.DateParser;
+import com.github.shootercheng.parse.utils.DateUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author James
+ */
+public class DateParserTest {
+
+    private static Date legacyParse(String dateStr, String pattern) throws ParseException {
+        return new SimpleDateFormat(pattern).parse(dateStr);
+    }
+
+    @Test
+    public void testSameAsSimpleDateFormat() throws ParseException {
+        String[][] cases = {
+                {"2019-12-06", "yyyy-MM-dd"},
+                {"2019-1-6", "yyyy-MM-dd"},
+                {"2019/12/06", "yyyy/MM/dd"},
+                {"2019/2/30", "yyyy/MM/dd"},
+                {"2019.12.6", "yyyy.MM.dd"},
+                {"2019-13-01", "yyyy-MM-dd"},
+                {"2019-12-06 23:59:59", "yyyy-MM-dd HH:mm:ss"},
+                {"2019-12-06  08:05:01", "yyyy-MM-dd HH:mm:ss"},
+                {"2019-12-06 24:61:61", "yyyy-MM-dd HH:mm:ss"},
+                {"2019-12-06 10:30", "yyyy-MM-dd HH:mm"},
+                {"2019/12/06 10:30:15", "yyyy/MM/dd HH:mm:ss"},
+                {"2019/12/6 10:30", "yyyy/MM/dd HH:mm"},
+                {"2020-02-29", "yyyy-MM-dd"},
+                {"2020-00-00", "yyyy-MM-dd"}
+        };
+        DateParser dateParser = new DateParser();
+        for (String[] dateCase : cases) {
+            Assert.assertEquals(dateCase[0], legacyParse(dateCase[0], dateCase[1]), dateParser.parse(dateCase[0]));
+            Assert.assertEquals(dateCase[0], legacyParse(dateCase[0], dateCase[1]), DateUtil.parseStrToDate(dateCase[0]));
+        }
+    }
+
+    @Test
+    public void testLayoutSwitch() throws ParseException {
+        DateParser dateParser = new DateParser();
+        for (int i = 1; i <= 28; i++) {
+            String dateStr = "2019/3/" + i;
+            Assert.assertEquals(legacyParse(dateStr, "yyyy/MM/dd"), dateParser.parse(dateStr));
+        }
+        // 格式变化后重新学习
+        Assert.assertEquals(legacyParse("2019-03-01 10:00:00", "yyyy-MM-dd HH:mm:ss"),
+                dateParser.parse("2019-03-01 10:00:00"));
+        Assert.assertEquals(legacyParse("2019/3/2", "yyyy/MM/dd"), dateParser.parse("2019/3/2"));
+    }
+
+    @Test
+    public void testNotMatch() {
+        DateParser dateParser = new DateParser();
+        String[] errors = {"", "2019", "2019-12", "2019-12-06 ", "2019-12-06T10:30", "2019-12/06",
+                "2019-123-06", "2019-12-06 1:30", "2019-12-06 10:30:", "2019.12.06 10:30", "19-12-06", "2019-12-06   10:30"};
+        for (String error : errors) {
+            try {
+                dateParser.parse(error);
+                Assert.fail(error);
+            } catch (DataParseException e) {
+                Assert.assertTrue(e.getMessage().endsWith(error));
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentParse() throws Exception {
+        DateParser dateParser = new DateParser();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String layout = t % 2 == 0 ? "yyyy-MM-dd HH:mm:ss" : "yyyy/MM/dd";
+                String format = t % 2 == 0 ? "2019-%d-%d 10:20:30" : "2019/%d/%d";
+                futures.add(executor.submit(() -> {
+                    SimpleDateFormat legacy = new SimpleDateFormat(layout);
+                    for (int i = 0; i < 20000; i++) {
+                        String dateStr = String.format(format, i % 12 + 1, i % 28 + 1);
+                        Assert.assertEquals(legacy.parse(dateStr), dateParser.parse(dateStr));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}